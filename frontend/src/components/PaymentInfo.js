@@ -1,8 +1,41 @@
-import React from 'react';
+import React, { useEffect, useState } from 'react';
 import { Box, Typography, Paper, Button, CircularProgress } from '@mui/material';
 import { Payment as PaymentIcon } from '@mui/icons-material';
+import api from '../services/api';
 
 function PaymentInfo({ payment, loading }) {
+  const [qrImage, setQrImage] = useState(null);
+  const orderCode = payment?.orderCode;
+  const hasQrCode = Boolean(payment?.qrCodeUrl);
+
+  // Ảnh QR yêu cầu đăng nhập nên phải tải qua api (có token) thay vì gắn URL trực tiếp vào <img>
+  useEffect(() => {
+    if (!orderCode || !hasQrCode) {
+      setQrImage(null);
+      return undefined;
+    }
+    let objectUrl = null;
+    let cancelled = false;
+    api.get(`/payment/${orderCode}/qr`, { responseType: 'blob' })
+      .then((response) => {
+        if (!cancelled) {
+          objectUrl = URL.createObjectURL(response.data);
+          setQrImage(objectUrl);
+        }
+      })
+      .catch(() => {
+        if (!cancelled) {
+          setQrImage(null);
+        }
+      });
+    return () => {
+      cancelled = true;
+      if (objectUrl) {
+        URL.revokeObjectURL(objectUrl);
+      }
+    };
+  }, [orderCode, hasQrCode]);
+
   if (loading) {
     return (
       <Box display="flex" justifyContent="center" alignItems="center" minHeight={200}>
@@ -59,12 +92,12 @@ function PaymentInfo({ payment, loading }) {
             <Typography variant="body1">{payment.transferContent}</Typography>
           </Box>
 
-          {payment.qrCodeUrl && (
+          {qrImage && (
             <Box mb={2} textAlign="center">
               <Typography variant="subtitle2" color="text.secondary" gutterBottom>
                 Scan QR Code to Pay
               </Typography>
-              <img src={payment.qrCodeUrl} alt="Payment QR Code" style={{ maxWidth: '100%', height: 'auto' }} />
+              <img src={qrImage} alt="Payment QR Code" style={{ maxWidth: '100%', height: 'auto' }} />
             </Box>
           )}
         </>
@@ -23,7 +23,7 @@ import {
 } from '@mui/material';
 import { useDispatch, useSelector } from 'react-redux';
 import { logout, getCurrentUser } from '../redux/slices/authSlice';
-import { getNotifications, clearNewStatus } from '../redux/slices/notificationSlice';
+import { getNotifications, getUnreadCount, clearNewStatus } from '../redux/slices/notificationSlice';
 import { getUserPayments } from '../redux/slices/paymentSlice';
 import NotificationsIcon from '@mui/icons-material/Notifications';
 import GavelIcon from '@mui/icons-material/Gavel';
@@ -89,7 +89,7 @@ function MainLayout() {
   const location = useLocation();
   const dispatch = useDispatch();
   const { user, token } = useSelector((state) => state.auth);
-  const { notifications } = useSelector((state) => state.notification);
+  const { notifications, unreadCount } = useSelector((state) => state.notification);
   const { payments } = useSelector((state) => state.payment);
   const theme = useTheme();
   const isMobile = useMediaQuery(theme.breakpoints.down('md'));
@@ -120,12 +120,13 @@ function MainLayout() {
 
   React.useEffect(() => {
     if (user && user.username && !user.roles?.includes('ROLE_ADMIN') && location.pathname !== '/login') {
+      // Badge thông báo lấy từ bộ đếm phía server và được cập nhật qua UNREAD_COUNT đẩy trên WebSocket
+      dispatch(getUnreadCount());
       dispatch(getNotifications());
       dispatch(getUserPayments());
 
-      // Thiết lập polling để cập nhật thông báo mỗi 15 giây
+      // Thiết lập polling để cập nhật thanh toán mỗi 15 giây
       const intervalId = setInterval(() => {
-        dispatch(getNotifications());
         dispatch(getUserPayments());
       }, 15000);
 
@@ -133,10 +134,7 @@ function MainLayout() {
     }
   }, [dispatch, user, location.pathname]);
 
-  // Tính tổng số thông báo chưa đọc - sử dụng useMemo để tránh tính toán lại khi không cần thiết
-  const unreadGeneral = React.useMemo(() => {
-    return Array.isArray(notifications) ? notifications.filter((n) => !n.read).length : 0;
-  }, [notifications]);
+  const unreadGeneral = unreadCount || 0;
 
   const unreadPayments = React.useMemo(() => {
     return Array.isArray(payments) ? payments.filter((p) => p.status === 'PENDING' && !p.notified).length : 0;
@@ -146,6 +144,8 @@ function MainLayout() {
 
   const handleNotifClick = (event) => {
     setNotifAnchorEl(event.currentTarget);
+    // Danh sách chỉ cần khi mở menu; tải lại để thấy các thông báo đã gộp/cập nhật
+    dispatch(getNotifications());
   };
   const handleNotifClose = () => {
     setNotifAnchorEl(null);
@@ -3,6 +3,7 @@ import notificationService from '../../services/notificationService';
 
 const initialState = {
   notifications: [],
+  unreadCount: 0,
   loading: false,
   error: null,
   lastUpdated: null,
@@ -18,6 +19,15 @@ export const getNotifications = createAsyncThunk('notification/getNotifications'
   }
 });
 
+// Async thunk: Lấy số thông báo chưa đọc từ bộ đếm phía server
+export const getUnreadCount = createAsyncThunk('notification/getUnreadCount', async (_, { rejectWithValue }) => {
+  try {
+    return await notificationService.getUnreadCount();
+  } catch (err) {
+    return rejectWithValue(err.message || 'Failed to fetch unread count');
+  }
+});
+
 // Async thunk: Xóa thông báo
 export const deleteNotification = createAsyncThunk('notification/deleteNotification', async (id, { rejectWithValue }) => {
   try {
@@ -111,6 +121,9 @@ const notificationSlice = createSlice({
 
       state.lastUpdated = new Date().toISOString();
     },
+    setUnreadCount(state, action) {
+      state.unreadCount = action.payload;
+    },
     removeNotification(state, action) {
       state.notifications = state.notifications.filter((n) => n.id !== action.payload);
     },
@@ -172,7 +185,14 @@ const notificationSlice = createSlice({
         state.loading = false;
         state.error = action.payload;
       })
+      .addCase(getUnreadCount.fulfilled, (state, action) => {
+        state.unreadCount = action.payload ?? 0;
+      })
       .addCase(deleteNotification.fulfilled, (state, action) => {
+        const removed = state.notifications.find((n) => n.id === action.payload);
+        if (removed && !removed.read) {
+          state.unreadCount = Math.max(0, state.unreadCount - 1);
+        }
         state.notifications = state.notifications.filter((n) => n.id !== action.payload);
       })
       .addCase(deleteNotification.rejected, (state, action) => {
@@ -187,6 +207,9 @@ const notificationSlice = createSlice({
       .addCase(markAsRead.fulfilled, (state, action) => {
         const notification = state.notifications.find((n) => n.id === action.payload);
         if (notification) {
+          if (!notification.read) {
+            state.unreadCount = Math.max(0, state.unreadCount - 1);
+          }
           notification.read = true;
           notification.isNew = false;
         }
@@ -195,6 +218,7 @@ const notificationSlice = createSlice({
         state.error = action.payload;
       })
       .addCase(markAllAsRead.fulfilled, (state) => {
+        state.unreadCount = 0;
         state.notifications = state.notifications.map((notification) => ({
           ...notification,
           read: true,
@@ -207,6 +231,6 @@ const notificationSlice = createSlice({
   },
 });
 
-export const { setNotifications, addNotification, removeNotification, clearNotifications, clearNewStatus, setLoading, setError } = notificationSlice.actions;
+export const { setNotifications, addNotification, setUnreadCount, removeNotification, clearNotifications, clearNewStatus, setLoading, setError } = notificationSlice.actions;
 
 export default notificationSlice.reducer;
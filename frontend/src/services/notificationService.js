@@ -5,6 +5,10 @@ const notificationService = {
     const response = await api.get('/notifications');
     return response.data.content || response.data;
   },
+  async getUnreadCount() {
+    const response = await api.get('/notifications/unread/count');
+    return response.data.unreadCount;
+  },
   async deleteNotification(id) {
     const response = await api.delete(`/notifications/${id}`);
     return response.data;
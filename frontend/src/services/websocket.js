@@ -1,6 +1,6 @@
 import SockJS from 'sockjs-client';
 import { Client } from '@stomp/stompjs';
-import { addNotification, getNotifications } from '../redux/slices/notificationSlice';
+import { addNotification, getUnreadCount, setUnreadCount } from '../redux/slices/notificationSlice';
 import { auctionUpdated } from '../redux/slices/auctionSlice';
 import { getUserPayments } from '../redux/slices/paymentSlice';
 import store from '../redux/store';
@@ -49,8 +49,8 @@ class WebSocketService {
         this.subscribeToUserAuctions(user.username);
       }
 
-      // Cập nhật thông báo khi kết nối thành công
-      store.dispatch(getNotifications());
+      // Đồng bộ lại bộ đếm chưa đọc sau khi (tái) kết nối, phòng khi bỏ lỡ UNREAD_COUNT lúc mất kết nối
+      store.dispatch(getUnreadCount());
       store.dispatch(getUserPayments());
     };
 
@@ -100,17 +100,16 @@ class WebSocketService {
           console.log('[WebSocket] Parsed update:', update);
 
           // Handle different types of messages based on topic
-          if (topic.includes('/queue/notifications')) {
+          if (topic.includes('/queue/notifications') && update.type === 'UNREAD_COUNT') {
+            // Server đẩy số lượng chưa đọc mỗi khi thay đổi, không cần poll lại danh sách
+            store.dispatch(setUnreadCount(update.unreadCount));
+          } else if (topic.includes('/queue/notifications')) {
             console.log('[WebSocket] Received notification update:', update);
 
             // Dispatch the notification to Redux store - thông báo mới nhất sẽ được đánh dấu là mới
+            // Badge lấy từ UNREAD_COUNT server đẩy kèm, không cần tải lại danh sách
             store.dispatch(addNotification(update));
 
-            // Cập nhật lại danh sách thông báo để đảm bảo badge count được cập nhật
-            setTimeout(() => {
-              store.dispatch(getNotifications());
-            }, 500);
-
             // Show desktop notification if enabled
             if (update.title || update.message) {
               this.showDesktopNotification({
@@ -127,10 +126,9 @@ class WebSocketService {
             // Dispatch auction update to Redux store
             store.dispatch(auctionUpdated(update));
 
-            // Nếu là cập nhật đấu giá, cập nhật thông báo
+            // Nếu là cập nhật đấu giá, cập nhật thanh toán; thông báo tới qua /user/queue/notifications
             if (update.type === 'BID') {
               setTimeout(() => {
-                store.dispatch(getNotifications());
                 store.dispatch(getUserPayments());
               }, 500);
             }
@@ -0,0 +1,58 @@
+package com.auction.service;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Kiểm tra kế hoạch truy vấn nóng trên MySQL thật với schema do Flyway tạo, fail-on-full-scan bật như CI.
+ * Chạy bằng mvn -Pmysql-it verify (cần Docker).
+ */
+@Testcontainers
+class QueryPlanVerifierIT {
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        Flyway.configure()
+            .dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+            .locations("classpath:db/migration")
+            .load()
+            .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()));
+    }
+
+    @Test
+    void everyHotQueryCanUseItsExpectedIndex() {
+        QueryPlanVerifier verifier = new QueryPlanVerifier(jdbcTemplate, true, 1000);
+
+        assertThat(verifier.findViolations()).isEmpty();
+        verifier.verify();
+    }
+
+    @Test
+    void droppedIndexFailsTheCheck() {
+        jdbcTemplate.execute("drop index idx_auctions_status_start on auctions");
+        try {
+            QueryPlanVerifier verifier = new QueryPlanVerifier(jdbcTemplate, true, 1000);
+
+            assertThat(verifier.findViolations()).anyMatch(violation -> violation.startsWith("auctions to start"));
+            assertThatThrownBy(verifier::verify).isInstanceOf(IllegalStateException.class);
+        } finally {
+            jdbcTemplate.execute("create index idx_auctions_status_start on auctions (status, start_time)");
+        }
+    }
+}
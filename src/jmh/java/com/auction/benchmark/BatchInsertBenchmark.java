@@ -0,0 +1,208 @@
+package com.auction.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thông lượng INSERT trên MySQL theo đúng câu lệnh Hibernate phát ra cho bids và notifications:
+ * <ul>
+ *   <li>{@code *Identity}: id AUTO_INCREMENT, mỗi dòng một round-trip và đọc generated key (cấu hình cũ)</li>
+ *   <li>{@code *PooledBatch}: id cấp theo khối 50 từ bảng {@code *_seq} (pooled-lo, transaction riêng như
+ *   Hibernate) và INSERT gộp batch, driver viết lại thành INSERT nhiều giá trị nhờ rewriteBatchedStatements</li>
+ * </ul>
+ * {@code rows} là số dòng trong một transaction: 1 ứng với một lượt đặt giá, 50 ứng với thông báo gửi cho mọi
+ * người tham gia khi phiên kết thúc. Cần MySQL đang chạy; đổi kết nối bằng {@code -p jdbcUrl=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Param("jdbc:mysql://localhost:3306/online_auction_bench?createDatabaseIfNotExist=true&rewriteBatchedStatements=true")
+    private String jdbcUrl;
+
+    @Param("root")
+    private String user;
+
+    @Param("123456")
+    private String password;
+
+    @Param({"1", "50"})
+    private int rows;
+
+    private Connection connection;
+    private Connection allocationConnection;
+    private final long[] bidIds = new long[2];
+    private final long[] notificationIds = new long[2];
+
+    @Setup(Level.Trial)
+    public void createTables() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        allocationConnection = DriverManager.getConnection(jdbcUrl, user, password);
+        allocationConnection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"bench_bids_identity", "bench_bids_pooled", "bench_bids_seq",
+                    "bench_notifications_identity", "bench_notifications_pooled", "bench_notifications_seq"}) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+            }
+            statement.execute("CREATE TABLE bench_bids_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "amount DECIMAL(38,2) NOT NULL, bid_time DATETIME(6) NOT NULL, is_winning BIT NOT NULL, " +
+                "auction_id BIGINT NOT NULL, bidder_id BIGINT NOT NULL)");
+            statement.execute("CREATE TABLE bench_bids_pooled LIKE bench_bids_identity");
+            statement.execute("ALTER TABLE bench_bids_pooled MODIFY id BIGINT NOT NULL");
+            statement.execute("CREATE TABLE bench_notifications_identity (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "recipient_id BIGINT, message VARCHAR(255), type VARCHAR(255), is_read BIT NOT NULL, " +
+                "created_at DATETIME(6), auction_id BIGINT, amount DECIMAL(38,2), digest_count INT)");
+            statement.execute("CREATE TABLE bench_notifications_pooled LIKE bench_notifications_identity");
+            statement.execute("ALTER TABLE bench_notifications_pooled MODIFY id BIGINT NOT NULL");
+            statement.execute("CREATE TABLE bench_bids_seq (next_val BIGINT)");
+            statement.execute("INSERT INTO bench_bids_seq VALUES (1)");
+            statement.execute("CREATE TABLE bench_notifications_seq (next_val BIGINT)");
+            statement.execute("INSERT INTO bench_notifications_seq VALUES (1)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        allocationConnection.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long bidIdentity() throws SQLException {
+        long last = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_bids_identity (amount, auction_id, bid_time, bidder_id, is_winning) " +
+                    "VALUES (?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bindBid(insert, 1, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    last = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    public long bidPooledBatch() throws SQLException {
+        long last = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_bids_pooled (amount, auction_id, bid_time, bidder_id, is_winning, id) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                last = nextId("bench_bids_seq", bidIds);
+                bindBid(insert, 1, i);
+                insert.setLong(6, last);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    public long notificationIdentity() throws SQLException {
+        long last = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_notifications_identity (amount, auction_id, created_at, digest_count, message, " +
+                    "is_read, recipient_id, type) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                bindNotification(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    last = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return last;
+    }
+
+    @Benchmark
+    public long notificationPooledBatch() throws SQLException {
+        long last = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_notifications_pooled (amount, auction_id, created_at, digest_count, message, " +
+                    "is_read, recipient_id, type, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                last = nextId("bench_notifications_seq", notificationIds);
+                bindNotification(insert, i);
+                insert.setLong(9, last);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return last;
+    }
+
+    /**
+     * Pooled-lo như Hibernate: đọc next_val, tăng thêm một khối trong transaction riêng, rồi cấp id trong bộ nhớ.
+     * {@code block[0]} là id kế tiếp, {@code block[1]} là giới hạn (không bao gồm) của khối hiện tại.
+     */
+    private long nextId(String sequenceTable, long[] block) throws SQLException {
+        if (block[0] >= block[1]) {
+            try (Statement statement = allocationConnection.createStatement();
+                 ResultSet result = statement.executeQuery("SELECT next_val FROM " + sequenceTable + " FOR UPDATE")) {
+                result.next();
+                long low = result.getLong(1);
+                statement.executeUpdate("UPDATE " + sequenceTable + " SET next_val = " + (low + ALLOCATION_SIZE));
+                allocationConnection.commit();
+                block[0] = low;
+                block[1] = low + ALLOCATION_SIZE;
+            }
+        }
+        return block[0]++;
+    }
+
+    private static void bindBid(PreparedStatement insert, long auctionId, int i) throws SQLException {
+        insert.setBigDecimal(1, BigDecimal.valueOf(1_000_000L + i));
+        insert.setLong(2, auctionId);
+        insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+        insert.setLong(4, 1 + i % 100);
+        insert.setBoolean(5, true);
+    }
+
+    private static void bindNotification(PreparedStatement insert, int i) throws SQLException {
+        insert.setBigDecimal(1, BigDecimal.valueOf(1_000_000L + i));
+        insert.setLong(2, 1);
+        insert.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+        insert.setInt(4, 1);
+        insert.setString(5, "Phiên đấu giá #1 đã kết thúc");
+        insert.setBoolean(6, false);
+        insert.setLong(7, 1 + i);
+        insert.setString(8, "AUCTION_ENDED");
+    }
+}
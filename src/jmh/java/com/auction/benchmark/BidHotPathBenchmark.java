@@ -0,0 +1,190 @@
+package com.auction.benchmark;
+
+import com.auction.dto.AuctionResponse;
+import com.auction.model.Auction;
+import com.auction.model.AuctionStatus;
+import com.auction.model.AuctionSummary;
+import com.auction.model.Bid;
+import com.auction.model.ItemCondition;
+import com.auction.model.User;
+import com.auction.service.UserService;
+import com.auction.service.impl.BidServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Các bước CPU của một lượt đặt giá trong BidServiceImpl, không có DB:
+ * <ul>
+ *   <li>{@code validateBid}: kiểm tra trạng thái, người bán và so sánh BigDecimal với bước giá tối thiểu</li>
+ *   <li>{@code validateBidRejected}: bid thấp hơn bước giá, tính cả chi phí dựng chuỗi lỗi và RuntimeException</li>
+ *   <li>{@code mapToAuctionResponse}: dựng AuctionResponse gửi qua WebSocket sau mỗi bid, phiên có 10/100/1000 bid</li>
+ * </ul>
+ * Phương thức private được gọi qua MethodHandle để không tính chi phí reflection. mapToAuctionResponse in một
+ * dòng System.out cho mỗi bid; stdout được chuyển vào stream rỗng nên số đo gồm chi phí dựng chuỗi nhưng không
+ * gồm ghi ra console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BidHotPathBenchmark {
+    private static final MethodHandle VALIDATE_BID;
+    private static final MethodHandle MAP_TO_AUCTION_RESPONSE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(BidServiceImpl.class, MethodHandles.lookup());
+            VALIDATE_BID = lookup.findVirtual(BidServiceImpl.class, "validateBid",
+                MethodType.methodType(void.class, Auction.class, User.class, BigDecimal.class));
+            MAP_TO_AUCTION_RESPONSE = lookup.findVirtual(BidServiceImpl.class, "mapToAuctionResponse",
+                MethodType.methodType(AuctionResponse.class, Auction.class, AuctionSummary.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BidServiceImpl bidService;
+    private Auction auction;
+    private User bidder;
+    private BigDecimal validAmount;
+    private BigDecimal lowAmount;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        User leader = user(21L, "bidder20");
+        UserService userService = (UserService) Proxy.newProxyInstance(UserService.class.getClassLoader(),
+            new Class<?>[]{UserService.class}, (proxy, method, args) -> {
+                if (method.getName().equals("getUserById")) {
+                    return Optional.of(leader);
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+        // Chỉ mapToAuctionResponse dùng userService; các dependency khác không được gọi trên hai đường này
+        bidService = new BidServiceImpl(null, null, null, userService, null, null, null, null, null, null, null);
+        auction = auction(0);
+        bidder = user(2L, "bidder1");
+        validAmount = auction.getCurrentPrice().add(new BigDecimal("75000"));
+        lowAmount = auction.getCurrentPrice().add(new BigDecimal("10000"));
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void restoreStdout() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Phiên có {@code bids} bid của 20 người đặt luân phiên, kèm auction_summary tương ứng.
+     */
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param({"10", "100", "1000"})
+        private int bids;
+
+        private Auction auction;
+        private AuctionSummary summary;
+
+        @Setup
+        public void setup() {
+            auction = auction(bids);
+            Bid last = auction.getBids().isEmpty() ? null : auction.getBids().get(bids - 1);
+            summary = new AuctionSummary();
+            summary.setAuctionId(auction.getId());
+            summary.setCurrentPrice(auction.getCurrentPrice());
+            summary.setBidCount(bids);
+            summary.setUniqueBidders(Math.min(bids, 20));
+            summary.setLeadingBidderId(last != null ? last.getBidder().getId() : null);
+            summary.setLastBidAt(last != null ? last.getBidTime() : null);
+        }
+    }
+
+    @Benchmark
+    public void validateBid() throws Throwable {
+        VALIDATE_BID.invokeExact(bidService, auction, bidder, validAmount);
+    }
+
+    @Benchmark
+    public RuntimeException validateBidRejected() throws Throwable {
+        try {
+            VALIDATE_BID.invokeExact(bidService, auction, bidder, lowAmount);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public AuctionResponse mapToAuctionResponse(History history) throws Throwable {
+        return (AuctionResponse) MAP_TO_AUCTION_RESPONSE.invokeExact(bidService, history.auction, history.summary);
+    }
+
+    static Auction auction(int bidCount) {
+        Auction auction = new Auction();
+        auction.setId(1L);
+        auction.setTitle("Đồng hồ cơ Seiko Presage");
+        auction.setDescription("Máy 4R35, mặt số cocktail time, đầy đủ hộp và sổ bảo hành.");
+        auction.setSeller(user(1L, "seller"));
+        auction.setStartingPrice(new BigDecimal("1000000.00"));
+        auction.setMinimumBidIncrement(new BigDecimal("50000.00"));
+        auction.setStatus(AuctionStatus.ACTIVE);
+        auction.setCondition(ItemCondition.NEW);
+        auction.setCategory("watches");
+        auction.setStartTime(LocalDateTime.of(2024, 1, 1, 9, 0));
+        auction.setEndTime(LocalDateTime.of(2024, 1, 8, 9, 0));
+
+        BigDecimal price = auction.getStartingPrice();
+        LocalDateTime bidTime = auction.getStartTime();
+        List<Bid> history = new ArrayList<>(bidCount);
+        for (int i = 0; i < bidCount; i++) {
+            price = price.add(auction.getMinimumBidIncrement());
+            bidTime = bidTime.plusSeconds(30);
+            Bid bid = new Bid();
+            bid.setId((long) i + 1);
+            bid.setAuction(auction);
+            bid.setBidder(user(i % 20 + 2, "bidder" + (i % 20 + 1)));
+            bid.setAmount(price);
+            bid.setBidTime(bidTime);
+            bid.setWinning(i == bidCount - 1);
+            history.add(bid);
+        }
+        auction.setBids(history);
+        auction.setCurrentPrice(price);
+        return auction;
+    }
+
+    static User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
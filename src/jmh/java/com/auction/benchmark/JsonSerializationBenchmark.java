@@ -0,0 +1,127 @@
+package com.auction.benchmark;
+
+import com.auction.dto.AuctionResponse;
+import com.auction.dto.BidDTO;
+import com.auction.dto.UserDTO;
+import com.auction.model.AuctionStatus;
+import com.auction.model.ItemCondition;
+import com.auction.model.Notification;
+import com.auction.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialize các payload gửi nhiều nhất: AuctionResponse (REST và broadcast WebSocket sau mỗi bid) với
+ * 0/10/100/1000 bid, và Notification (REST và /user/queue/notifications). ObjectMapper dựng như Spring Boot với
+ * JacksonConfig: customizer gọi builder.modules(...) nên chỉ JavaTimeModule được cài, bean Hibernate5Module không
+ * có hiệu lực.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private Notification notification;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modules(new JavaTimeModule())
+            .build();
+
+        User recipient = new User();
+        recipient.setId(7L);
+        recipient.setUsername("bidder7");
+        recipient.setEmail("bidder7@example.com");
+        recipient.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2PbN3k7d5F1e5Vq1Zk0yq1a");
+        recipient.setFullName("Nguyễn Văn A");
+        notification = new Notification();
+        notification.setId(1001L);
+        notification.setRecipient(recipient);
+        notification.setMessage("Bạn đã bị vượt giá 3 lần trong phiên \"Đồng hồ cơ Seiko Presage\". Giá hiện tại: 1250000");
+        notification.setType("OUTBID");
+        notification.setAuctionId(1L);
+        notification.setAmount(new BigDecimal("1250000.00"));
+        notification.setDigestCount(3);
+        notification.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0, 5));
+        notification.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0, 9));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param({"0", "10", "100", "1000"})
+        private int bids;
+
+        private AuctionResponse response;
+
+        @Setup
+        public void setup() {
+            response = new AuctionResponse();
+            response.setId(1L);
+            response.setTitle("Đồng hồ cơ Seiko Presage");
+            response.setDescription("Máy 4R35, mặt số cocktail time, đầy đủ hộp và sổ bảo hành.");
+            response.setStartingPrice(new BigDecimal("1000000.00"));
+            response.setMinimumBidIncrement(new BigDecimal("50000.00"));
+            response.setStatus(AuctionStatus.ACTIVE);
+            response.setCondition(ItemCondition.NEW);
+            response.setCategory("watches");
+            response.setStartTime(LocalDateTime.of(2024, 1, 1, 9, 0));
+            response.setEndTime(LocalDateTime.of(2024, 1, 8, 9, 0));
+            response.setSeller(UserDTO.builder().id(1L).username("seller").email("seller@example.com").build());
+
+            BigDecimal price = response.getStartingPrice();
+            LocalDateTime bidTime = response.getStartTime();
+            List<BidDTO> history = new ArrayList<>(bids);
+            for (int i = 0; i < bids; i++) {
+                price = price.add(response.getMinimumBidIncrement());
+                bidTime = bidTime.plusSeconds(30);
+                long bidderId = i % 20 + 2;
+                history.add(BidDTO.builder().id((long) i + 1).auctionId(1L).bidderId(bidderId)
+                    .amount(price).bidTime(bidTime).username("bidder" + (bidderId - 1)).build());
+            }
+            response.setBids(history);
+            response.setImages(List.of());
+            response.setCurrentPrice(price);
+            response.setBidCount(bids);
+            response.setUniqueBidderCount(Math.min(bids, 20));
+            if (bids > 0) {
+                BidDTO last = history.get(bids - 1);
+                response.setWinnerId(last.getBidderId());
+                response.setWinner(UserDTO.builder().id(last.getBidderId()).username(last.getUsername())
+                    .email(last.getUsername() + "@example.com").build());
+                response.setLastBidAt(last.getBidTime());
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] auctionResponse(Payload payload) throws Exception {
+        return objectMapper.writeValueAsBytes(payload.response);
+    }
+
+    @Benchmark
+    public byte[] notification() throws Exception {
+        return objectMapper.writeValueAsBytes(notification);
+    }
+}
@@ -0,0 +1,189 @@
+package com.auction.benchmark;
+
+import com.auction.security.JwtAuthenticationFilter;
+import com.auction.security.UserPrincipal;
+import com.auction.service.JwtService;
+import com.auction.service.TokenRevocationService;
+import com.auction.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thông lượng xác thực một request có Bearer token:
+ * <ul>
+ *   <li>{@code legacyFilter}: filter cũ (3 lần parse, dựng lại key mỗi lần, loadUserByUsername, System.out)</li>
+ *   <li>{@code fastPath}: filter hiện tại với token có claim id/roles</li>
+ *   <li>{@code fallbackPath}: filter hiện tại với token cũ chỉ có subject</li>
+ *   <li>{@code parseClaims}: riêng JwtService.parseClaims (kiểm chữ ký HS256 + hạn), phần cố định của mọi request</li>
+ * </ul>
+ * UserDetailsService ở đây là map trong bộ nhớ, nên chưa tính round-trip DB (query users + join roles) mà
+ * filter cũ và fallbackPath phải trả trong thực tế; chênh lệch đo được là cận dưới.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtFilterBenchmark {
+    private static final String SECRET =
+        "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private LegacyFilter legacyFilter;
+    private String claimsToken;
+    private String subjectOnlyToken;
+
+    @Setup
+    public void setup() {
+        UserPrincipal user = new UserPrincipal(42L, "bidder42", "bidder42@example.com", "{noop}secret",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), true);
+        Map<String, UserDetails> users = Map.of(user.getUsername(), user);
+        UserDetailsService userDetailsService = username -> {
+            UserDetails found = users.get(username);
+            // Bản sao mới như khi UserPrincipal.create dựng từ entity
+            return new UserPrincipal(42L, found.getUsername(), "bidder42@example.com", found.getPassword(),
+                found.getAuthorities(), true);
+        };
+
+        JwtServiceImpl jwtServiceImpl = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtServiceImpl, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtServiceImpl, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtServiceImpl, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.invokeMethod(jwtServiceImpl, "init");
+        jwtService = jwtServiceImpl;
+
+        // Không nạp từ DB: filter rỗng, đúng trường hợp phổ biến (token chưa bị thu hồi)
+        TokenRevocationService revocationService = new TokenRevocationService(null, null, null, null, null, 86_400_000L, 1_000_000, 0.01);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revocationService);
+        legacyFilter = new LegacyFilter(userDetailsService);
+        claimsToken = jwtService.generateToken(user);
+        subjectOnlyToken = Jwts.builder()
+            .setSubject(user.getUsername())
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + 86_400_000L))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+            .compact();
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() {
+        try {
+            return legacyFilter.doFilter(request(claimsToken));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Authentication fastPath() throws Exception {
+        return runFilter(claimsToken);
+    }
+
+    @Benchmark
+    public Authentication fallbackPath() throws Exception {
+        return runFilter(subjectOnlyToken);
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.parseClaims(claimsToken);
+    }
+
+    private Authentication runFilter(String token) throws Exception {
+        try {
+            filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notifications");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    /**
+     * Bản sao logic của JwtAuthenticationFilter + JwtServiceImpl trước khi tối ưu; System.out ghi vào stream rỗng
+     * để vẫn tính chi phí dựng chuỗi mà không làm tràn log.
+     */
+    private static final class LegacyFilter {
+        private static final PrintStream OUT = new PrintStream(OutputStream.nullOutputStream());
+
+        private final UserDetailsService userDetailsService;
+
+        private LegacyFilter(UserDetailsService userDetailsService) {
+            this.userDetailsService = userDetailsService;
+        }
+
+        private Authentication doFilter(MockHttpServletRequest request) {
+            String authHeader = request.getHeader("Authorization");
+            OUT.println("Authorization header: " + authHeader);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                String token = authHeader.substring(7);
+                String username = extractAllClaims(token).getSubject();
+                OUT.println("Extracted username: " + username);
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    OUT.println("UserDetails loaded: " + userDetails);
+                    boolean valid = extractAllClaims(token).getSubject().equals(userDetails.getUsername())
+                        && !extractAllClaims(token).getExpiration().before(new Date());
+                    if (valid) {
+                        OUT.println("Token is valid");
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    }
+                }
+            }
+            OUT.println("SecurityContextHolder: " + SecurityContextHolder.getContext().getAuthentication());
+            return SecurityContextHolder.getContext().getAuthentication();
+        }
+
+        private Claims extractAllClaims(String token) {
+            return Jwts.parserBuilder().setSigningKey(signInKey()).build().parseClaimsJws(token).getBody();
+        }
+
+        private Key signInKey() {
+            return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        }
+    }
+}
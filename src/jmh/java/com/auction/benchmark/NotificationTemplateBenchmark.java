@@ -0,0 +1,68 @@
+package com.auction.benchmark;
+
+import com.auction.service.impl.NotificationTemplateServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NotificationTemplateServiceImpl.processTemplate với nội dung thông báo ngắn (in-app/push) và email HTML dài
+ * hơn; cả hai dùng regex và StringBuffer như bản hiện tại, repository không được gọi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+    private static final String MESSAGE_TEMPLATE =
+        "Bạn đã bị vượt giá trong phiên \"${auctionTitle}\". Giá hiện tại: ${amount} bởi ${bidderName}.";
+
+    private static final String EMAIL_TEMPLATE =
+        "<html><body><p>Xin chào ${fullName},</p>" +
+        "<p>Phiên đấu giá <a href=\"${auctionUrl}\">${auctionTitle}</a> vừa có giá mới ${amount} VND " +
+        "từ ${bidderName}. Bạn đã bị vượt giá ${outbidCount} lần kể từ lần đặt giá gần nhất.</p>" +
+        "<p>Phiên kết thúc lúc ${endTime}. Đặt giá ngay để giữ vị trí dẫn đầu.</p>" +
+        "<p>Trân trọng,<br/>Online Auction</p>" +
+        "<p style=\"font-size:11px\">Không muốn nhận email này? <a href=\"${unsubscribeUrl}\">Hủy đăng ký</a></p>" +
+        "</body></html>";
+
+    private NotificationTemplateServiceImpl templateService;
+    private Map<String, Object> variables;
+
+    @Setup
+    public void setup() {
+        templateService = new NotificationTemplateServiceImpl(null);
+        variables = Map.of(
+            "fullName", "Nguyễn Văn A",
+            "auctionTitle", "Đồng hồ cơ Seiko Presage",
+            "auctionUrl", "https://auction.example.com/auctions/1",
+            "amount", new BigDecimal("1250000.00"),
+            "bidderName", "bidder12",
+            "outbidCount", 3,
+            "endTime", "08/01/2024 09:00",
+            "unsubscribeUrl", "https://auction.example.com/settings/notifications");
+    }
+
+    @Benchmark
+    public String message() {
+        return templateService.processTemplate(MESSAGE_TEMPLATE, variables);
+    }
+
+    @Benchmark
+    public String email() {
+        return templateService.processTemplate(EMAIL_TEMPLATE, variables);
+    }
+}
@@ -0,0 +1,155 @@
+package com.auction.benchmark;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.util.ReconciliationMerger;
+import com.auction.payment.util.SettlementCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongPredicate;
+
+/**
+ * Đối soát trên dữ liệu tổng hợp. Các luồng được sinh lazily nên heap của job không phụ thuộc số dòng;
+ * chạy với -Xmx nhỏ (ví dụ -jvmArgs -Xmx64m) để kiểm tra bộ nhớ không đổi.
+ * Khoảng 1% giao dịch thiếu ở mỗi phía và 0.5% lệch số tiền.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+public class ReconciliationBenchmark {
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private Path shuffledCsv;
+    private Path workDir;
+
+    @Setup(Level.Trial)
+    public void writeSettlementFile() throws IOException {
+        workDir = Files.createTempDirectory("reconciliation-bench");
+        shuffledCsv = workDir.resolve("settlement.csv");
+        // Hoán vị i -> i * a mod n (a nguyên tố cùng nhau với n) để file không theo thứ tự mà không cần giữ danh sách
+        long multiplier = 7_919;
+        try (BufferedWriter writer = Files.newBufferedWriter(shuffledCsv, StandardCharsets.UTF_8)) {
+            writer.write("txn_ref,amount,status,settled_at");
+            writer.newLine();
+            for (long i = 0; i < rows; i++) {
+                long id = (i * multiplier) % rows;
+                if (id % 100 == 3) {
+                    continue;
+                }
+                writer.write(reference(id) + "," + settlementAmount(id) + ",00,20240101120000");
+                writer.newLine();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        try (var files = Files.list(workDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(workDir);
+    }
+
+    @Benchmark
+    public long mergeJoin() {
+        ReconciliationMerger merger = new ReconciliationMerger(mismatch -> { });
+        merger.merge(
+            new SyntheticStream(rows, id -> true, id -> amount(id)),
+            new SyntheticStream(rows, id -> id % 100 != 7, id -> amount(id)),
+            new SyntheticStream(rows, id -> id % 100 != 3, ReconciliationBenchmark::settlementAmount));
+        return merger.getMismatches();
+    }
+
+    @Benchmark
+    public long sortAndMergeSettlementFile() throws IOException {
+        Path sorted = SettlementCsv.sortByReference(shuffledCsv, workDir, 50_000);
+        try (SettlementCsv.Reader settlement = SettlementCsv.open(sorted)) {
+            ReconciliationMerger merger = new ReconciliationMerger(mismatch -> { });
+            merger.merge(
+                new SyntheticStream(rows, id -> true, id -> amount(id)),
+                new SyntheticStream(rows, id -> id % 100 != 7, id -> amount(id)),
+                settlement);
+            return merger.getMismatches();
+        } finally {
+            Files.deleteIfExists(sorted);
+        }
+    }
+
+    private static String reference(long id) {
+        return String.format("PAY-%010d", id);
+    }
+
+    private static BigDecimal amount(long id) {
+        return BigDecimal.valueOf(100_000 + id % 1000 * 1000);
+    }
+
+    private static BigDecimal settlementAmount(long id) {
+        return id % 200 == 11 ? amount(id).add(BigDecimal.ONE) : amount(id);
+    }
+
+    private interface AmountFunction {
+        BigDecimal apply(long id);
+    }
+
+    private static final class SyntheticStream implements Iterator<ReconciliationEntry> {
+        private final int rows;
+        private final LongPredicate present;
+        private final AmountFunction amount;
+        private long next;
+
+        private SyntheticStream(int rows, LongPredicate present, AmountFunction amount) {
+            this.rows = rows;
+            this.present = present;
+            this.amount = amount;
+            skipAbsent();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < rows;
+        }
+
+        @Override
+        public ReconciliationEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long id = next++;
+            skipAbsent();
+            return new ReconciliationEntry(reference(id), amount.apply(id), PaymentStatus.COMPLETED);
+        }
+
+        private void skipAbsent() {
+            while (next < rows && !present.test(next)) {
+                next++;
+            }
+        }
+    }
+}
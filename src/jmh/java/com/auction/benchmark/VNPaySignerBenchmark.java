@@ -0,0 +1,159 @@
+package com.auction.benchmark;
+
+import com.auction.payment.util.VNPaySigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * So sánh VNPaySigner với cách ký cũ (Mac mới mỗi lần, String.format cho hex, String.equals khi verify).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class VNPaySignerBenchmark {
+    private static final String SECRET = "UES6VTPLUHW311XGHQQLEY20Q4ZKW994";
+
+    private VNPaySigner signer;
+    private Map<String, String> paymentParams;
+    private Map<String, String> callbackParams;
+
+    @Setup
+    public void setup() {
+        signer = new VNPaySigner(SECRET);
+
+        paymentParams = new TreeMap<>();
+        paymentParams.put("vnp_Version", "2.1.0");
+        paymentParams.put("vnp_Command", "pay");
+        paymentParams.put("vnp_TmnCode", "0D2YNE5X");
+        paymentParams.put("vnp_Amount", "150000000");
+        paymentParams.put("vnp_CurrCode", "VND");
+        paymentParams.put("vnp_CreateDate", "20240101120000");
+        paymentParams.put("vnp_ExpireDate", "20240101121500");
+        paymentParams.put("vnp_IpAddr", "127.0.0.1");
+        paymentParams.put("vnp_Locale", "vn");
+        paymentParams.put("vnp_OrderInfo", "Thanh toan don hang: PAY20240101ABC123");
+        paymentParams.put("vnp_OrderType", "other");
+        paymentParams.put("vnp_ReturnUrl", "http://localhost:8080/api/payment/vnpay-return");
+        paymentParams.put("vnp_TxnRef", "PAY20240101ABC123");
+
+        callbackParams = new HashMap<>();
+        callbackParams.put("vnp_Amount", "150000000");
+        callbackParams.put("vnp_BankCode", "NCB");
+        callbackParams.put("vnp_BankTranNo", "VNP14226112");
+        callbackParams.put("vnp_CardType", "ATM");
+        callbackParams.put("vnp_OrderInfo", "Thanh toan don hang: PAY20240101ABC123");
+        callbackParams.put("vnp_PayDate", "20240101120512");
+        callbackParams.put("vnp_ResponseCode", "00");
+        callbackParams.put("vnp_TmnCode", "0D2YNE5X");
+        callbackParams.put("vnp_TransactionNo", "14226112");
+        callbackParams.put("vnp_TransactionStatus", "00");
+        callbackParams.put("vnp_TxnRef", "PAY20240101ABC123");
+        callbackParams.put("vnp_SecureHashType", "HmacSHA512");
+        callbackParams.put("vnp_SecureHash", signer.sign(signer.canonicalize(callbackParams)));
+    }
+
+    @Benchmark
+    public String signQuery() {
+        return signer.signQuery(paymentParams);
+    }
+
+    @Benchmark
+    public String signQueryLegacy() throws Exception {
+        return legacySignQuery(paymentParams);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return signer.verify(callbackParams);
+    }
+
+    @Benchmark
+    public boolean verifyLegacy() {
+        Map<String, String> response = new HashMap<>(callbackParams);
+        String secureHash = response.remove("vnp_SecureHash");
+        response.remove("vnp_SecureHashType");
+        return legacyHmac(legacyHashData(response)).equals(secureHash);
+    }
+
+    private static String legacySignQuery(Map<String, String> params) throws Exception {
+        List<String> fieldNames = new ArrayList<>(params.keySet());
+        Collections.sort(fieldNames);
+        StringBuilder hashData = new StringBuilder();
+        StringBuilder query = new StringBuilder();
+        Iterator<String> itr = fieldNames.iterator();
+        while (itr.hasNext()) {
+            String fieldName = itr.next();
+            String fieldValue = params.get(fieldName);
+            if (fieldValue != null && fieldValue.length() > 0) {
+                hashData.append(fieldName).append('=').append(fieldValue);
+                query.append(URLEncoder.encode(fieldName, StandardCharsets.US_ASCII.toString()));
+                query.append('=');
+                query.append(URLEncoder.encode(fieldValue, StandardCharsets.US_ASCII.toString()));
+                if (itr.hasNext()) {
+                    query.append('&');
+                    hashData.append('&');
+                }
+            }
+        }
+        return query + "&vnp_SecureHash=" + legacyHmac(hashData.toString());
+    }
+
+    private static String legacyHashData(Map<String, String> params) {
+        List<String> fieldNames = new ArrayList<>(params.keySet());
+        Collections.sort(fieldNames);
+        StringBuilder hashData = new StringBuilder();
+        Iterator<String> itr = fieldNames.iterator();
+        while (itr.hasNext()) {
+            String fieldName = itr.next();
+            String fieldValue = params.get(fieldName);
+            if (fieldValue != null && fieldValue.length() > 0) {
+                hashData.append(fieldName).append('=').append(fieldValue);
+                if (itr.hasNext()) {
+                    hashData.append('&');
+                }
+            }
+        }
+        return hashData.toString();
+    }
+
+    private static String legacyHmac(String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec(SECRET.getBytes(), "HmacSHA512"));
+            byte[] result = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (byte b : result) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.auction.loadtest;
+
+import com.auction.AuctionApplication;
+import com.auction.model.Auction;
+import com.auction.model.ItemCondition;
+import com.auction.service.AuctionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bid storm đầu-cuối: khởi động ứng dụng (profile loadtest, H2 nhúng, mail giả) trong cùng JVM, tạo phiên và người
+ * đặt giá qua HTTP/service, rồi cho {@code threads} worker gửi POST /api/bids trong khi các subscriber STOMP nghe
+ * /topic/auctions/{id}. Báo cáo JSON gồm p50/p99 độ trễ bid, số bid được chấp nhận mỗi giây và độ trễ từ lúc gửi
+ * bid tới khi broadcast tới subscriber.
+ * <p>
+ * Worker chạy closed loop (gửi bid tiếp theo sau khi nhận phản hồi và think-time-ms), nên khi server chậm lại thì
+ * tải cũng giảm theo; percentile phản ánh độ trễ ở thông lượng đạt được, không phải ở một tốc độ đến cố định.
+ * Cùng seed cho cùng phân bố phiên/người đặt giá, thứ tự chính xác vẫn phụ thuộc lịch luồng.
+ */
+@Slf4j
+public class BidStormLoadTest {
+    private static final String PASSWORD = "loadtest123";
+    private static final BigDecimal STARTING_PRICE = new BigDecimal("100.00");
+    private static final BigDecimal INCREMENT = new BigDecimal("10.00");
+
+    private final ConfigurableApplicationContext context;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final int port;
+    private final String baseUrl;
+
+    private final List<Long> auctionIds = new ArrayList<>();
+    private final List<LocalDateTime> endTimes = new ArrayList<>();
+    private final Map<Long, BigDecimal> knownPrices = new ConcurrentHashMap<>();
+    private double[] hotness;
+    private int[] hotnessRanks;
+    private AtomicLongArray acceptedPerAuction;
+
+    private final LatencySamples acceptedLatency = new LatencySamples();
+    private final LatencySamples rejectedLatency = new LatencySamples();
+    private final AtomicLong attempted = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final Map<String, AtomicLong> rejectReasons = new ConcurrentHashMap<>();
+
+    public BidStormLoadTest(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.settings = Binder.get(context.getEnvironment()).bind("loadtest", LoadTestSettings.class)
+            .orElseThrow(() -> new IllegalStateException("Missing loadtest.* settings"));
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = null;
+        int exitCode = 0;
+        try {
+            context = new SpringApplicationBuilder(AuctionApplication.class, LoadTestConfig.class)
+                .profiles("loadtest")
+                .run(args);
+            new BidStormLoadTest(context).run();
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            System.err.println("Load test failed: " + e.getMessage() + " (details in the application log)");
+            exitCode = 1;
+        }
+        if (context != null) {
+            SpringApplication.exit(context);
+        }
+        System.exit(exitCode);
+    }
+
+    public void run() throws Exception {
+        log.info("Load test settings: {}", settings);
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getThreads());
+        try {
+            Long sellerId = signup("lt-seller");
+            List<String> bidderTokens = createBidders(workers);
+            createAuctions(sellerId);
+
+            BroadcastMonitor monitor = new BroadcastMonitor(objectMapper, this::observePrice);
+            monitor.connect(port, auctionIds, settings.getSubscribersPerAuction());
+
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+            long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+            monitor.recordFrom(measureFrom);
+
+            List<Future<?>> running = new ArrayList<>();
+            for (int i = 0; i < settings.getThreads(); i++) {
+                Random random = new Random(settings.getSeed() + i);
+                running.add(workers.submit(() -> bidLoop(random, bidderTokens, monitor, measureFrom, stopAt)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+            double measuredSeconds = Math.min(System.nanoTime() - measureFrom, stopAt - measureFrom) / 1e9;
+            // Chờ các broadcast của những bid cuối cùng
+            Thread.sleep(2_000);
+            monitor.disconnect();
+
+            writeReport(startedAt, measuredSeconds, monitor);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void bidLoop(Random random, List<String> bidderTokens, BroadcastMonitor monitor,
+                         long measureFrom, long stopAt) {
+        while (System.nanoTime() < stopAt && !Thread.currentThread().isInterrupted()) {
+            int index = pickAuction(random);
+            if (index < 0) {
+                // Mọi phiên đã kết thúc
+                return;
+            }
+            Long auctionId = auctionIds.get(index);
+            String token = bidderTokens.get(random.nextInt(bidderTokens.size()));
+            BigDecimal amount = knownPrices.get(auctionId).add(INCREMENT.multiply(BigDecimal.valueOf(1 + random.nextInt(3))));
+
+            long sentAt = System.nanoTime();
+            String key = monitor.expect(auctionId, amount, sentAt);
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(post("/api/bids", token, Map.of("auctionId", auctionId, "amount", amount)),
+                    HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                monitor.cancel(key, sentAt);
+                if (sentAt >= measureFrom) {
+                    attempted.incrementAndGet();
+                }
+                countRejection(sentAt >= measureFrom, "I/O", e.getClass().getSimpleName());
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long latency = System.nanoTime() - sentAt;
+            boolean measured = sentAt >= measureFrom;
+            if (response.statusCode() == 200) {
+                observePrice(auctionId, amount);
+                if (measured) {
+                    accepted.incrementAndGet();
+                    acceptedPerAuction.incrementAndGet(index);
+                    acceptedLatency.add(latency);
+                }
+            } else {
+                monitor.cancel(key, sentAt);
+                if (measured) {
+                    rejectedLatency.add(latency);
+                }
+                countRejection(measured, "HTTP " + response.statusCode(), response.body());
+            }
+            if (measured) {
+                attempted.incrementAndGet();
+            }
+            pause(settings.getThinkTimeMs());
+        }
+    }
+
+    // Trọng số = Zipf theo hạng nóng, nhân closing-spike-factor trong cửa sổ đóng phiên; phiên đã kết thúc bị loại
+    private int pickAuction(Random random) {
+        LocalDateTime now = LocalDateTime.now();
+        double[] weights = new double[auctionIds.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            LocalDateTime end = endTimes.get(i);
+            if (!now.isBefore(end)) {
+                continue;
+            }
+            boolean closing = now.isAfter(end.minusSeconds(settings.getClosingWindowSeconds()));
+            weights[i] = hotness[i] * (closing ? settings.getClosingSpikeFactor() : 1);
+            total += weights[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0 && weights[i] > 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private void observePrice(Long auctionId, BigDecimal price) {
+        knownPrices.merge(auctionId, price, (current, candidate) -> candidate.compareTo(current) > 0 ? candidate : current);
+    }
+
+    private void countRejection(boolean measured, String status, String detail) {
+        if (measured) {
+            // Bỏ số tiền trong thông báo lỗi để các lý do giống nhau được gộp lại
+            String normalized = detail.replaceAll("[0-9]+(\\.[0-9]+)?", "#");
+            String reason = status + ": " + (normalized.length() > 120 ? normalized.substring(0, 120) : normalized);
+            rejectReasons.computeIfAbsent(reason, r -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private List<String> createBidders(ExecutorService workers) throws Exception {
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= settings.getBidders(); i++) {
+            String username = "lt-bidder-" + i;
+            futures.add(workers.submit(() -> {
+                signup(username);
+                return login(username);
+            }));
+        }
+        List<String> tokens = new ArrayList<>();
+        for (Future<String> future : futures) {
+            tokens.add(future.get());
+        }
+        log.info("Created {} bidders", tokens.size());
+        return tokens;
+    }
+
+    // Dựng dữ liệu qua service (không nằm trong phần đo); phiên kết thúc rải đều trong nửa sau của thời gian đo
+    private void createAuctions(Long sellerId) {
+        AuctionService auctionService = context.getBean(AuctionService.class);
+        LocalDateTime measureStart = LocalDateTime.now().plusSeconds(settings.getWarmupSeconds());
+        int count = settings.getAuctions();
+        for (int i = 0; i < count; i++) {
+            Auction auction = new Auction();
+            auction.setTitle("Load test auction " + (i + 1));
+            auction.setDescription("Generated by BidStormLoadTest");
+            auction.setStartingPrice(STARTING_PRICE);
+            auction.setMinimumBidIncrement(INCREMENT);
+            auction.setCondition(ItemCondition.NEW);
+            auction.setCategory("loadtest");
+            auction.setStartTime(LocalDateTime.now().minusMinutes(1));
+            long endOffsetMillis = Math.round(settings.getDurationSeconds() * 1000.0 * (0.5 + 0.5 * (i + 1) / count));
+            auction.setEndTime(measureStart.plusNanos(TimeUnit.MILLISECONDS.toNanos(endOffsetMillis)));
+            Auction saved = auctionService.createAuction(auction, sellerId);
+            auctionIds.add(saved.getId());
+            endTimes.add(saved.getEndTime());
+            knownPrices.put(saved.getId(), STARTING_PRICE);
+        }
+        auctionService.startPendingAuctions();
+
+        // Hạng nóng xáo trộn theo seed để độ nóng không trùng với thứ tự kết thúc
+        List<Integer> ranks = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            ranks.add(i);
+        }
+        Collections.shuffle(ranks, new Random(settings.getSeed()));
+        hotness = new double[count];
+        hotnessRanks = new int[count];
+        for (int i = 0; i < count; i++) {
+            hotnessRanks[i] = ranks.get(i);
+            hotness[i] = 1.0 / Math.pow(hotnessRanks[i], settings.getZipfExponent());
+        }
+        acceptedPerAuction = new AtomicLongArray(count);
+        log.info("Created {} active auctions ending between {} and {}", count, endTimes.get(0), endTimes.get(count - 1));
+    }
+
+    private Long signup(String username) throws Exception {
+        HttpResponse<String> response = httpClient.send(post("/api/users/signup", null, Map.of(
+            "username", username,
+            "email", username + "@loadtest.local",
+            "password", PASSWORD,
+            "fullName", username)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Signup of " + username + " failed: " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("id").asLong();
+    }
+
+    private String login(String username) throws Exception {
+        HttpResponse<String> response = httpClient.send(post("/api/auth/login", null,
+            Map.of("username", username, "password", PASSWORD)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + username + " failed: " + response.body());
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private void writeReport(LocalDateTime startedAt, double measuredSeconds, BroadcastMonitor monitor) throws IOException {
+        Map<String, Long> reasons = new TreeMap<>();
+        rejectReasons.forEach((reason, count) -> reasons.put(reason, count.get()));
+        List<BidStormReport.AuctionResult> auctions = new ArrayList<>();
+        for (int i = 0; i < auctionIds.size(); i++) {
+            Long auctionId = auctionIds.get(i);
+            auctions.add(new BidStormReport.AuctionResult(auctionId, hotnessRanks[i], endTimes.get(i), acceptedPerAuction.get(i),
+                knownPrices.get(auctionId)));
+        }
+        LatencySamples.Summary lag = monitor.lagSummary();
+        long expectedBroadcasts = accepted.get() * settings.getSubscribersPerAuction();
+        BidStormReport report = new BidStormReport(
+            startedAt,
+            settings,
+            Math.round(measuredSeconds * 1000) / 1000.0,
+            new BidStormReport.Bids(attempted.get(), accepted.get(), attempted.get() - accepted.get(),
+                Math.round(accepted.get() / measuredSeconds * 10) / 10.0,
+                acceptedLatency.summarize(), rejectedLatency.summarize(), reasons),
+            new BidStormReport.Broadcasts(settings.getSubscribersPerAuction(), monitor.getReceived(),
+                expectedBroadcasts, Math.max(expectedBroadcasts - lag.count(), 0), monitor.getUnmatched(),
+                monitor.getTransportErrors(), lag),
+            context.getBean(LoadTestConfig.StubMailSender.class).getSent(),
+            auctions);
+
+        Path file = Path.of(settings.getReportFile());
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        // Console chỉ hiện WARN của ứng dụng (log ghi ra file), nên tóm tắt in thẳng ra stdout
+        System.out.printf("Bids: %d accepted / %d attempted in %.1fs = %.1f accepted/s; latency p50=%.1fms p99=%.1fms%n",
+            report.bids().accepted(), report.bids().attempted(), report.measuredSeconds(),
+            report.bids().acceptedPerSecond(), report.bids().acceptedLatency().p50Ms(),
+            report.bids().acceptedLatency().p99Ms());
+        System.out.printf("Broadcast lag p50=%.1fms p99=%.1fms, missing %d of %d%n",
+            lag.p50Ms(), lag.p99Ms(), report.broadcasts().missing(), report.broadcasts().expected());
+        reasons.forEach((reason, count) -> System.out.printf("Rejected %d x %s%n", count, reason));
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
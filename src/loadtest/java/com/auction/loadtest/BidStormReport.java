@@ -0,0 +1,45 @@
+package com.auction.loadtest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nội dung file báo cáo của BidStormLoadTest. Chỉ tính các bid gửi sau warmup.
+ */
+public record BidStormReport(LocalDateTime startedAt,
+                             LoadTestSettings settings,
+                             double measuredSeconds,
+                             Bids bids,
+                             Broadcasts broadcasts,
+                             long mailsStubbed,
+                             List<AuctionResult> auctions) {
+
+    public record Bids(long attempted,
+                       long accepted,
+                       long rejected,
+                       double acceptedPerSecond,
+                       LatencySamples.Summary acceptedLatency,
+                       LatencySamples.Summary rejectedLatency,
+                       Map<String, Long> rejectReasons) {
+    }
+
+    /**
+     * Độ trễ tính từ lúc gửi request bid tới khi subscriber nhận broadcast có giá của bid đó. missing là số
+     * broadcast mong đợi (bid được chấp nhận x subscriber) không tới; unmatched là broadcast có giá không ứng với
+     * bid nào harness đã gửi.
+     */
+    public record Broadcasts(int subscribers,
+                             long received,
+                             long expected,
+                             long missing,
+                             long unmatched,
+                             long transportErrors,
+                             LatencySamples.Summary lag) {
+    }
+
+    public record AuctionResult(Long auctionId, int hotnessRank, LocalDateTime endTime, long acceptedBids,
+                                BigDecimal finalPrice) {
+    }
+}
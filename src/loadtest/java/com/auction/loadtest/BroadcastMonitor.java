@@ -0,0 +1,174 @@
+package com.auction.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.websocket.ContainerProvider;
+import jakarta.websocket.WebSocketContainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Các subscriber STOMP (qua SockJS như frontend) nghe /topic/auctions/{id}. Mỗi bid được đăng ký trước khi gửi
+ * theo (phiên, giá); khi broadcast có currentPrice bằng giá đó tới, độ trễ tính từ lúc gửi request bid.
+ */
+@Slf4j
+public class BroadcastMonitor {
+    // Frontend chạy ở localhost:3000, là origin duy nhất endpoint /ws chấp nhận
+    private static final String ORIGIN = "http://localhost:3000";
+    // Broadcast chứa toàn bộ lịch sử bid nên có thể lớn hơn nhiều so với giới hạn mặc định 64KB
+    private static final int MAX_MESSAGE_BYTES = 16 * 1024 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final BiConsumer<Long, BigDecimal> priceListener;
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final LatencySamples lag = new LatencySamples();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+    private final AtomicLong transportErrors = new AtomicLong();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private WebSocketStompClient stompClient;
+    private volatile long recordFromNanos = Long.MAX_VALUE;
+
+    /**
+     * @param priceListener nhận giá hiện tại của phiên từ mỗi broadcast, như client cập nhật giá trên màn hình
+     */
+    public BroadcastMonitor(ObjectMapper objectMapper, BiConsumer<Long, BigDecimal> priceListener) {
+        this.objectMapper = objectMapper;
+        this.priceListener = priceListener;
+    }
+
+    public void connect(int port, List<Long> auctionIds, int subscribers) throws Exception {
+        WebSocketContainer container = ContainerProvider.getWebSocketContainer();
+        container.setDefaultMaxTextMessageBufferSize(MAX_MESSAGE_BYTES);
+        container.setDefaultMaxBinaryMessageBufferSize(MAX_MESSAGE_BYTES);
+        stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient(container)))));
+        stompClient.setInboundMessageSizeLimit(MAX_MESSAGE_BYTES);
+
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setOrigin(ORIGIN);
+        for (int i = 0; i < subscribers; i++) {
+            StompSession session = stompClient
+                .connectAsync("http://localhost:" + port + "/ws", headers, new SessionHandler())
+                .get(10, TimeUnit.SECONDS);
+            for (Long auctionId : auctionIds) {
+                session.subscribe("/topic/auctions/" + auctionId, new SessionHandler());
+            }
+            sessions.add(session);
+        }
+        log.info("Connected {} STOMP subscriber(s) to {} auction topics", subscribers, auctionIds.size());
+    }
+
+    public void recordFrom(long nanos) {
+        recordFromNanos = nanos;
+    }
+
+    /**
+     * Gọi trước khi gửi bid; trả về khóa để hủy nếu bid bị từ chối.
+     */
+    public String expect(Long auctionId, BigDecimal amount, long sentAtNanos) {
+        String key = key(auctionId, amount);
+        return pending.putIfAbsent(key, sentAtNanos) == null ? key : null;
+    }
+
+    public void cancel(String key, long sentAtNanos) {
+        if (key != null) {
+            pending.remove(key, sentAtNanos);
+        }
+    }
+
+    public void disconnect() {
+        sessions.forEach(session -> {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        });
+        if (stompClient != null) {
+            stompClient.stop();
+        }
+    }
+
+    public LatencySamples.Summary lagSummary() {
+        return lag.summarize();
+    }
+
+    public long getReceived() {
+        return received.get();
+    }
+
+    public long getUnmatched() {
+        return unmatched.get();
+    }
+
+    public long getTransportErrors() {
+        return transportErrors.get();
+    }
+
+    private void onBroadcast(byte[] payload, long receivedAtNanos) {
+        received.incrementAndGet();
+        try {
+            JsonNode auction = objectMapper.readTree(payload);
+            Long auctionId = auction.path("id").asLong();
+            BigDecimal currentPrice = auction.path("currentPrice").decimalValue();
+            priceListener.accept(auctionId, currentPrice);
+            Long sentAt = pending.get(key(auctionId, currentPrice));
+            if (sentAt == null) {
+                unmatched.incrementAndGet();
+            } else if (sentAt >= recordFromNanos) {
+                lag.add(receivedAtNanos - sentAt);
+            }
+        } catch (IOException e) {
+            unmatched.incrementAndGet();
+        }
+    }
+
+    private static String key(Long auctionId, BigDecimal amount) {
+        return auctionId + ":" + amount.stripTrailingZeros().toPlainString();
+    }
+
+    private class SessionHandler extends StompSessionHandlerAdapter {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            if (payload != null) {
+                onBroadcast((byte[]) payload, System.nanoTime());
+            }
+        }
+
+        @Override
+        public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                    byte[] payload, Throwable exception) {
+            transportErrors.incrementAndGet();
+            log.warn("STOMP error: {}", exception.getMessage());
+        }
+
+        @Override
+        public void handleTransportError(StompSession session, Throwable exception) {
+            transportErrors.incrementAndGet();
+            log.warn("STOMP transport error: {}", exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.auction.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Lưu toàn bộ mẫu độ trễ (nano giây) để tính percentile chính xác; một lượt chạy chỉ có vài trăm nghìn mẫu.
+ */
+public class LatencySamples {
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void add(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized Summary summarize() {
+        if (size == 0) {
+            return new Summary(0, 0, 0, 0, 0, 0);
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long sample : sorted) {
+            total += sample;
+        }
+        return new Summary(size, toMillis(total / size), percentile(sorted, 0.50), percentile(sorted, 0.90),
+            percentile(sorted, 0.99), toMillis(sorted[size - 1]));
+    }
+
+    // Nearest-rank: giá trị nhỏ nhất mà ít nhất p mẫu không vượt quá
+    private static double percentile(long[] sorted, double p) {
+        int rank = (int) Math.ceil(p * sorted.length);
+        return toMillis(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    public record Summary(int count, double meanMs, double p50Ms, double p90Ms, double p99Ms, double maxMs) {
+    }
+}
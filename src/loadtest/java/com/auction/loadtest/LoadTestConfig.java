@@ -0,0 +1,42 @@
+package com.auction.loadtest;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Configuration
+public class LoadTestConfig {
+
+    @Bean
+    @Primary
+    public StubMailSender stubMailSender() {
+        return new StubMailSender();
+    }
+
+    /**
+     * Nhận mail thay cho SMTP: chỉ đếm, không gửi, để thời gian chờ mail server không lẫn vào số đo.
+     */
+    public static class StubMailSender extends JavaMailSenderImpl implements JavaMailSender {
+        private final AtomicLong sent = new AtomicLong();
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            sent.addAndGet(simpleMessages.length);
+        }
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            sent.addAndGet(mimeMessages.length);
+        }
+
+        public long getSent() {
+            return sent.get();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.auction.loadtest;
+
+import lombok.Data;
+
+/**
+ * Tham số kịch bản, đọc từ tiền tố {@code loadtest.*} (application-loadtest.properties, biến môi trường
+ * LOADTEST_* hoặc tham số dòng lệnh --loadtest.*).
+ */
+@Data
+public class LoadTestSettings {
+    private int auctions;
+    private int bidders;
+    private int threads;
+    private int subscribersPerAuction;
+    private int durationSeconds;
+    private int warmupSeconds;
+    private long thinkTimeMs;
+    private double zipfExponent;
+    private int closingWindowSeconds;
+    private double closingSpikeFactor;
+    private long seed;
+    private String reportFile;
+}
@@ -0,0 +1,55 @@
+package com.auction.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Các entity ghi nhiều (bid, notification, lịch sử trạng thái, ảnh, đơn thanh toán) lấy id theo khối 50 từ bảng
+ * {@code *_seq} (pooled-lo) thay cho AUTO_INCREMENT để Hibernate gộp được INSERT thành batch. Khi khởi động, đẩy
+ * {@code next_val} lên trên id lớn nhất hiện có để dữ liệu tạo bằng AUTO_INCREMENT trước đây không bị trùng.
+ * Chạy sau khi EntityManagerFactory đã tạo bảng và trước khi nhận request; không chạy song song với node cũ
+ * còn dùng AUTO_INCREMENT.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdAllocationInitializer {
+    // Bảng dữ liệu -> bảng cấp phát id, khớp với @SequenceGenerator trên entity
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "bids", "bids_seq",
+        "notifications", "notifications_seq",
+        "auction_status_history", "auction_status_history_seq",
+        "auction_images", "auction_images_seq",
+        "payment_orders", "payment_orders_seq"
+    );
+
+    // Chỉ để bảo đảm schema đã được tạo/cập nhật trước khi chạy
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        // Chỉ MySQL dùng bảng *_seq; DB có sequence thật (H2 khi chạy local) luôn được tạo mới nên không cần
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return;
+        }
+        SEQUENCES.forEach((table, sequence) -> {
+            Long next = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = GREATEST(next_val, ?)", next);
+            if (updated == 0) {
+                jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) SELECT ? FROM DUAL " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM " + sequence + ")", next);
+            }
+            log.debug("Id allocation for {} starts at or above {}", table, next);
+        });
+    }
+}
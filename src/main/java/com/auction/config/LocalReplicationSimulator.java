@@ -0,0 +1,54 @@
+package com.auction.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Chỉ dùng cho profile replica-local (hai H2 in-memory): giả lập replication bất đồng bộ bằng cách chép toàn bộ
+ * primary sang replica sau mỗi khoảng simulated-lag-ms. Tăng khoảng này quá max-lag-ms để thấy đọc quay về
+ * primary. Trong lúc chép, truy vấn trên replica có thể lỗi vì bảng đang được tạo lại.
+ */
+@Slf4j
+@Component
+@Profile("replica-local")
+public class LocalReplicationSimulator {
+    private final JdbcTemplate primary;
+    private final String replicaUrl;
+    private final String replicaUsername;
+    private final String replicaPassword;
+
+    public LocalReplicationSimulator(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     @Value("${app.datasource.replica.url}") String replicaUrl,
+                                     @Value("${app.datasource.replica.username:sa}") String replicaUsername,
+                                     @Value("${app.datasource.replica.password:}") String replicaPassword) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replicaUrl = replicaUrl;
+        this.replicaUsername = replicaUsername;
+        this.replicaPassword = replicaPassword;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.simulated-lag-ms:500}")
+    public void replicate() {
+        List<String> script = primary.queryForList("SCRIPT NOPASSWORDS NOSETTINGS DROP", String.class);
+        try (Connection connection = DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword);
+             Statement statement = connection.createStatement()) {
+            for (String sql : script) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            log.warn("Simulated replication failed: {}", e.getMessage());
+        }
+    }
+}
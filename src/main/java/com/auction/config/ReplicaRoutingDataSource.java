@@ -0,0 +1,32 @@
+package com.auction.config;
+
+import com.auction.service.ReadRoutingService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Chọn pool theo transaction hiện tại; ngoài transaction luôn dùng primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReadRoutingService readRoutingService;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadRoutingService readRoutingService) {
+        this.readRoutingService = readRoutingService;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && readRoutingService.shouldUseReplica()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,75 @@
+package com.auction.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Region cho second-level cache và query cache của Hibernate (JCache trên Caffeine), cục bộ mỗi node. Mỗi region
+ * có giới hạn phần tử và TTL riêng, ghi đè được bằng app.l2-cache.regions.&lt;region&gt;.max-entries/ttl-seconds;
+ * region chưa khai báo ở đây làm ứng dụng không khởi động được. TTL giới hạn thời gian dữ liệu cũ tồn tại khi
+ * thông điệp vô hiệu giữa các node ({@link com.auction.service.SecondLevelCacheService}) đến chậm.
+ */
+@Slf4j
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String REFERENCE_QUERIES = "reference-queries";
+
+    private static final Map<String, RegionSpec> REGIONS = new LinkedHashMap<>();
+
+    static {
+        REGIONS.put("roles", new RegionSpec(100, 0));
+        REGIONS.put("users", new RegionSpec(20_000, 600));
+        REGIONS.put("users.roles", new RegionSpec(20_000, 600));
+        REGIONS.put("notification-templates", new RegionSpec(200, 3600));
+        REGIONS.put("notification-preferences", new RegionSpec(50_000, 600));
+        REGIONS.put(REFERENCE_QUERIES, new RegionSpec(50_000, 600));
+        // Region mặc định của Hibernate khi bật query cache; timestamps không được hết hạn trước các query dùng nó
+        REGIONS.put("default-query-results-region", new RegionSpec(10_000, 600));
+        REGIONS.put("default-update-timestamps-region", new RegionSpec(10_000, 0));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("auction-hibernate"), getClass().getClassLoader());
+        REGIONS.forEach((region, defaults) -> {
+            long maxEntries = environment.getProperty("app.l2-cache.regions." + region + ".max-entries",
+                Long.class, defaults.maxEntries());
+            long ttlSeconds = environment.getProperty("app.l2-cache.regions." + region + ".ttl-seconds",
+                Long.class, defaults.ttlSeconds());
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            if (ttlSeconds > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            }
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+            log.debug("L2 cache region {}: max {} entries, ttl {}s", region, maxEntries, ttlSeconds);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    private record RegionSpec(long maxEntries, long ttlSeconds) {
+    }
+}
@@ -4,17 +4,29 @@ import com.auction.dto.*;
 import com.auction.model.*;
 import com.auction.service.*;
 import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.model.ReconciliationMismatch;
+import com.auction.payment.model.ReconciliationRun;
+import com.auction.payment.service.ReconciliationService;
 import com.auction.payment.repository.PaymentOrderRepository;
 import com.auction.enums.PaymentStatus;
 import com.auction.payment.dto.PaymentResponse;
+import com.auction.push.dto.PushStatsResponse;
+import com.auction.push.service.PushService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,14 +40,34 @@ public class AdminController {
     private final PaymentOrderRepository paymentOrderRepository;
     private final AdminStatsService adminStatsService;
     private final AuctionStatusHistoryService auctionStatusHistoryService;
+    private final NotificationRetentionService notificationRetentionService;
+    private final ReconciliationService reconciliationService;
+    private final StatsRollupService statsRollupService;
+    private final ImageStorageService imageStorageService;
+    private final AuctionSummaryService auctionSummaryService;
+    private final BidArchiveService bidArchiveService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final PushService pushService;
 
     // 1. Thống kê hệ thống
     @GetMapping("/stats")
-    public ResponseEntity<AdminStatsResponse> getStats(@RequestParam String range) {
-        AdminStatsResponse stats = adminStatsService.getStats(range);
+    public ResponseEntity<AdminStatsResponse> getStats(@RequestParam String range,
+                                                       @RequestParam(defaultValue = "false") boolean exact) {
+        AdminStatsResponse stats = adminStatsService.getStats(range, exact);
         return ResponseEntity.ok(stats);
     }
 
+    @PostMapping("/stats/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatsRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int days = statsRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("from", from, "to", to, "days", days));
+    }
+
     // 2. Quản lý người dùng
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getAllUsers() {
@@ -66,14 +98,19 @@ public class AdminController {
     @GetMapping("/auctions")
     public ResponseEntity<List<AuctionResponse>> getAllAuctions() {
         List<Auction> auctions = auctionService.getAllAuctions();
-        List<AuctionResponse> dtos = auctions.stream().map(this::mapToAuctionResponse).toList();
+        Map<Long, AuctionSummary> summaries = auctionSummaryService.getSummaries(
+            auctions.stream().map(Auction::getId).toList());
+        List<AuctionResponse> dtos = auctions.stream()
+            .map(auction -> mapToAuctionResponse(auction, summaries.get(auction.getId())))
+            .toList();
         return ResponseEntity.ok(dtos);
     }
 
     @PutMapping("/auctions/{id}")
     public ResponseEntity<AuctionResponse> updateAuction(@PathVariable Long id, @RequestBody Auction updatedAuction) {
         Auction auction = auctionService.updateAuction(id, updatedAuction);
-        return ResponseEntity.ok(mapToAuctionResponse(auction));
+        return ResponseEntity.ok(mapToAuctionResponse(auction,
+            auctionSummaryService.getSummary(auction.getId()).orElse(null)));
     }
 
     @DeleteMapping("/auctions/{id}")
@@ -86,7 +123,8 @@ public class AdminController {
     public ResponseEntity<AuctionResponse> updateAuctionStatus(@PathVariable Long id, @RequestParam AuctionStatus status) {
         auctionService.updateAuctionStatus(id, status);
         Auction auction = auctionService.getAuctionById(id);
-        return ResponseEntity.ok(mapToAuctionResponse(auction));
+        return ResponseEntity.ok(mapToAuctionResponse(auction,
+            auctionSummaryService.getSummary(auction.getId()).orElse(null)));
     }
 
     @GetMapping("/auctions/{id}/status-history")
@@ -110,6 +148,66 @@ public class AdminController {
         return ResponseEntity.ok(mapToPaymentResponse(payment));
     }
 
+    @PostMapping("/payments/reconciliation")
+    public ResponseEntity<ReconciliationRun> startReconciliation(@RequestParam("file") MultipartFile file) throws IOException {
+        Path settlementFile = Files.createTempFile(reconciliationService.getWorkDir(), "settlement-upload-", ".csv");
+        file.transferTo(settlementFile);
+        return ResponseEntity.ok(reconciliationService.startRun(settlementFile, file.getOriginalFilename()));
+    }
+
+    @GetMapping("/payments/reconciliation/{runId}")
+    public ResponseEntity<ReconciliationRun> getReconciliationRun(@PathVariable Long runId) {
+        return ResponseEntity.ok(reconciliationService.getRun(runId));
+    }
+
+    @GetMapping("/payments/reconciliation/{runId}/mismatches")
+    public ResponseEntity<Page<ReconciliationMismatch>> getReconciliationMismatches(
+            @PathVariable Long runId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(reconciliationService.getMismatches(runId, page, size));
+    }
+
+    // 5. Lưu trữ thông báo cũ
+    @GetMapping("/notifications/retention")
+    public ResponseEntity<RetentionStatsResponse> getRetentionStats() {
+        return ResponseEntity.ok(notificationRetentionService.getStats());
+    }
+
+    @PostMapping("/notifications/retention/run")
+    public ResponseEntity<RetentionStatsResponse> runRetention() {
+        return ResponseEntity.ok(notificationRetentionService.runRetention());
+    }
+
+    // Lưu trữ lịch sử bid của phiên đã đóng
+    @GetMapping("/bids/archive")
+    public ResponseEntity<BidArchiveStatsResponse> getBidArchiveStats() {
+        return ResponseEntity.ok(bidArchiveService.getStats());
+    }
+
+    @PostMapping("/bids/archive/run")
+    public ResponseEntity<BidArchiveStatsResponse> runBidArchival() {
+        return ResponseEntity.ok(bidArchiveService.runArchival());
+    }
+
+    // Second-level cache: tỉ lệ hit theo region và số truy vấn tránh được
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStatsResponse> getCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheService.getStats());
+    }
+
+    // Hàng đợi push: độ sâu hiện tại và số lô bị bỏ khi đầy
+    @GetMapping("/push/stats")
+    public ResponseEntity<PushStatsResponse> getPushStats() {
+        return ResponseEntity.ok(pushService.getStats());
+    }
+
+    @PostMapping("/cache/stats/reset")
+    public ResponseEntity<CacheStatsResponse> resetCacheStats() {
+        secondLevelCacheService.resetStats();
+        return ResponseEntity.ok(secondLevelCacheService.getStats());
+    }
+
     // --- Helper mapping methods ---
     private UserResponse mapToUserResponse(User user) {
         UserResponse response = new UserResponse();
@@ -121,7 +219,7 @@ public class AdminController {
         return response;
     }
 
-    private AuctionResponse mapToAuctionResponse(Auction auction) {
+    private AuctionResponse mapToAuctionResponse(Auction auction, AuctionSummary summary) {
         AuctionResponse response = new AuctionResponse();
         response.setId(auction.getId());
         response.setTitle(auction.getTitle());
@@ -135,9 +233,11 @@ public class AdminController {
         response.setCategory(auction.getCategory());
         response.setCondition(auction.getCondition());
         response.setViewCount(auction.getViewCount() != null ? auction.getViewCount() : 0);
-        response.setBidCount(auction.getBids() != null ? auction.getBids().size() : 0);
+        response.setBidCount(summary != null ? (int) summary.getBidCount() : 0);
+        response.setUniqueBidderCount(summary != null ? summary.getUniqueBidders() : 0);
+        response.setLastBidAt(summary != null ? summary.getLastBidAt() : null);
         response.setSellerId(auction.getSeller() != null ? auction.getSeller().getId() : null);
-        response.setWinnerId(null);
+        response.setWinnerId(summary != null ? summary.getLeadingBidderId() : null);
         // Seller mapping
         if (auction.getSeller() != null) {
             UserDTO sellerDTO = new UserDTO();
@@ -152,7 +252,7 @@ public class AdminController {
                 ? auction.getImages().stream().map(img -> {
                     AuctionImageDTO dto = new AuctionImageDTO();
                     dto.setId(img.getId());
-                    dto.setImageUrl(img.getUrl());
+                    imageStorageService.applyImageUrls(dto, img);
                     dto.setUploadedAt(img.getCreatedAt());
                     dto.setAuctionId(img.getAuction() != null ? img.getAuction().getId() : null);
                     return dto;
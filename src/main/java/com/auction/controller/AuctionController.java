@@ -4,27 +4,33 @@ import com.auction.dto.AuctionRequest;
 import com.auction.dto.AuctionResponse;
 import com.auction.model.Auction;
 import com.auction.model.AuctionStatus;
+import com.auction.model.AuctionSummary;
+import com.auction.model.Bid;
 import com.auction.model.ItemCondition;
+import com.auction.security.UserPrincipal;
 import com.auction.service.AuctionService;
+import com.auction.service.AuctionSummaryService;
+import com.auction.service.BidArchiveService;
+import com.auction.service.ImageStorageService;
+import com.auction.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.auction.model.AuctionImage;
-import java.util.UUID;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 
 import java.util.List;
+import java.util.Map;
 import com.auction.dto.UserDTO;
 import com.auction.model.User;
 import com.auction.dto.BidDTO;
-import com.auction.repository.BidRepository;
 
 @RestController
 @RequestMapping("/api/auctions")
@@ -32,7 +38,10 @@ import com.auction.repository.BidRepository;
 public class AuctionController {
     private final AuctionService auctionService;
     private final ObjectMapper objectMapper;
-    private final BidRepository bidRepository;
+    private final ImageStorageService imageStorageService;
+    private final AuctionSummaryService auctionSummaryService;
+    private final UserService userService;
+    private final BidArchiveService bidArchiveService;
 
     @PostMapping(consumes = "multipart/form-data")
     @PreAuthorize("isAuthenticated()")
@@ -51,31 +60,13 @@ public class AuctionController {
 
         Auction auction = mapToAuction(request);
 
-        // Xử lý lưu ảnh
-        if (images != null && images.length > 0) {
-            List<AuctionImage> auctionImages = new ArrayList<>();
-            String uploadDir = System.getProperty("user.dir") + File.separator + "uploads" + File.separator;
-            File dir = new File(uploadDir);
-            if (!dir.exists()) dir.mkdirs();
-
+        // Lưu ảnh theo hash nội dung; rendition được sinh nền sau khi phiên đấu giá được lưu
+        List<AuctionImage> auctionImages = new ArrayList<>();
+        if (images != null) {
             for (MultipartFile img : images) {
-                try {
-                    String fileName = UUID.randomUUID() + "_" + img.getOriginalFilename();
-                    File dest = new File(uploadDir + fileName);
-                    img.transferTo(dest);
-
-                    AuctionImage auctionImage = AuctionImage.builder()
-                            .fileName(fileName)
-                            .fileType(img.getContentType())
-                            .size(img.getSize())
-                            .url("/uploads/" + fileName)
-                            .auction(auction)
-                            .build();
-
-                    auctionImages.add(auctionImage);
-                } catch (IOException e) {
-                    throw new RuntimeException("Failed to save image: " + img.getOriginalFilename(), e);
-                }
+                AuctionImage auctionImage = imageStorageService.store(img);
+                auctionImage.setAuction(auction);
+                auctionImages.add(auctionImage);
             }
             auction.setImages(auctionImages);
         }
@@ -83,7 +74,8 @@ public class AuctionController {
         // Lấy sellerId từ authentication
         Long sellerId = ((com.auction.security.UserPrincipal) authentication.getPrincipal()).getId();
         Auction createdAuction = auctionService.createAuction(auction, sellerId);
-        return ResponseEntity.ok(mapToAuctionResponse(createdAuction));
+        imageStorageService.scheduleRenditions(auctionImages);
+        return ResponseEntity.ok(mapToAuctionResponse(createdAuction, summaryOf(createdAuction), false));
     }
 
     @GetMapping
@@ -95,14 +87,18 @@ public class AuctionController {
             @RequestParam(required = false) AuctionStatus status,
             Pageable pageable) {
         Page<Auction> auctions = auctionService.searchAuctions(keyword, category, minPrice, maxPrice, status, pageable);
-        return ResponseEntity.ok(auctions.map(this::mapToAuctionResponse));
+        Map<Long, AuctionSummary> summaries = summariesOf(auctions.getContent());
+        return ResponseEntity.ok(auctions.map(auction ->
+            mapToAuctionResponse(auction, summaries.get(auction.getId()), false)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AuctionResponse> getAuction(@PathVariable Long id) {
+    public ResponseEntity<AuctionResponse> getAuction(@PathVariable Long id,
+                                                      Authentication authentication,
+                                                      HttpServletRequest request) {
         Auction auction = auctionService.getAuctionById(id);
-        auctionService.incrementViewCount(id);
-        AuctionResponse response = mapToAuctionResponse(auction);
+        auctionService.incrementViewCount(id, viewerKey(authentication, request));
+        AuctionResponse response = mapToAuctionResponse(auction, summaryOf(auction), true);
         // Log dữ liệu trả về
         System.out.println("[REST] AuctionResponse: " + response);
         if (response.getBids() != null) {
@@ -118,7 +114,7 @@ public class AuctionController {
     public ResponseEntity<AuctionResponse> updateAuction(@PathVariable Long id, @RequestBody AuctionRequest request) {
         Auction auction = mapToAuction(request);
         Auction updatedAuction = auctionService.updateAuction(id, auction);
-        return ResponseEntity.ok(mapToAuctionResponse(updatedAuction));
+        return ResponseEntity.ok(mapToAuctionResponse(updatedAuction, summaryOf(updatedAuction), false));
     }
 
     @DeleteMapping("/{id}")
@@ -135,7 +131,7 @@ public class AuctionController {
             @RequestParam AuctionStatus status) {
         auctionService.updateAuctionStatus(id, status);
         Auction auction = auctionService.getAuctionById(id);
-        return ResponseEntity.ok(mapToAuctionResponse(auction));
+        return ResponseEntity.ok(mapToAuctionResponse(auction, summaryOf(auction), false));
     }
 
     @GetMapping("/mine")
@@ -143,8 +139,9 @@ public class AuctionController {
     public ResponseEntity<List<AuctionResponse>> getMyAuctions(org.springframework.security.core.Authentication authentication) {
         Long sellerId = ((com.auction.security.UserPrincipal) authentication.getPrincipal()).getId();
         List<Auction> myAuctions = auctionService.getAuctionsBySeller(sellerId);
+        Map<Long, AuctionSummary> summaries = summariesOf(myAuctions);
         List<AuctionResponse> responses = myAuctions.stream()
-            .map(this::mapToAuctionResponse)
+            .map(auction -> mapToAuctionResponse(auction, summaries.get(auction.getId()), false))
             .toList();
         return ResponseEntity.ok(responses);
     }
@@ -152,10 +149,21 @@ public class AuctionController {
     @GetMapping("/featured")
     public ResponseEntity<List<AuctionResponse>> getFeaturedAuctions() {
         List<Auction> auctions = auctionService.getTopMostViewedActiveAuctions(6);
-        List<AuctionResponse> responses = auctions.stream().map(this::mapToAuctionResponse).toList();
+        Map<Long, AuctionSummary> summaries = summariesOf(auctions);
+        List<AuctionResponse> responses = auctions.stream()
+            .map(auction -> mapToAuctionResponse(auction, summaries.get(auction.getId()), false))
+            .toList();
         return ResponseEntity.ok(responses);
     }
 
+    // Khóa người xem cho thống kê lượt xem phân biệt: user id nếu đã đăng nhập, ngược lại địa chỉ IP
+    private String viewerKey(Authentication authentication, HttpServletRequest request) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return "u:" + principal.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
     private Auction mapToAuction(AuctionRequest request) {
         Auction auction = new Auction();
         auction.setTitle(request.getTitle());
@@ -169,7 +177,17 @@ public class AuctionController {
         return auction;
     }
 
-    private AuctionResponse mapToAuctionResponse(Auction auction) {
+    private AuctionSummary summaryOf(Auction auction) {
+        return auctionSummaryService.getSummary(auction.getId()).orElse(null);
+    }
+
+    // Một truy vấn cho cả trang thay vì một truy vấn mỗi phiên
+    private Map<Long, AuctionSummary> summariesOf(List<Auction> auctions) {
+        return auctionSummaryService.getSummaries(auctions.stream().map(Auction::getId).toList());
+    }
+
+    // Danh sách bid chỉ trả về ở trang chi tiết; thẻ danh sách lấy số bid và người dẫn đầu từ auction_summary
+    private AuctionResponse mapToAuctionResponse(Auction auction, AuctionSummary summary, boolean includeBids) {
         AuctionResponse response = new AuctionResponse();
         response.setId(auction.getId());
         response.setTitle(auction.getTitle());
@@ -186,17 +204,27 @@ public class AuctionController {
             sellerDTO.setEmail(auction.getSeller().getEmail());
             response.setSeller(sellerDTO);
         }
-        // Winner động: lấy bid cao nhất, nếu không có thì set null rõ ràng
-        bidRepository.findTopByAuctionOrderByAmountDesc(auction).ifPresentOrElse(bid -> {
+        // Winner động: người dẫn đầu trong auction_summary, không có bid thì null
+        Long leaderId = summary != null ? summary.getLeadingBidderId() : null;
+        response.setWinner(leaderId == null ? null : userService.getUserById(leaderId).map(leader -> {
             UserDTO winnerDTO = new UserDTO();
-            winnerDTO.setId(bid.getBidder().getId());
-            winnerDTO.setUsername(bid.getBidder().getUsername());
-            winnerDTO.setEmail(bid.getBidder().getEmail());
-            response.setWinner(winnerDTO);
-        }, () -> response.setWinner(null));
-        if (auction.getBids() != null) {
+            winnerDTO.setId(leader.getId());
+            winnerDTO.setUsername(leader.getUsername());
+            winnerDTO.setEmail(leader.getEmail());
+            return winnerDTO;
+        }).orElse(null));
+        response.setWinnerId(leaderId);
+        if (summary != null) {
+            response.setBidCount((int) summary.getBidCount());
+            response.setUniqueBidderCount(summary.getUniqueBidders());
+            response.setLastBidAt(summary.getLastBidAt());
+        }
+        List<Bid> bids = includeBids
+            ? bidArchiveService.findArchivedBids(auction, Pageable.unpaged()).map(Page::getContent).orElse(auction.getBids())
+            : null;
+        if (bids != null) {
             response.setBids(
-                auction.getBids().stream()
+                bids.stream()
                     .map(bid -> {
                         BidDTO dto = new BidDTO();
                         dto.setId(bid.getId());
@@ -226,7 +254,7 @@ public class AuctionController {
     private com.auction.dto.AuctionImageDTO mapToAuctionImageDTO(AuctionImage image) {
         com.auction.dto.AuctionImageDTO dto = new com.auction.dto.AuctionImageDTO();
         dto.setId(image.getId());
-        dto.setImageUrl(image.getUrl());
+        imageStorageService.applyImageUrls(dto, image);
         dto.setDescription(null); // Nếu có trường description thì set, không thì để null
         dto.setUploadedAt(image.getCreatedAt());
         dto.setAuctionId(image.getAuction() != null ? image.getAuction().getId() : null);
@@ -54,9 +54,11 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
-        // In a stateless JWT system, the client is responsible for removing the token
-        // We just return a success message
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader) {
+        // Thu hồi token hiện tại để nó hết hiệu lực trên mọi node, không chỉ xóa ở client
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authHeader.substring(7));
+        }
         return ResponseEntity.ok("Logout successful");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.auction.controller;
+
+import com.auction.model.User;
+import com.auction.push.dto.DeviceTokenRequest;
+import com.auction.push.service.PushService;
+import com.auction.security.UserPrincipal;
+import com.auction.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/push/devices")
+@RequiredArgsConstructor
+@PreAuthorize("isAuthenticated()")
+public class DeviceTokenController {
+    private final PushService pushService;
+    private final UserService userService;
+
+    @PostMapping
+    public ResponseEntity<Void> registerDevice(@Valid @RequestBody DeviceTokenRequest request,
+                                               Authentication authentication) {
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        User user = userService.getUserById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        pushService.registerToken(user, request);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> unregisterDevice(@RequestParam String token, Authentication authentication) {
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        pushService.unregisterToken(userId, token);
+        return ResponseEntity.ok().build();
+    }
+}
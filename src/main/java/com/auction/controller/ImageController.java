@@ -0,0 +1,226 @@
+package com.auction.controller;
+
+import com.auction.service.ImageFileCache;
+import com.auction.service.ImageStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Phục vụ ảnh đấu giá đặt tên theo hash nội dung (xem {@link ImageStorageService}).
+ * <ul>
+ *   <li>Cache-Control immutable một năm và ETag mạnh từ hash; If-None-Match trả 304.</li>
+ *   <li>Range một đoạn ({@code bytes=a-b}, {@code a-}, {@code -n}) trả 206, có If-Range.</li>
+ *   <li>Biến thể nén sẵn {@code .br}/{@code .gz} cạnh file gốc nếu có và client chấp nhận.</li>
+ *   <li>Ảnh nhỏ được đọc nhiều lấy từ {@link ImageFileCache}; còn lại dùng sendfile của Tomcat (luồng worker trả
+ *   về ngay, poller gửi file) hoặc {@link FileChannel#transferTo} khi connector không hỗ trợ.</li>
+ * </ul>
+ */
+@RestController
+@RequiredArgsConstructor
+public class ImageController {
+    private static final Pattern RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ImageStorageService imageStorageService;
+    private final ImageFileCache imageFileCache;
+
+    @GetMapping("/uploads/images/{directory:original|thumbnail|card|full}/{shard1:[0-9a-f]{2}}/{shard2:[0-9a-f]{2}}/{fileName:[0-9a-f]{64}\\.(?:jpg|png|gif|webp)}")
+    public void serve(@PathVariable String directory,
+                      @PathVariable String shard1,
+                      @PathVariable String shard2,
+                      @PathVariable String fileName,
+                      HttpServletRequest request,
+                      HttpServletResponse response) throws IOException {
+        if (!fileName.startsWith(shard1 + shard2)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = imageStorageService.getRoot().resolve(directory).resolve(shard1).resolve(shard2).resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + directory + "-" + fileName.substring(0, fileName.indexOf('.')) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentType(contentType(fileName));
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = Files.size(file);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] range = parseRange(rangeHeader, length);
+            if (range == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range.length == 2) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length);
+                send(request, response, file, range[0], range[1] + 1, length, false);
+                return;
+            }
+        }
+
+        // Biến thể nén sẵn chỉ dùng cho toàn bộ file, không kết hợp với range
+        Path variant = precompressedVariant(file, request.getHeader(HttpHeaders.ACCEPT_ENCODING), response);
+        if (variant != null) {
+            long variantLength = Files.size(variant);
+            send(request, response, variant, 0, variantLength, variantLength, false);
+            return;
+        }
+        send(request, response, file, 0, length, length, true);
+    }
+
+    private void send(HttpServletRequest request, HttpServletResponse response, Path file,
+                      long start, long end, long fileLength, boolean cacheable) throws IOException {
+        long count = end - start;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (cacheable) {
+            ByteBuffer cached = imageFileCache.get(file, fileLength);
+            if (cached != null) {
+                OutputStream out = response.getOutputStream();
+                WritableByteChannel channel = Channels.newChannel(out);
+                while (cached.hasRemaining()) {
+                    channel.write(cached);
+                }
+                return;
+            }
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static Path precompressedVariant(Path file, String acceptEncoding, HttpServletResponse response) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        String accepted = acceptEncoding.toLowerCase();
+        if (accepted.contains("br")) {
+            Path brotli = file.resolveSibling(file.getFileName() + ".br");
+            if (Files.isRegularFile(brotli)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+                return brotli;
+            }
+        }
+        if (accepted.contains("gzip")) {
+            Path gzip = file.resolveSibling(file.getFileName() + ".gz");
+            if (Files.isRegularFile(gzip)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                return gzip;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Trả về [start, end] (bao gồm end), mảng rỗng nếu header không phải một đoạn đơn (trả toàn bộ file),
+     * hoặc null nếu đoạn không thỏa mãn được.
+     */
+    static long[] parseRange(String header, long length) {
+        Matcher matcher = RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return new long[0];
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        long start;
+        long end;
+        if (first.isEmpty()) {
+            if (last.isEmpty()) {
+                return new long[0];
+            }
+            long suffix = Long.parseLong(last);
+            if (suffix == 0) {
+                return null;
+            }
+            start = Math.max(0, length - suffix);
+            end = length - 1;
+        } else {
+            start = Long.parseLong(first);
+            if (!last.isEmpty() && Long.parseLong(last) < start) {
+                // Cú pháp sai theo RFC 9110: bỏ qua header
+                return new long[0];
+            }
+            end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+        }
+        if (start >= length) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String contentType(String fileName) {
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+}
@@ -1,8 +1,11 @@
 package com.auction.controller;
 
+import com.auction.dto.NotificationGroupSummary;
+import com.auction.dto.UnreadCountResponse;
 import com.auction.model.Notification;
 import com.auction.model.NotificationPreference;
 import com.auction.model.User;
+import com.auction.security.UserPrincipal;
 import com.auction.service.NotificationService;
 import com.auction.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,7 +39,6 @@ public class NotificationController {
     public ResponseEntity<Page<Notification>> getUserNotifications(
             Authentication authentication,
             Pageable pageable) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         return ResponseEntity.ok(notificationService.getUserNotifications(user, pageable));
@@ -46,21 +48,47 @@ public class NotificationController {
     public ResponseEntity<Page<Notification>> getUnreadNotifications(
             Authentication authentication,
             Pageable pageable) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         return ResponseEntity.ok(notificationService.getUnreadNotifications(user, pageable));
     }
 
+    @GetMapping("/unread/count")
+    public ResponseEntity<UnreadCountResponse> getUnreadCount(Authentication authentication) {
+        Long userId = ((UserPrincipal) authentication.getPrincipal()).getId();
+        return ResponseEntity.ok(new UnreadCountResponse(notificationService.getUnreadCount(userId)));
+    }
+
     @GetMapping("/grouped")
     public ResponseEntity<Map<String, List<Notification>>> getGroupedNotifications(
             Authentication authentication) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         return ResponseEntity.ok(notificationService.getGroupedNotifications(user));
     }
 
+    // Tóm tắt theo type kèm một trang item mới nhất của mỗi type; /grouped giữ nguyên dạng cũ cho client hiện có
+    @GetMapping("/groups")
+    public ResponseEntity<Map<String, NotificationGroupSummary>> getNotificationGroups(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "5") int size) {
+        User user = userService.getUserByUsername(authentication.getName())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(notificationService.getNotificationGroups(user, page, size));
+    }
+
+    @GetMapping("/groups/{type}")
+    public ResponseEntity<NotificationGroupSummary> getNotificationGroup(
+            Authentication authentication,
+            @PathVariable String type,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        User user = userService.getUserByUsername(authentication.getName())
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(notificationService.getNotificationGroup(user, type, page, size));
+    }
+
     @PostMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(@PathVariable Long id) {
         notificationService.markAsRead(id);
@@ -69,7 +97,6 @@ public class NotificationController {
 
     @PostMapping("/read-all")
     public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         notificationService.markAllAsRead(user);
@@ -84,7 +111,6 @@ public class NotificationController {
 
     @DeleteMapping
     public ResponseEntity<Void> deleteAllNotifications(Authentication authentication) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         notificationService.deleteAllUserNotifications(user);
@@ -94,7 +120,6 @@ public class NotificationController {
     @GetMapping("/preferences")
     public ResponseEntity<List<NotificationPreference>> getNotificationPreferences(
             Authentication authentication) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         return ResponseEntity.ok(notificationService.getUserNotificationPreferences(user));
@@ -107,7 +132,6 @@ public class NotificationController {
             @RequestParam boolean email,
             @RequestParam boolean inApp,
             @RequestParam boolean push) {
-        System.out.println("Auth: " + authentication);
         User user = userService.getUserByUsername(authentication.getName())
             .orElseThrow(() -> new RuntimeException("User not found"));
         NotificationPreference preference = notificationService.updateNotificationPreference(
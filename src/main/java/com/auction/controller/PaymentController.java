@@ -4,17 +4,27 @@ import com.auction.payment.dto.PaymentRequest;
 import com.auction.payment.dto.PaymentResponse;
 import com.auction.payment.model.PaymentOrder;
 import com.auction.payment.service.PaymentService;
+import com.auction.payment.service.PaymentTransitionException;
+import com.auction.payment.service.QrCodeService;
+import com.auction.payment.service.VNPayService;
 import com.auction.model.User;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/payment")
@@ -23,6 +33,8 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final QrCodeService qrCodeService;
+    private final VNPayService vnPayService;
 
     @PostMapping("/create")
     @Operation(summary = "Create payment", description = "Creates a payment for an auction")
@@ -47,13 +59,44 @@ public class PaymentController {
         return ResponseEntity.ok(payment);
     }
 
+    @GetMapping(value = "/{orderCode}/qr", produces = MediaType.IMAGE_PNG_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or @paymentServiceImpl.isOwner(#orderCode, authentication.principal.id)")
+    @Operation(summary = "Get payment QR code", description = "Returns the payment QR code as a cached PNG image")
+    public ResponseEntity<byte[]> getPaymentQrCode(
+            @PathVariable String orderCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String content = paymentService.getPaymentUrl(orderCode);
+        String etag = qrCodeService.etagFor(content);
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofDays(1)).cachePrivate();
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.IMAGE_PNG)
+                .body(qrCodeService.getPng(content));
+    }
+
     @PostMapping("/callback")
-    @Operation(summary = "Process payment callback", description = "Handles payment callbacks from payment providers")
-    public ResponseEntity<Void> processCallback(
-            @RequestParam String orderCode,
-            @RequestParam String transactionId,
-            @RequestParam String status) {
-        paymentService.processPaymentCallback(orderCode, transactionId, status);
+    @Operation(summary = "Process payment callback", description = "Handles signed VNPay payment callbacks")
+    public ResponseEntity<Void> processCallback(@RequestParam Map<String, String> params) {
+        // Chỉ áp dụng tham số có vnp_SecureHash hợp lệ; thiếu hoặc sai chữ ký thì order giữ nguyên trạng thái
+        if (!vnPayService.validatePaymentResponse(params)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String orderCode = params.get("vnp_TxnRef");
+        String transactionId = params.get("vnp_TransactionNo");
+        String status = params.get("vnp_ResponseCode");
+        if (orderCode == null || transactionId == null || status == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            paymentService.processPaymentCallback(orderCode, transactionId, status);
+        } catch (PaymentTransitionException e) {
+            // 409 để provider gửi lại callback; trạng thái và bản ghi idempotency đã được rollback
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         return ResponseEntity.ok().build();
     }
 } 
\ No newline at end of file
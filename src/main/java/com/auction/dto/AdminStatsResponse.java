@@ -11,6 +11,9 @@ public class AdminStatsResponse {
     private long activeAuctions;
     private long totalBids;
     private long totalRevenue;
+    // true khi các số đếm phân biệt được tính chính xác trên bảng gốc thay vì ước lượng từ sketch
+    private boolean exactCounts;
+    private DistinctCounts distinctCounts;
     private List<DailyStat> dailyStats;
     private List<CategoryStat> categoryStats;
 
@@ -19,6 +22,21 @@ public class AdminStatsResponse {
         private String date;
         private long revenue;
         private long activeUsers;
+        private long newUsers;
+        private long newAuctions;
+        private long bids;
+        private Long activeBidders;
+        private Long viewers;
+    }
+
+    /**
+     * Số người dùng phân biệt trên cả khoảng thời gian (không phải tổng các ngày). Null nếu không tính được.
+     */
+    @Data
+    public static class DistinctCounts {
+        private Long payingUsers;
+        private Long activeBidders;
+        private Long viewers;
     }
 
     @Data
@@ -13,7 +13,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AuctionImageDTO {
     private Long id;
+    // Ảnh cỡ card cho danh sách; các cỡ khác bên dưới, bằng ảnh gốc khi rendition chưa sẵn sàng
     private String imageUrl;
+    private String thumbnailUrl;
+    private String cardUrl;
+    private String fullUrl;
+    private String originalUrl;
     private String description;
     private LocalDateTime uploadedAt;
     private Long auctionId;
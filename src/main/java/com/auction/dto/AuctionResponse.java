@@ -23,6 +23,8 @@ public class AuctionResponse {
     private String category;
     private int viewCount;
     private int bidCount;
+    private long uniqueBidderCount;
+    private LocalDateTime lastBidAt;
     private Long sellerId;
     private Long winnerId;
     private UserDTO seller;
@@ -0,0 +1,27 @@
+package com.auction.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BidArchiveStatsResponse {
+    private boolean running;
+    private LocalDateTime cutoff;
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastRunFinishedAt;
+    private long auctionsInCurrentRun;
+    private long bidsInCurrentRun;
+    private long totalRuns;
+    private String lastError;
+
+    // Tổng trên toàn bộ bid_archives
+    private long archivedAuctions;
+    private long archivedBids;
+    private long archiveBytes;
+    private double archiveBytesPerBid;
+    // Số dòng còn lại trong bảng bids và dung lượng trung bình mỗi dòng kể cả index (chỉ có trên MySQL)
+    private long hotBidRows;
+    private Double hotBytesPerBid;
+    private Long estimatedBytesSaved;
+}
@@ -0,0 +1,37 @@
+package com.auction.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class CacheStatsResponse {
+    private LocalDateTime statisticsSince;
+    private List<RegionStats> regions;
+
+    private long secondLevelHits;
+    private long secondLevelMisses;
+    private double secondLevelHitRatio;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private double queryCacheHitRatio;
+
+    // Câu SQL thực sự gửi tới DB so với số lần đọc được phục vụ từ cache
+    private long statementsPrepared;
+    private long statementsAvoided;
+    private double statementReductionRatio;
+    private long entityLoads;
+    private long queryExecutions;
+
+    @Data
+    public static class RegionStats {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRatio;
+        // null khi provider không báo số phần tử (JCache)
+        private Long entriesInMemory;
+    }
+}
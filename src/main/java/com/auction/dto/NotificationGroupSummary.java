@@ -0,0 +1,19 @@
+package com.auction.dto;
+
+import com.auction.model.Notification;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class NotificationGroupSummary {
+    private String type;
+    private long totalCount;
+    private long unreadCount;
+    private LocalDateTime latestAt;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private List<Notification> items;
+}
@@ -0,0 +1,19 @@
+package com.auction.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class RetentionStatsResponse {
+    private boolean running;
+    private LocalDateTime cutoff;
+    private LocalDateTime lastRunStartedAt;
+    private LocalDateTime lastRunFinishedAt;
+    private long lastProcessedId;
+    private long archivedInCurrentRun;
+    private long batchesInCurrentRun;
+    private long totalArchived;
+    private long totalRuns;
+    private String lastError;
+}
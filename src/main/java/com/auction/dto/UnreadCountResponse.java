@@ -0,0 +1,19 @@
+package com.auction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountResponse {
+    public static final String TYPE = "UNREAD_COUNT";
+
+    private String type = TYPE;
+    private long unreadCount;
+
+    public UnreadCountResponse(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
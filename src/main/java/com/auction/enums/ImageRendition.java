@@ -0,0 +1,32 @@
+package com.auction.enums;
+
+/**
+ * Các kích thước ảnh được sinh từ ảnh gốc; {@code maxDimension} là cạnh dài nhất (px).
+ */
+public enum ImageRendition {
+    THUMBNAIL("thumbnail", 160, 0.75f),
+    CARD("card", 480, 0.8f),
+    FULL("full", 1600, 0.85f);
+
+    private final String directory;
+    private final int maxDimension;
+    private final float jpegQuality;
+
+    ImageRendition(String directory, int maxDimension, float jpegQuality) {
+        this.directory = directory;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+}
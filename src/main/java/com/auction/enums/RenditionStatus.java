@@ -0,0 +1,8 @@
+package com.auction.enums;
+
+public enum RenditionStatus {
+    PENDING,
+    READY,
+    // Ảnh gốc không giải mã được (ví dụ WebP); client dùng ảnh gốc
+    FAILED
+}
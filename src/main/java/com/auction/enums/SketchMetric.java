@@ -0,0 +1,7 @@
+package com.auction.enums;
+
+public enum SketchMetric {
+    PAYING_USERS,
+    ACTIVE_BIDDERS,
+    VIEWERS
+}
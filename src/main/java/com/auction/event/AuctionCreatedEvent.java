@@ -0,0 +1,16 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class AuctionCreatedEvent {
+    private final Long auctionId;
+    private final Long sellerId;
+    private final LocalDateTime occurredAt;
+}
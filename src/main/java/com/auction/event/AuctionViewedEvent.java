@@ -0,0 +1,19 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Một lượt xem trang phiên đấu giá. {@code viewerKey} là "u:&lt;userId&gt;" khi đã đăng nhập, ngược lại "ip:&lt;địa chỉ&gt;".
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AuctionViewedEvent {
+    private final Long auctionId;
+    private final String viewerKey;
+    private final LocalDateTime occurredAt;
+}
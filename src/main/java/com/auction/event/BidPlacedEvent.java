@@ -0,0 +1,19 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BidPlacedEvent {
+    private final Long bidId;
+    private final Long auctionId;
+    private final Long bidderId;
+    private final BigDecimal amount;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,18 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Entity nằm trong second-level cache vừa được thêm, sửa hoặc xóa; phát trong transaction ghi.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CachedEntityChangedEvent {
+    private final Class<?> entityType;
+    private final Long id;
+    // true khi bản ghi vừa được thêm (chưa node nào có trong cache)
+    private final boolean created;
+}
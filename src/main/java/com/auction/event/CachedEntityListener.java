@@ -0,0 +1,56 @@
+package com.auction.event;
+
+import com.auction.model.NotificationPreference;
+import com.auction.model.NotificationTemplate;
+import com.auction.model.Role;
+import com.auction.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Entity listener cho các entity có second-level cache; Hibernate tạo qua Spring nên được inject publisher.
+ */
+public class CachedEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CachedEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onCreate(Object entity) {
+        publish(entity, true);
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        publish(entity, false);
+    }
+
+    private void publish(Object entity, boolean created) {
+        Long id = idOf(entity);
+        if (id != null) {
+            eventPublisher.publishEvent(new CachedEntityChangedEvent(Hibernate.getClass(entity), id, created));
+        }
+    }
+
+    private Long idOf(Object entity) {
+        if (entity instanceof User user) {
+            return user.getId();
+        }
+        if (entity instanceof Role role) {
+            return role.getId();
+        }
+        if (entity instanceof NotificationTemplate template) {
+            return template.getId();
+        }
+        if (entity instanceof NotificationPreference preference) {
+            return preference.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserBlockedEvent {
+    private final Long userId;
+    private final boolean blocked;
+}
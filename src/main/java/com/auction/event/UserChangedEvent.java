@@ -0,0 +1,15 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Thông tin user (hồ sơ, mật khẩu, quyền, trạng thái khóa) đã thay đổi; phát trong transaction ghi.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+}
@@ -0,0 +1,15 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserRegisteredEvent {
+    private final Long userId;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,19 @@
+package com.auction.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Quyền của user đã thay đổi; access token phát hành đến thời điểm {@code changedAt} mang roles cũ trong claim.
+ * Phát trong transaction ghi, cùng với {@link UserChangedEvent}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserRolesChangedEvent {
+    private final Long userId;
+    private final Instant changedAt;
+}
@@ -13,7 +13,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "auctions")
+@Table(name = "auctions", indexes = {
+    @Index(name = "idx_auctions_status_end", columnList = "status, end_time"),
+    @Index(name = "idx_auctions_status_start", columnList = "status, start_time")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Auction {
     @Id
@@ -0,0 +1,33 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Tập người đã đặt giá trong mỗi phiên, dùng để đếm unique_bidders của {@link AuctionSummary} khi cộng dồn.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "auction_bidders")
+public class AuctionBidder {
+    @EmbeddedId
+    private Key id;
+
+    @Data
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "auction_id")
+        private Long auctionId;
+
+        @Column(name = "bidder_id")
+        private Long bidderId;
+    }
+}
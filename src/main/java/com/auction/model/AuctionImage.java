@@ -1,5 +1,6 @@
 package com.auction.model;
 
+import com.auction.enums.RenditionStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -16,10 +17,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "auction_images")
+@Table(name = "auction_images", indexes = {
+    @Index(name = "idx_auction_images_rendition", columnList = "rendition_status, created_at")
+})
 public class AuctionImage {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auction_image_id")
+    @SequenceGenerator(name = "auction_image_id", sequenceName = "auction_images_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -34,6 +38,14 @@ public class AuctionImage {
     @NotBlank
     private String url;
 
+    // SHA-256 của nội dung ảnh gốc; null với ảnh tải lên trước khi có pipeline rendition
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rendition_status", length = 16)
+    private RenditionStatus renditionStatus;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "auction_id")
     @JsonIgnore
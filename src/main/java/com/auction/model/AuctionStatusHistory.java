@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Table(name = "auction_status_history")
 public class AuctionStatusHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auction_status_history_id")
+    @SequenceGenerator(name = "auction_status_history_id", sequenceName = "auction_status_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
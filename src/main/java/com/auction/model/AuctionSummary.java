@@ -0,0 +1,40 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model cho thẻ danh sách và trang chi tiết phiên đấu giá, cập nhật trong cùng transaction với mỗi bid được
+ * chấp nhận, để các màn hình đọc không phải tổng hợp trên bảng bids.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "auction_summary")
+public class AuctionSummary {
+    @Id
+    @Column(name = "auction_id")
+    private Long auctionId;
+
+    @Column(name = "current_price", nullable = false)
+    private BigDecimal currentPrice;
+
+    @Column(name = "bid_count", nullable = false)
+    private long bidCount;
+
+    @Column(name = "unique_bidders", nullable = false)
+    private long uniqueBidders;
+
+    @Column(name = "leading_bidder_id")
+    private Long leadingBidderId;
+
+    @Column(name = "last_bid_at")
+    private LocalDateTime lastBidAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
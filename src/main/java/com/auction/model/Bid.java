@@ -7,10 +7,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name = "bids")
+@Table(name = "bids", indexes = {
+    @Index(name = "idx_bids_auction_amount", columnList = "auction_id, amount desc"),
+    @Index(name = "idx_bids_auction_winning", columnList = "auction_id, is_winning")
+})
 public class Bid {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bid_id")
+    @SequenceGenerator(name = "bid_id", sequenceName = "bids_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,31 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Lịch sử bid của một phiên đã đóng, mã hóa bằng {@link com.auction.utils.BidArchiveCodec}.
+ */
+@Data
+@Entity
+@Table(name = "bid_archives")
+public class BidArchive {
+    @Id
+    @Column(name = "auction_id")
+    private Long auctionId;
+
+    @Column(name = "bid_count", nullable = false)
+    private int bidCount;
+
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Đã ghi số bid theo ngày vào bid_archive_days
+    @Column(name = "days_indexed", nullable = false)
+    private boolean daysIndexed;
+}
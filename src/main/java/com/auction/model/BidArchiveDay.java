@@ -0,0 +1,43 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Số bid đã lưu trữ của một bidder trong một phiên theo ngày, thay cho các dòng đã xóa khỏi bảng bids
+ * khi dựng lại thống kê theo ngày.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "bid_archive_days", indexes = {
+    @Index(name = "idx_bid_archive_days_date_bidder", columnList = "stat_date, bidder_id")
+})
+public class BidArchiveDay {
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "bid_count", nullable = false)
+    private int bidCount;
+
+    @Data
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "auction_id")
+        private Long auctionId;
+
+        @Column(name = "stat_date")
+        private LocalDate statDate;
+
+        @Column(name = "bidder_id")
+        private Long bidderId;
+    }
+}
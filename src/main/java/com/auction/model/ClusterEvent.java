@@ -0,0 +1,38 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thông điệp phát cho các node khác (vô hiệu cache, thu hồi token...), được đọc bằng polling.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "cluster_events", indexes = {
+    @Index(name = "idx_cluster_events_created_at", columnList = "created_at")
+})
+public class ClusterEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String topic;
+
+    @Column(nullable = false, length = 255)
+    private String payload;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false, columnDefinition = "DATETIME(3)")
+    private LocalDateTime createdAt;
+}
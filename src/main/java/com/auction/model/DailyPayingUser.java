@@ -0,0 +1,34 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Tập user đã thanh toán trong ngày, dùng để đếm paying_users chính xác khi cộng dồn.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_paying_users")
+public class DailyPayingUser {
+    @EmbeddedId
+    private Key id;
+
+    @Data
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "stat_date")
+        private LocalDate statDate;
+
+        @Column(name = "user_id")
+        private Long userId;
+    }
+}
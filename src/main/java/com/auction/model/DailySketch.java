@@ -0,0 +1,44 @@
+package com.auction.model;
+
+import com.auction.enums.SketchMetric;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * HyperLogLog đã mã hoá (xem {@link com.auction.utils.HyperLogLog#toBytes()}) cho một ngày và một metric.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_sketches")
+public class DailySketch {
+    @EmbeddedId
+    private Key id;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @Embeddable
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "stat_date")
+        private LocalDate statDate;
+
+        @Enumerated(EnumType.STRING)
+        @Column(length = 32)
+        private SketchMetric metric;
+    }
+}
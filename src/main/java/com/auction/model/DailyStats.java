@@ -0,0 +1,47 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Số liệu tổng hợp theo ngày cho dashboard admin, được cộng dồn từ domain event và có thể dựng lại từ bảng gốc.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "daily_stats")
+public class DailyStats {
+    @Id
+    @Column(name = "stat_date")
+    private LocalDate statDate;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "completed_payments", nullable = false)
+    private long completedPayments;
+
+    @Column(name = "paying_users", nullable = false)
+    private long payingUsers;
+
+    @Column(name = "new_users", nullable = false)
+    private long newUsers;
+
+    @Column(name = "new_auctions", nullable = false)
+    private long newAuctions;
+
+    @Column(nullable = false)
+    private long bids;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -2,14 +2,19 @@ package com.auction.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_recipient_read_created", columnList = "recipient_id, is_read, created_at"),
+    @Index(name = "idx_notifications_recipient_type_created", columnList = "recipient_id, type, created_at")
+})
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_id")
+    @SequenceGenerator(name = "notification_id", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -25,6 +30,16 @@ public class Notification {
     @Column(name = "is_read")
     private boolean read;
 
+    // Dùng cho thông báo gộp (digest), ví dụ OUTBID: phiên đấu giá, giá mới nhất và số lần bị vượt giá
+    @Column(name = "auction_id")
+    private Long auctionId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Column(name = "digest_count")
+    private Integer digestCount;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
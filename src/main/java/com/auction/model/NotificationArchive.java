@@ -0,0 +1,40 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "notification_archive",
+    indexes = @Index(name = "idx_notification_archive_recipient", columnList = "recipient_id, created_at"))
+public class NotificationArchive {
+    // Giữ nguyên id gốc của bảng notifications
+    @Id
+    private Long id;
+
+    @Column(name = "recipient_id")
+    private Long recipientId;
+
+    @Column(name = "type", length = 32)
+    private String type;
+
+    @Column(name = "message")
+    private String message;
+
+    @Column(name = "auction_id")
+    private Long auctionId;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @Column(name = "digest_count")
+    private Integer digestCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
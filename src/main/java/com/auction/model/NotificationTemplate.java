@@ -1,11 +1,16 @@
 package com.auction.model;
 
+import com.auction.event.CachedEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "notification_templates")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "notification-templates")
+@EntityListeners(CachedEntityListener.class)
 public class NotificationTemplate {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
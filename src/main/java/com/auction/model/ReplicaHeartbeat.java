@@ -0,0 +1,21 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Một dòng duy nhất được ghi định kỳ lên primary; đọc lại trên replica để đo độ trễ replication.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    @Id
+    private Integer id;
+
+    // Epoch ms theo đồng hồ node ghi
+    @Column(name = "beat_at_ms", nullable = false)
+    private Long beatAtMs;
+}
@@ -8,7 +8,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+    indexes = @Index(name = "idx_transactions_status_created", columnList = "status, created_at"))
 @Data
 @Builder
 @NoArgsConstructor
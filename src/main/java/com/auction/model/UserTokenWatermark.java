@@ -0,0 +1,28 @@
+package com.auction.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Access token của user phát hành không sau {@code notBefore} không còn hợp lệ (quyền đã đổi sau khi phát hành).
+ * Được xóa khi mọi token như vậy đã hết hạn.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_token_watermarks", indexes = {
+    @Index(name = "idx_user_token_watermarks_not_before", columnList = "not_before")
+})
+public class UserTokenWatermark {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "not_before", nullable = false)
+    private LocalDateTime notBefore;
+}
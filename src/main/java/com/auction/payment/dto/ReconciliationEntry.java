@@ -0,0 +1,20 @@
+package com.auction.payment.dto;
+
+import com.auction.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Một dòng của một phía khi đối soát (payment order, transaction hoặc file quyết toán), khóa theo mã tham chiếu.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ReconciliationEntry {
+    private final String reference;
+    private final BigDecimal amount;
+    private final PaymentStatus status;
+}
@@ -0,0 +1,8 @@
+package com.auction.payment.enums;
+
+public enum CallbackOutcome {
+    APPLIED,
+    ALREADY_APPLIED,
+    DUPLICATE,
+    REJECTED
+}
@@ -0,0 +1,10 @@
+package com.auction.payment.enums;
+
+public enum MismatchType {
+    ORDER_MISSING,
+    TRANSACTION_MISSING,
+    SETTLEMENT_MISSING,
+    DUPLICATE_SETTLEMENT,
+    AMOUNT_MISMATCH,
+    STATUS_MISMATCH
+}
@@ -0,0 +1,7 @@
+package com.auction.payment.enums;
+
+public enum ReconciliationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
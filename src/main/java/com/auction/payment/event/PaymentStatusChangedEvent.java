@@ -0,0 +1,27 @@
+package com.auction.payment.event;
+
+import com.auction.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Được publish đúng một lần cho mỗi lần payment order thực sự đổi trạng thái, trong transaction đã đổi trạng thái đó.
+ * Listener nên dùng {@code @TransactionalEventListener} để chỉ nhận sau khi commit; listener cần ghi cùng
+ * transaction (như bản ghi transactions) dùng {@code @EventListener}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PaymentStatusChangedEvent {
+    private final Long paymentOrderId;
+    private final String orderCode;
+    private final Long userId;
+    private final BigDecimal amount;
+    private final PaymentStatus fromStatus;
+    private final PaymentStatus toStatus;
+    private final LocalDateTime occurredAt;
+}
@@ -0,0 +1,50 @@
+package com.auction.payment.model;
+
+import com.auction.payment.enums.CallbackOutcome;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bảng idempotency cho callback từ cổng thanh toán: mỗi {@code callbackKey} (xem
+ * {@code PaymentStateMachine.callbackKey}) của một provider chỉ được xử lý một lần.
+ */
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payment_callbacks",
+    uniqueConstraints = @UniqueConstraint(name = "uk_payment_callbacks_provider_key",
+        columnNames = {"provider", "callback_key"}))
+public class PaymentCallback {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String provider;
+
+    @Column(name = "provider_transaction_id", nullable = false, length = 128)
+    private String providerTransactionId;
+
+    @Column(name = "callback_key", nullable = false, length = 400)
+    private String callbackKey;
+
+    @Column(name = "order_code", nullable = false)
+    private String orderCode;
+
+    @Column(name = "reported_status", length = 32)
+    private String reportedStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private CallbackOutcome outcome;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
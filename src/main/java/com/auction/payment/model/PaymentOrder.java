@@ -17,10 +17,12 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "payment_orders")
+@Table(name = "payment_orders",
+    indexes = @Index(name = "idx_payment_orders_status_expires", columnList = "status, expires_at"))
 public class PaymentOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_order_id")
+    @SequenceGenerator(name = "payment_order_id", sequenceName = "payment_orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -63,7 +65,7 @@ public class PaymentOrder {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
-    @Column(nullable = false)
+    @Column(name = "expires_at", nullable = false)
     private LocalDateTime expiresAt;
 
     @Column
@@ -0,0 +1,51 @@
+package com.auction.payment.model;
+
+import com.auction.payment.enums.MismatchType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reconciliation_mismatches",
+    indexes = @Index(name = "idx_reconciliation_mismatches_run", columnList = "run_id, id"))
+public class ReconciliationMismatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(nullable = false)
+    private String reference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private MismatchType type;
+
+    @Column(length = 32)
+    private String orderStatus;
+
+    @Column(length = 32)
+    private String transactionStatus;
+
+    @Column(length = 32)
+    private String settlementStatus;
+
+    @Column
+    private BigDecimal orderAmount;
+
+    @Column
+    private BigDecimal transactionAmount;
+
+    @Column
+    private BigDecimal settlementAmount;
+}
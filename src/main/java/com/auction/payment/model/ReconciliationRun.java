@@ -0,0 +1,50 @@
+package com.auction.payment.model;
+
+import com.auction.payment.enums.ReconciliationStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reconciliation_runs")
+public class ReconciliationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReconciliationStatus status;
+
+    @Column
+    private String settlementFile;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false)
+    private long ordersScanned;
+
+    @Column(nullable = false)
+    private long transactionsScanned;
+
+    @Column(nullable = false)
+    private long settlementRowsScanned;
+
+    @Column(nullable = false)
+    private long mismatchCount;
+
+    @Column(length = 1000)
+    private String error;
+}
@@ -0,0 +1,39 @@
+package com.auction.payment.repository;
+
+import com.auction.payment.enums.CallbackOutcome;
+import com.auction.payment.model.PaymentCallback;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface PaymentCallbackRepository extends JpaRepository<PaymentCallback, Long> {
+    // Trả về 0 nếu callback này đã được ghi nhận; nếu một node khác đang xử lý cùng khóa,
+    // câu lệnh chờ transaction đó commit rồi mới trả về
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "payment_callbacks"))
+    @Query(value = "INSERT IGNORE INTO payment_callbacks " +
+                   "(provider, callback_key, provider_transaction_id, order_code, reported_status, created_at) " +
+                   "VALUES (:provider, :callbackKey, :providerTransactionId, :orderCode, :reportedStatus, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("provider") String provider,
+                       @Param("callbackKey") String callbackKey,
+                       @Param("providerTransactionId") String providerTransactionId,
+                       @Param("orderCode") String orderCode,
+                       @Param("reportedStatus") String reportedStatus,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentCallback c SET c.outcome = :outcome " +
+           "WHERE c.provider = :provider AND c.callbackKey = :callbackKey")
+    int updateOutcome(@Param("provider") String provider,
+                      @Param("callbackKey") String callbackKey,
+                      @Param("outcome") CallbackOutcome outcome);
+}
@@ -4,18 +4,25 @@ import com.auction.model.User;
 import com.auction.payment.model.PaymentOrder;
 import com.auction.enums.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long> {
     Optional<PaymentOrder> findByOrderCode(String orderCode);
+
+    @Query("SELECT p.paymentUrl FROM PaymentOrder p WHERE p.orderCode = :orderCode")
+    Optional<String> findPaymentUrlByOrderCode(@Param("orderCode") String orderCode);
+
+    boolean existsByOrderCodeAndUser_Id(String orderCode, Long userId);
     List<PaymentOrder> findByUser(User user);
     List<PaymentOrder> findByStatus(PaymentStatus status);
     List<PaymentOrder> findByUserOrderByCreatedAtDesc(User user);
@@ -23,6 +30,52 @@ public interface PaymentOrderRepository extends JpaRepository<PaymentOrder, Long
     @Query("SELECT p FROM PaymentOrder p WHERE p.status = 'PENDING' AND p.expiresAt < :now")
     List<PaymentOrder> findExpiredPayments(@Param("now") LocalDateTime now);
 
+    // MySQL không có UPDATE ... RETURNING: khóa một chunk id đã quá hạn (bỏ qua dòng đang bị node khác khóa),
+    // sau đó cập nhật đúng các id này trong cùng transaction
+    // Trả về [id, order_code, user_id, amount] để engine publish sự kiện chuyển trạng thái mà không cần query lại
+    @Query(value = "SELECT id, order_code, user_id, amount FROM payment_orders WHERE status = 'PENDING' AND expires_at <= :now " +
+                   "ORDER BY expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Object[]> lockExpiredPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // H2 không hỗ trợ SKIP LOCKED; dùng trên profile local/loadtest (một node nên không có dòng bị node khác khóa)
+    @Query(value = "SELECT id, order_code, user_id, amount FROM payment_orders WHERE status = 'PENDING' AND expires_at <= :now " +
+                   "ORDER BY expires_at LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockExpiredPendingWaiting(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE PaymentOrder p SET p.status = :toStatus, p.updatedAt = :now WHERE p.id IN :ids AND p.status = :fromStatus")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("fromStatus") PaymentStatus fromStatus,
+                         @Param("toStatus") PaymentStatus toStatus,
+                         @Param("now") LocalDateTime now);
+
+    // Chuyển trạng thái có điều kiện: chỉ thành công nếu trạng thái hiện tại đúng là trạng thái mà caller đã đọc
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PaymentOrder p SET p.status = :toStatus, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status = :fromStatus")
+    int transitionIfStatus(@Param("id") Long id,
+                           @Param("fromStatus") PaymentStatus fromStatus,
+                           @Param("toStatus") PaymentStatus toStatus,
+                           @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE PaymentOrder p SET p.status = com.auction.enums.PaymentStatus.COMPLETED, p.paidAt = :now, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status = :fromStatus")
+    int completeIfStatus(@Param("id") Long id,
+                         @Param("fromStatus") PaymentStatus fromStatus,
+                         @Param("now") LocalDateTime now);
+
+    @Query("SELECT MIN(p.expiresAt) FROM PaymentOrder p WHERE p.status = 'PENDING'")
+    LocalDateTime findNextPendingDeadline();
+
+    @Query("SELECT p FROM PaymentOrder p LEFT JOIN FETCH p.auction a LEFT JOIN FETCH a.seller WHERE p.id IN :ids")
+    List<PaymentOrder> findWithAuctionByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Trang keyset theo order_code cho job đối soát: [order_code, amount, status]
+    @Query(value = "SELECT order_code, amount, status FROM payment_orders WHERE order_code > :after " +
+                   "ORDER BY order_code LIMIT :limit", nativeQuery = true)
+    List<Object[]> findReconciliationPage(@Param("after") String after, @Param("limit") int limit);
+
     @Query("SELECT COALESCE(SUM(p.amount), 0) FROM PaymentOrder p WHERE p.status = :status")
     BigDecimal sumAmountByStatus(@Param("status") PaymentStatus status);
 
@@ -0,0 +1,12 @@
+package com.auction.payment.repository;
+
+import com.auction.payment.model.ReconciliationMismatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+    Page<ReconciliationMismatch> findByRunIdOrderByIdAsc(Long runId, Pageable pageable);
+}
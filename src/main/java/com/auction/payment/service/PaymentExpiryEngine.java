@@ -0,0 +1,256 @@
+package com.auction.payment.service;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.repository.PaymentOrderRepository;
+import com.auction.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Một engine duy nhất xử lý hết hạn cho payment_orders và transactions.
+ * Thay vì poll mỗi 5 phút, engine tự hẹn giờ chạy đúng vào deadline gần nhất
+ * (có thêm một lần quét an toàn sau tối đa {@code max-idle-seconds}).
+ */
+@Slf4j
+@Service
+public class PaymentExpiryEngine {
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TransactionRepository transactionRepository;
+    private final PaymentNotificationService paymentNotificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskScheduler scheduler;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.payment.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.payment.expiry.max-idle-seconds:60}")
+    private long maxIdleSeconds;
+
+    @Value("${app.payment.expiry.transaction-ttl-hours:24}")
+    private long transactionTtlHours;
+
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    // SKIP LOCKED chỉ có trên MySQL; DB khác (H2 khi chạy local) khóa chờ như FOR UPDATE thường
+    private volatile boolean skipLocked = true;
+    private ScheduledFuture<?> nextRun;
+    private Instant nextRunAt;
+
+    public PaymentExpiryEngine(PaymentOrderRepository paymentOrderRepository,
+                               TransactionRepository transactionRepository,
+                               PaymentNotificationService paymentNotificationService,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               JdbcTemplate jdbcTemplate) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.transactionRepository = transactionRepository;
+        this.paymentNotificationService = paymentNotificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.scheduler = new ThreadPoolTaskScheduler();
+        this.scheduler.setPoolSize(1);
+        this.scheduler.setThreadNamePrefix("payment-expiry-");
+        this.scheduler.initialize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        skipLocked = "MySQL".equalsIgnoreCase(product);
+        scheduleAt(Instant.now());
+    }
+
+    /**
+     * Gọi khi có payment/transaction mới để engine chạy sớm hơn nếu deadline này gần hơn lịch hiện tại.
+     */
+    public void onDeadlineRegistered(LocalDateTime deadline) {
+        if (deadline != null) {
+            scheduleAt(toInstant(deadline));
+        }
+    }
+
+    public void onTransactionCreated(LocalDateTime createdAt) {
+        if (createdAt != null) {
+            scheduleAt(toInstant(createdAt.plusHours(transactionTtlHours)));
+        }
+    }
+
+    public int sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            return expirePaymentOrders() + expireTransactions();
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private int expirePaymentOrders() {
+        int total = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> expiredIds = transactionTemplate.execute(status -> {
+                List<Object[]> rows = skipLocked
+                    ? paymentOrderRepository.lockExpiredPending(now, chunkSize)
+                    : paymentOrderRepository.lockExpiredPendingWaiting(now, chunkSize);
+                List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+                if (!ids.isEmpty()) {
+                    // Các dòng đã bị khóa ở trạng thái PENDING nên mỗi id ở đây là một lần chuyển trạng thái thật
+                    paymentOrderRepository.transitionStatus(ids, PaymentStatus.PENDING, PaymentStatus.EXPIRED, now);
+                    for (Object[] row : rows) {
+                        eventPublisher.publishEvent(new PaymentStatusChangedEvent(
+                            ((Number) row[0]).longValue(),
+                            (String) row[1],
+                            row[2] != null ? ((Number) row[2]).longValue() : null,
+                            (BigDecimal) row[3],
+                            PaymentStatus.PENDING,
+                            PaymentStatus.EXPIRED,
+                            now));
+                    }
+                }
+                return ids;
+            });
+            if (expiredIds == null || expiredIds.isEmpty()) {
+                break;
+            }
+            total += expiredIds.size();
+            notifyExpired(expiredIds);
+            if (expiredIds.size() < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} payment orders", total);
+        }
+        return total;
+    }
+
+    private int expireTransactions() {
+        int total = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime createdBefore = now.minusHours(transactionTtlHours);
+            Integer updated = transactionTemplate.execute(status -> {
+                List<Long> ids = toLongs(skipLocked
+                    ? transactionRepository.lockExpiredPendingIds(createdBefore, chunkSize)
+                    : transactionRepository.lockExpiredPendingIdsWaiting(createdBefore, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                transactionRepository.transitionStatus(ids, PaymentStatus.PENDING, PaymentStatus.EXPIRED, now);
+                return ids.size();
+            });
+            if (updated == null || updated == 0) {
+                break;
+            }
+            total += updated;
+            if (updated < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} transactions", total);
+        }
+        return total;
+    }
+
+    private void notifyExpired(List<Long> ids) {
+        // Một query cho cả chunk, sau khi transaction cập nhật trạng thái đã commit
+        List<PaymentOrder> orders = transactionTemplate.execute(status -> paymentOrderRepository.findWithAuctionByIdIn(ids));
+        if (orders == null) {
+            return;
+        }
+        for (PaymentOrder order : orders) {
+            if (order.getAuction() == null) {
+                continue;
+            }
+            try {
+                paymentNotificationService.sendPaymentExpiredNotification(order.getAuction(), order);
+            } catch (Exception e) {
+                log.error("Failed to send expiry notification for order {}", order.getOrderCode(), e);
+            }
+        }
+    }
+
+    private void runScheduled() {
+        try {
+            sweep();
+        } catch (Exception e) {
+            log.error("Payment expiry sweep failed", e);
+        } finally {
+            synchronized (this) {
+                nextRun = null;
+                nextRunAt = null;
+            }
+            scheduleNext();
+        }
+    }
+
+    private void scheduleNext() {
+        Instant next = Instant.now().plusSeconds(maxIdleSeconds);
+        try {
+            LocalDateTime paymentDeadline = paymentOrderRepository.findNextPendingDeadline();
+            if (paymentDeadline != null && toInstant(paymentDeadline).isBefore(next)) {
+                next = toInstant(paymentDeadline);
+            }
+            LocalDateTime oldestTransaction = transactionRepository.findOldestPendingCreatedAt();
+            if (oldestTransaction != null) {
+                Instant transactionDeadline = toInstant(oldestTransaction.plusHours(transactionTtlHours));
+                if (transactionDeadline.isBefore(next)) {
+                    next = transactionDeadline;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read next payment deadline, falling back to idle interval", e);
+        }
+        scheduleAt(next);
+    }
+
+    private synchronized void scheduleAt(Instant when) {
+        if (nextRun != null && !nextRun.isDone() && nextRunAt != null && !nextRunAt.isAfter(when)) {
+            return;
+        }
+        if (nextRun != null) {
+            nextRun.cancel(false);
+        }
+        Instant runAt = when.isBefore(Instant.now()) ? Instant.now() : when;
+        nextRunAt = runAt;
+        nextRun = scheduler.schedule(this::runScheduled, runAt);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static List<Long> toLongs(List<Number> ids) {
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -22,6 +23,7 @@ import java.time.format.DateTimeFormatter;
 public class PaymentNotificationService {
     private final JavaMailSender emailSender;
     private final SpringTemplateEngine templateEngine;
+    private final QrCodeService qrCodeService;
 
     @Value("${app.base-url}")
     private String baseUrl;
@@ -70,7 +72,10 @@ public class PaymentNotificationService {
         context.setVariable("user", user);
         context.setVariable("orderCode", paymentOrder.getOrderCode());
         context.setVariable("amount", paymentOrder.getAmount());
-        context.setVariable("qrCode", paymentOrder.getQrCodeUrl());
+        // Endpoint QR yêu cầu đăng nhập nên email nhúng ảnh PNG thay vì trỏ tới URL
+        String paymentUrl = paymentOrder.getPaymentUrl();
+        context.setVariable("qrCode", paymentUrl != null ? "cid:qrCode" : null);
+        context.setVariable("paymentUrl", paymentUrl);
         
         String emailContent = templateEngine.process("email/payment-notification", context);
         
@@ -80,6 +85,9 @@ public class PaymentNotificationService {
             helper.setTo(user.getEmail());
             helper.setSubject("Payment Notification");
             helper.setText(emailContent, true);
+            if (paymentUrl != null) {
+                helper.addInline("qrCode", new ByteArrayResource(qrCodeService.getPng(paymentUrl)), "image/png");
+            }
             emailSender.send(message);
         } catch (MessagingException e) {
             log.error("Error sending payment notification email", e);
@@ -22,5 +22,7 @@ public interface PaymentService {
     void processPaymentCallback(String orderCode, String transactionId, String status);
     void checkAndUpdateExpiredPayments();
     String generateQrCode(PaymentOrder paymentOrder);
+    String getPaymentUrl(String orderCode);
+    boolean isOwner(String orderCode, Long userId);
     void sendPaymentEmail(PaymentOrder paymentOrder);
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package com.auction.payment.service;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.enums.CallbackOutcome;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.repository.PaymentCallbackRepository;
+import com.auction.payment.repository.PaymentOrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Máy trạng thái của payment order. Mọi chuyển trạng thái đi qua một câu UPDATE có điều kiện
+ * ({@code WHERE status = <trạng thái đã đọc>}) nên callback trùng, callback đồng thời và engine hết hạn
+ * không thể ghi đè lẫn nhau; mỗi lần chuyển trạng thái thật publish đúng một {@link PaymentStatusChangedEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentStateMachine {
+    private static final Map<PaymentStatus, Set<PaymentStatus>> TRANSITIONS = new EnumMap<>(PaymentStatus.class);
+
+    static {
+        TRANSITIONS.put(PaymentStatus.PENDING, EnumSet.of(PaymentStatus.PROCESSING, PaymentStatus.COMPLETED,
+            PaymentStatus.FAILED, PaymentStatus.EXPIRED, PaymentStatus.CANCELLED));
+        TRANSITIONS.put(PaymentStatus.PROCESSING, EnumSet.of(PaymentStatus.COMPLETED, PaymentStatus.FAILED,
+            PaymentStatus.EXPIRED, PaymentStatus.CANCELLED));
+        TRANSITIONS.put(PaymentStatus.COMPLETED, EnumSet.of(PaymentStatus.REFUNDED));
+    }
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final PaymentCallbackRepository paymentCallbackRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public static boolean canTransition(PaymentStatus from, PaymentStatus to) {
+        return TRANSITIONS.getOrDefault(from, Set.of()).contains(to);
+    }
+
+    /**
+     * Chuyển order sang {@code target}. Trả về false nếu order đã ở trạng thái đó (gọi lại là vô hại).
+     */
+    @Transactional
+    public boolean transition(String orderCode, PaymentStatus target) {
+        PaymentOrder order = paymentOrderRepository.findByOrderCode(orderCode)
+                .orElseThrow(() -> new RuntimeException("Payment not found with order code: " + orderCode));
+        PaymentStatus current = order.getStatus();
+        if (current == target) {
+            return false;
+        }
+        if (!canTransition(current, target)) {
+            throw new PaymentTransitionException(
+                "Invalid payment status transition " + current + " -> " + target + " for order " + orderCode, false);
+        }
+        apply(order, current, target);
+        return true;
+    }
+
+    /**
+     * Xử lý callback của provider đúng một lần cho mỗi {@link #callbackKey khóa callback}.
+     * Nếu order bị đổi trạng thái đồng thời, ném {@link PaymentTransitionException} có thể retry;
+     * transaction rollback cả bản ghi idempotency nên provider gửi lại sẽ được xử lý lại từ đầu.
+     */
+    @Transactional
+    public CallbackOutcome applyCallback(String provider, String providerTransactionId,
+                                         String orderCode, String reportedStatus) {
+        String callbackKey = callbackKey(orderCode, providerTransactionId, reportedStatus);
+        int inserted = paymentCallbackRepository.insertIfAbsent(
+            provider, callbackKey, providerTransactionId, orderCode, reportedStatus, LocalDateTime.now());
+        if (inserted == 0) {
+            log.info("Ignoring duplicate {} callback {} for order {}", provider, callbackKey, orderCode);
+            return CallbackOutcome.DUPLICATE;
+        }
+
+        PaymentOrder order = paymentOrderRepository.findByOrderCode(orderCode)
+                .orElseThrow(() -> new RuntimeException("Payment not found with order code: " + orderCode));
+        PaymentStatus current = order.getStatus();
+        PaymentStatus target = resolveCallbackStatus(reportedStatus);
+
+        CallbackOutcome outcome;
+        if (current == target) {
+            outcome = CallbackOutcome.ALREADY_APPLIED;
+        } else if (!canTransition(current, target)) {
+            log.warn("Rejected {} callback {} for order {}: {} -> {} is not allowed",
+                provider, providerTransactionId, orderCode, current, target);
+            outcome = CallbackOutcome.REJECTED;
+        } else {
+            apply(order, current, target);
+            outcome = CallbackOutcome.APPLIED;
+        }
+        paymentCallbackRepository.updateOutcome(provider, callbackKey, outcome);
+        return outcome;
+    }
+
+    /**
+     * Khóa idempotency của callback trong phạm vi order. VNPay gửi {@code vnp_TransactionNo=0} cho mọi giao dịch
+     * lỗi hoặc bị huỷ, nên khi không có số giao dịch thật thì khóa theo trạng thái được báo.
+     */
+    public static String callbackKey(String orderCode, String providerTransactionId, String reportedStatus) {
+        if (providerTransactionId == null || providerTransactionId.isBlank()
+                || providerTransactionId.chars().allMatch(c -> c == '0')) {
+            return orderCode + ":status:" + reportedStatus;
+        }
+        return orderCode + ":" + providerTransactionId;
+    }
+
+    /**
+     * "00" là mã thành công của VNPay, "24" là khách hàng huỷ giao dịch; ngoài ra chấp nhận tên trạng thái.
+     */
+    public static PaymentStatus resolveCallbackStatus(String reportedStatus) {
+        if (reportedStatus == null) {
+            return PaymentStatus.FAILED;
+        }
+        switch (reportedStatus.trim().toUpperCase()) {
+            case "00":
+            case "SUCCESS":
+                return PaymentStatus.COMPLETED;
+            case "24":
+                return PaymentStatus.CANCELLED;
+            default:
+                try {
+                    return PaymentStatus.valueOf(reportedStatus.trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    return PaymentStatus.FAILED;
+                }
+        }
+    }
+
+    private void apply(PaymentOrder order, PaymentStatus current, PaymentStatus target) {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = target == PaymentStatus.COMPLETED
+            ? paymentOrderRepository.completeIfStatus(order.getId(), current, now)
+            : paymentOrderRepository.transitionIfStatus(order.getId(), current, target, now);
+        if (updated == 0) {
+            throw new PaymentTransitionException(
+                "Payment " + order.getOrderCode() + " changed concurrently, expected " + current, true);
+        }
+        eventPublisher.publishEvent(new PaymentStatusChangedEvent(
+            order.getId(), order.getOrderCode(), order.getBuyerId(), order.getAmount(), current, target, now));
+        log.info("Payment {} transitioned {} -> {}", order.getOrderCode(), current, target);
+    }
+}
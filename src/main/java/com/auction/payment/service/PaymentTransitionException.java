@@ -0,0 +1,14 @@
+package com.auction.payment.service;
+
+public class PaymentTransitionException extends RuntimeException {
+    private final boolean retryable;
+
+    public PaymentTransitionException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
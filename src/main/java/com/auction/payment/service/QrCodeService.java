@@ -0,0 +1,114 @@
+package com.auction.payment.service;
+
+import com.auction.payment.util.QrCodeGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Render QR lazily, cache theo hash nội dung: LRU trong bộ nhớ và (tuỳ chọn) thư mục trên đĩa.
+ */
+@Slf4j
+@Service
+public class QrCodeService {
+    private final QrCodeGenerator qrCodeGenerator;
+    private final int width;
+    private final int height;
+    private final Path diskCacheDir;
+    private final Map<String, byte[]> memoryCache;
+
+    public QrCodeService(QrCodeGenerator qrCodeGenerator,
+                         @Value("${app.qrcode.width:300}") int width,
+                         @Value("${app.qrcode.height:300}") int height,
+                         @Value("${app.qrcode.cache.max-entries:1000}") int maxEntries,
+                         @Value("${app.qrcode.cache.disk-dir:}") String diskDir) {
+        this.qrCodeGenerator = qrCodeGenerator;
+        this.width = width;
+        this.height = height;
+        this.diskCacheDir = diskDir == null || diskDir.isBlank() ? null : Paths.get(diskDir);
+        this.memoryCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * ETag chỉ phụ thuộc nội dung và kích thước, nên có thể trả 304 mà không cần render.
+     */
+    public String etagFor(String content) {
+        return "\"" + cacheKey(content) + "\"";
+    }
+
+    public byte[] getPng(String content) {
+        String key = cacheKey(content);
+        synchronized (memoryCache) {
+            byte[] cached = memoryCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] png = readFromDisk(key);
+        if (png == null) {
+            png = qrCodeGenerator.generateQrCodePng(content, width, height);
+            writeToDisk(key, png);
+        }
+        synchronized (memoryCache) {
+            memoryCache.put(key, png);
+        }
+        return png;
+    }
+
+    private String cacheKey(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((width + "x" + height).getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private byte[] readFromDisk(String key) {
+        if (diskCacheDir == null) {
+            return null;
+        }
+        Path file = diskCacheDir.resolve(key.substring(0, 2)).resolve(key + ".png");
+        try {
+            return Files.exists(file) ? Files.readAllBytes(file) : null;
+        } catch (IOException e) {
+            log.warn("Failed to read cached QR code {}", file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, byte[] png) {
+        if (diskCacheDir == null) {
+            return;
+        }
+        Path dir = diskCacheDir.resolve(key.substring(0, 2));
+        try {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, key, ".tmp");
+            Files.write(tmp, png);
+            Files.move(tmp, dir.resolve(key + ".png"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write QR code to disk cache", e);
+        }
+    }
+}
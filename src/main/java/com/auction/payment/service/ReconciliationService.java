@@ -0,0 +1,17 @@
+package com.auction.payment.service;
+
+import com.auction.payment.model.ReconciliationMismatch;
+import com.auction.payment.model.ReconciliationRun;
+import org.springframework.data.domain.Page;
+
+import java.nio.file.Path;
+
+public interface ReconciliationService {
+    /**
+     * Bắt đầu đối soát bất đồng bộ với file quyết toán đã lưu tạm; file bị xoá khi job kết thúc.
+     */
+    ReconciliationRun startRun(Path settlementFile, String originalName);
+    ReconciliationRun getRun(Long runId);
+    Page<ReconciliationMismatch> getMismatches(Long runId, int page, int size);
+    Path getWorkDir();
+}
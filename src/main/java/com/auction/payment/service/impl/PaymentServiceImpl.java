@@ -7,16 +7,18 @@ import com.auction.payment.dto.PaymentResponse;
 import com.auction.enums.PaymentStatus;
 import com.auction.payment.model.PaymentOrder;
 import com.auction.payment.repository.PaymentOrderRepository;
+import com.auction.payment.service.PaymentExpiryEngine;
 import com.auction.payment.service.PaymentService;
+import com.auction.payment.service.PaymentStateMachine;
 import com.auction.payment.service.VNPayService;
 import com.auction.repository.AuctionRepository;
+import com.auction.payment.enums.CallbackOutcome;
 import com.auction.payment.enums.PaymentMethod;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.spring6.SpringTemplateEngine;
@@ -33,6 +35,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentOrderRepository paymentOrderRepository;
     private final AuctionRepository auctionRepository;
     private final VNPayService vnPayService;
+    private final PaymentExpiryEngine paymentExpiryEngine;
+    private final PaymentStateMachine paymentStateMachine;
     private final JavaMailSender emailSender;
     private final SpringTemplateEngine templateEngine;
 
@@ -45,6 +49,8 @@ public class PaymentServiceImpl implements PaymentService {
         PaymentOrder paymentOrder = new PaymentOrder();
         paymentOrder.setOrderCode(generateOrderCode());
         paymentOrder.setUser(user);
+        paymentOrder.setAuction(auctionRepository.findById(request.getAuctionId())
+                .orElseThrow(() -> new RuntimeException("Auction not found: " + request.getAuctionId())));
         paymentOrder.setAmount(request.getAmount());
         paymentOrder.setPaymentMethod(PaymentMethod.VNPAY);
         paymentOrder.setStatus(PaymentStatus.PENDING);
@@ -52,6 +58,7 @@ public class PaymentServiceImpl implements PaymentService {
         paymentOrder.setExpiresAt(LocalDateTime.now().plusHours(24));
 
         paymentOrder = paymentOrderRepository.save(paymentOrder);
+        paymentExpiryEngine.onDeadlineRegistered(paymentOrder.getExpiresAt());
 
         // Generate VNPay payment URL
         String paymentUrl = vnPayService.createPaymentUrl(paymentOrder);
@@ -106,48 +113,39 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @Transactional
     public PaymentOrder updatePaymentStatus(String orderCode, PaymentStatus status) {
-        PaymentOrder payment = getPaymentByOrderCode(orderCode);
-        payment.setStatus(status);
-        if (status == PaymentStatus.COMPLETED) {
-            payment.setPaidAt(LocalDateTime.now());
-        }
-        return paymentOrderRepository.save(payment);
+        paymentStateMachine.transition(orderCode, status);
+        return getPaymentByOrderCode(orderCode);
     }
 
     @Override
-    @Transactional
     public void processPaymentCallback(String orderCode, String transactionId, String status) {
-        PaymentOrder payment = getPaymentByOrderCode(orderCode);
-        
-        // For development environment, always update to COMPLETED
-        payment.setStatus(PaymentStatus.COMPLETED);
-        payment.setPaidAt(LocalDateTime.now());
-        paymentOrderRepository.save(payment);
-        
-        log.info("Processed payment callback for order: {}, status: {}", orderCode, status);
+        CallbackOutcome outcome = paymentStateMachine.applyCallback(
+            PaymentMethod.VNPAY.name(), transactionId, orderCode, status);
+        log.info("Processed payment callback for order: {}, transaction: {}, status: {}, outcome: {}",
+            orderCode, transactionId, status, outcome);
     }
 
     @Override
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
     public void checkAndUpdateExpiredPayments() {
-        List<PaymentOrder> pendingPayments = paymentOrderRepository.findByStatus(PaymentStatus.PENDING);
-        LocalDateTime now = LocalDateTime.now();
-        
-        for (PaymentOrder payment : pendingPayments) {
-            if (payment.getExpiresAt().isBefore(now)) {
-                payment.setStatus(PaymentStatus.EXPIRED);
-                paymentOrderRepository.save(payment);
-                log.info("Payment expired: {}", payment.getOrderCode());
-            }
-        }
+        // Việc hết hạn được PaymentExpiryEngine hẹn giờ theo deadline; gọi tay sẽ quét ngay
+        paymentExpiryEngine.sweep();
     }
 
     @Override
     public String generateQrCode(PaymentOrder paymentOrder) {
-        // For development environment, we don't generate QR codes
-        // since we're using VNPay's payment gateway
-        throw new UnsupportedOperationException("QR code generation is not supported in development environment. Please use VNPay payment URL.");
+        // QR không còn được render sẵn; trả về URL ảnh, render lần đầu khi được request
+        return baseUrl + "/api/payment/" + paymentOrder.getOrderCode() + "/qr";
+    }
+
+    @Override
+    public String getPaymentUrl(String orderCode) {
+        return paymentOrderRepository.findPaymentUrlByOrderCode(orderCode)
+                .orElseThrow(() -> new RuntimeException("Payment not found with order code: " + orderCode));
+    }
+
+    @Override
+    public boolean isOwner(String orderCode, Long userId) {
+        return userId != null && paymentOrderRepository.existsByOrderCodeAndUser_Id(orderCode, userId);
     }
 
     @Override
@@ -0,0 +1,216 @@
+package com.auction.payment.service.impl;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.enums.ReconciliationStatus;
+import com.auction.payment.model.ReconciliationMismatch;
+import com.auction.payment.model.ReconciliationRun;
+import com.auction.payment.repository.PaymentOrderRepository;
+import com.auction.payment.repository.ReconciliationMismatchRepository;
+import com.auction.payment.repository.ReconciliationRunRepository;
+import com.auction.payment.service.ReconciliationService;
+import com.auction.payment.util.KeysetCursor;
+import com.auction.payment.util.ReconciliationMerger;
+import com.auction.payment.util.SettlementCsv;
+import com.auction.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class ReconciliationServiceImpl implements ReconciliationService {
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TransactionRepository transactionRepository;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final TransactionTemplate writeTemplate;
+    private final TransactionTemplate readTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "payment-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.reconciliation.page-size:2000}")
+    private int pageSize;
+
+    @Value("${app.reconciliation.write-batch-size:500}")
+    private int writeBatchSize;
+
+    @Value("${app.reconciliation.sort-chunk-lines:200000}")
+    private int sortChunkLines;
+
+    @Value("${app.reconciliation.work-dir:${java.io.tmpdir}/auction-reconciliation}")
+    private String workDir;
+
+    public ReconciliationServiceImpl(PaymentOrderRepository paymentOrderRepository,
+                                     TransactionRepository transactionRepository,
+                                     ReconciliationRunRepository runRepository,
+                                     ReconciliationMismatchRepository mismatchRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.transactionRepository = transactionRepository;
+        this.runRepository = runRepository;
+        this.mismatchRepository = mismatchRepository;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public ReconciliationRun startRun(Path settlementFile, String originalName) {
+        ReconciliationRun run = runRepository.save(ReconciliationRun.builder()
+            .status(ReconciliationStatus.RUNNING)
+            .settlementFile(originalName)
+            .startedAt(LocalDateTime.now())
+            .build());
+        Long runId = run.getId();
+        executor.submit(() -> execute(runId, settlementFile));
+        return run;
+    }
+
+    @Override
+    public ReconciliationRun getRun(Long runId) {
+        return runRepository.findById(runId)
+            .orElseThrow(() -> new RuntimeException("Reconciliation run not found: " + runId));
+    }
+
+    @Override
+    public Page<ReconciliationMismatch> getMismatches(Long runId, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        return mismatchRepository.findByRunIdOrderByIdAsc(runId, PageRequest.of(Math.max(page, 0), pageSize));
+    }
+
+    @Override
+    public Path getWorkDir() {
+        Path dir = Paths.get(workDir);
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return dir;
+    }
+
+    private void execute(Long runId, Path settlementFile) {
+        MismatchWriter writer = new MismatchWriter(runId);
+        ReconciliationMerger merger = new ReconciliationMerger(writer);
+        String error = null;
+        Path sorted = null;
+        try {
+            sorted = SettlementCsv.sortByReference(settlementFile, getWorkDir(), sortChunkLines);
+            try (SettlementCsv.Reader settlement = SettlementCsv.open(sorted)) {
+                merger.merge(orderStream(), transactionStream(), settlement);
+            }
+            writer.flush();
+        } catch (Exception e) {
+            log.error("Reconciliation run {} failed", runId, e);
+            error = e.getMessage();
+        } finally {
+            deleteQuietly(settlementFile);
+            if (sorted != null && !sorted.equals(settlementFile)) {
+                deleteQuietly(sorted);
+            }
+        }
+
+        String failure = error;
+        writeTemplate.executeWithoutResult(status -> {
+            ReconciliationRun run = getRun(runId);
+            run.setStatus(failure == null ? ReconciliationStatus.COMPLETED : ReconciliationStatus.FAILED);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setOrdersScanned(merger.getOrders());
+            run.setTransactionsScanned(merger.getTransactions());
+            run.setSettlementRowsScanned(merger.getSettlementRows());
+            run.setMismatchCount(merger.getMismatches());
+            run.setError(failure != null && failure.length() > 1000 ? failure.substring(0, 1000) : failure);
+            runRepository.save(run);
+        });
+        log.info("Reconciliation run {} finished: {} orders, {} transactions, {} settlement rows, {} mismatches",
+            runId, merger.getOrders(), merger.getTransactions(), merger.getSettlementRows(), merger.getMismatches());
+    }
+
+    private Iterator<ReconciliationEntry> orderStream() {
+        return new KeysetCursor<>("", pageSize,
+            (after, limit) -> toEntries(readTemplate.execute(status -> paymentOrderRepository.findReconciliationPage(after, limit))),
+            ReconciliationEntry::getReference);
+    }
+
+    private Iterator<ReconciliationEntry> transactionStream() {
+        return new KeysetCursor<>("", pageSize,
+            (after, limit) -> toEntries(readTemplate.execute(status -> transactionRepository.findReconciliationPage(after, limit))),
+            ReconciliationEntry::getReference);
+    }
+
+    private static List<ReconciliationEntry> toEntries(List<Object[]> rows) {
+        List<ReconciliationEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            BigDecimal amount = row[1] instanceof BigDecimal decimal ? decimal : new BigDecimal(row[1].toString());
+            entries.add(new ReconciliationEntry((String) row[0], amount, PaymentStatus.valueOf((String) row[2])));
+        }
+        return entries;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete reconciliation file {}", file, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ghi mismatch theo lô, mỗi lô một transaction, để persistence context không lớn dần theo số dòng.
+     */
+    private class MismatchWriter implements Consumer<ReconciliationMismatch> {
+        private final Long runId;
+        private final List<ReconciliationMismatch> buffer = new ArrayList<>();
+
+        private MismatchWriter(Long runId) {
+            this.runId = runId;
+        }
+
+        @Override
+        public void accept(ReconciliationMismatch mismatch) {
+            mismatch.setRunId(runId);
+            buffer.add(mismatch);
+            if (buffer.size() >= writeBatchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            writeTemplate.executeWithoutResult(status -> mismatchRepository.saveAll(buffer));
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.auction.payment.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Iterator đọc bảng theo từng trang keyset ({@code WHERE key > :after ORDER BY key LIMIT :size}).
+ * Chỉ giữ một trang trong bộ nhớ và không giữ connection giữa các trang.
+ */
+public class KeysetCursor<T> implements Iterator<T> {
+    private final BiFunction<String, Integer, List<T>> pageLoader;
+    private final Function<T, String> keyExtractor;
+    private final int pageSize;
+    private List<T> page = Collections.emptyList();
+    private int position;
+    private String after;
+    private boolean exhausted;
+
+    public KeysetCursor(String start, int pageSize,
+                        BiFunction<String, Integer, List<T>> pageLoader,
+                        Function<T, String> keyExtractor) {
+        this.after = start;
+        this.pageSize = pageSize;
+        this.pageLoader = pageLoader;
+        this.keyExtractor = keyExtractor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < page.size()) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        page = pageLoader.apply(after, pageSize);
+        position = 0;
+        if (page == null || page.isEmpty()) {
+            page = Collections.emptyList();
+            exhausted = true;
+            return false;
+        }
+        exhausted = page.size() < pageSize;
+        after = keyExtractor.apply(page.get(page.size() - 1));
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(position++);
+    }
+}
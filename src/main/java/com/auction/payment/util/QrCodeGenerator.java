@@ -1,35 +1,84 @@
 package com.auction.payment.util;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Component
 public class QrCodeGenerator {
-    
-    public String generateQrCodeBase64(String content) {
+    private static final int DEFAULT_SIZE = 300;
+
+    // QRCodeWriter không giữ trạng thái nên dùng chung; hints cũng chỉ tạo một lần
+    private static final QRCodeWriter WRITER = new QRCodeWriter();
+    private static final Map<EncodeHintType, Object> HINTS;
+
+    static {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        hints.put(EncodeHintType.MARGIN, 2);
+        HINTS = Collections.unmodifiableMap(hints);
+    }
+
+    // Buffer PNG tái sử dụng theo thread, tránh cấp phát lại mỗi lần render
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER =
+        ThreadLocal.withInitial(() -> new ByteArrayOutputStream(4096));
+
+    public byte[] generateQrCodePng(String content, int width, int height) {
         try {
-            QRCodeWriter qrCodeWriter = new QRCodeWriter();
-            BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, 300, 300);
-            
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
-            
-            return "data:image/png;base64," + Base64.getEncoder().encodeToString(outputStream.toByteArray());
+            BitMatrix bitMatrix = WRITER.encode(content, BarcodeFormat.QR_CODE, width, height, HINTS);
+            BufferedImage image = toBinaryImage(bitMatrix);
+
+            ByteArrayOutputStream outputStream = BUFFER.get();
+            outputStream.reset();
+            if (!ImageIO.write(image, "PNG", outputStream)) {
+                throw new IOException("No PNG writer available");
+            }
+            return outputStream.toByteArray();
         } catch (WriterException | IOException e) {
             throw new RuntimeException("Failed to generate QR code", e);
         }
     }
-    
+
+    public String generateQrCodeBase64(String content) {
+        byte[] png = generateQrCodePng(content, DEFAULT_SIZE, DEFAULT_SIZE);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(png);
+    }
+
     public String generateVietQRContent(String bankId, String accountNo, String amount, String description) {
         // Format according to VietQR standard
         return String.format("https://api.vietqr.io/%s/%s/%s/%s", 
             bankId, accountNo, amount, description);
     }
-} 
\ No newline at end of file
+
+    // Ảnh 1-bit thay cho ARGB của MatrixToImageWriter: PNG nhỏ hơn và encode nhanh hơn
+    private static BufferedImage toBinaryImage(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        WritableRaster raster = image.getRaster();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = matrix.get(x, y) ? 0 : 1;
+            }
+            raster.setPixels(0, y, width, 1, row);
+        }
+        return image;
+    }
+}
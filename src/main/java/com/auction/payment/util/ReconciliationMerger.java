@@ -0,0 +1,173 @@
+package com.auction.payment.util;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.enums.MismatchType;
+import com.auction.payment.model.ReconciliationMismatch;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Merge-join ba luồng đã sắp theo mã tham chiếu: payment order, transaction và file quyết toán của provider.
+ * Chỉ giữ phần tử đầu của mỗi luồng nên bộ nhớ không phụ thuộc số dòng.
+ * Mỗi instance dùng cho một lần đối soát.
+ */
+public final class ReconciliationMerger {
+    /**
+     * Thứ tự khóa dùng chung cho cả ba luồng. Không phân biệt hoa thường để khớp với collation *_ci của MySQL
+     * trên bảng chữ cái của mã đơn hàng ([A-Z0-9-]); luồng nào trả khóa sai thứ tự sẽ làm job dừng thay vì báo sai.
+     */
+    public static final Comparator<String> KEY_ORDER = String.CASE_INSENSITIVE_ORDER;
+
+    private final Consumer<ReconciliationMismatch> sink;
+    private long orders;
+    private long transactions;
+    private long settlementRows;
+    private long mismatches;
+
+    public ReconciliationMerger(Consumer<ReconciliationMismatch> sink) {
+        this.sink = sink;
+    }
+
+    public void merge(Iterator<ReconciliationEntry> orderStream,
+                      Iterator<ReconciliationEntry> transactionStream,
+                      Iterator<ReconciliationEntry> settlementStream) {
+        Cursor orderCursor = new Cursor("payment_orders", orderStream);
+        Cursor transactionCursor = new Cursor("transactions", transactionStream);
+        Cursor settlementCursor = new Cursor("settlement", settlementStream);
+
+        while (orderCursor.head != null || transactionCursor.head != null || settlementCursor.head != null) {
+            String key = min(min(orderCursor.key(), transactionCursor.key()), settlementCursor.key());
+            ReconciliationEntry order = orderCursor.takeIfKey(key);
+            ReconciliationEntry transaction = transactionCursor.takeIfKey(key);
+            ReconciliationEntry settlement = settlementCursor.takeIfKey(key);
+            if (order != null) orders++;
+            if (transaction != null) transactions++;
+            if (settlement != null) settlementRows++;
+
+            // File quyết toán có thể lặp một giao dịch; các dòng lặp được báo và bỏ qua
+            while (settlementCursor.head != null && KEY_ORDER.compare(settlementCursor.key(), key) == 0) {
+                ReconciliationEntry duplicate = settlementCursor.take();
+                settlementRows++;
+                emit(MismatchType.DUPLICATE_SETTLEMENT, key, order, transaction, duplicate);
+            }
+            compare(key, order, transaction, settlement);
+        }
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public long getSettlementRows() {
+        return settlementRows;
+    }
+
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    private void compare(String key, ReconciliationEntry order, ReconciliationEntry transaction,
+                         ReconciliationEntry settlement) {
+        if (order == null) {
+            emit(MismatchType.ORDER_MISSING, key, null, transaction, settlement);
+            return;
+        }
+
+        boolean orderPaid = isPaid(order.getStatus());
+        if (settlement == null) {
+            if (orderPaid) {
+                emit(MismatchType.SETTLEMENT_MISSING, key, order, transaction, null);
+            }
+        } else if (isPaid(settlement.getStatus()) != orderPaid) {
+            emit(MismatchType.STATUS_MISMATCH, key, order, transaction, settlement);
+        } else if (orderPaid && !sameAmount(order.getAmount(), settlement.getAmount())) {
+            emit(MismatchType.AMOUNT_MISMATCH, key, order, transaction, settlement);
+        }
+
+        if (transaction == null) {
+            if (orderPaid) {
+                emit(MismatchType.TRANSACTION_MISSING, key, order, null, settlement);
+            }
+        } else if (transaction.getStatus() != order.getStatus()) {
+            emit(MismatchType.STATUS_MISMATCH, key, order, transaction, settlement);
+        } else if (!sameAmount(order.getAmount(), transaction.getAmount())) {
+            emit(MismatchType.AMOUNT_MISMATCH, key, order, transaction, settlement);
+        }
+    }
+
+    private void emit(MismatchType type, String key, ReconciliationEntry order, ReconciliationEntry transaction,
+                      ReconciliationEntry settlement) {
+        mismatches++;
+        sink.accept(ReconciliationMismatch.builder()
+            .reference(key)
+            .type(type)
+            .orderStatus(order != null ? String.valueOf(order.getStatus()) : null)
+            .orderAmount(order != null ? order.getAmount() : null)
+            .transactionStatus(transaction != null ? String.valueOf(transaction.getStatus()) : null)
+            .transactionAmount(transaction != null ? transaction.getAmount() : null)
+            .settlementStatus(settlement != null ? String.valueOf(settlement.getStatus()) : null)
+            .settlementAmount(settlement != null ? settlement.getAmount() : null)
+            .build());
+    }
+
+    private static boolean isPaid(PaymentStatus status) {
+        return status == PaymentStatus.COMPLETED || status == PaymentStatus.REFUNDED;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static String min(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return KEY_ORDER.compare(a, b) <= 0 ? a : b;
+    }
+
+    private static final class Cursor {
+        private final String name;
+        private final Iterator<ReconciliationEntry> source;
+        private ReconciliationEntry head;
+        private String lastKey;
+
+        private Cursor(String name, Iterator<ReconciliationEntry> source) {
+            this.name = name;
+            this.source = source;
+            advance();
+        }
+
+        private String key() {
+            return head != null ? head.getReference() : null;
+        }
+
+        private ReconciliationEntry takeIfKey(String key) {
+            return head != null && KEY_ORDER.compare(head.getReference(), key) == 0 ? take() : null;
+        }
+
+        private ReconciliationEntry take() {
+            ReconciliationEntry current = head;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            head = source.hasNext() ? source.next() : null;
+            if (head == null) {
+                return;
+            }
+            if (lastKey != null && KEY_ORDER.compare(head.getReference(), lastKey) < 0) {
+                throw new IllegalStateException("Stream " + name + " is not sorted by reference: "
+                    + head.getReference() + " after " + lastKey);
+            }
+            lastKey = head.getReference();
+        }
+    }
+}
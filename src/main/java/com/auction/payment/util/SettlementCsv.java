@@ -0,0 +1,285 @@
+package com.auction.payment.util;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.service.PaymentStateMachine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Đọc file quyết toán CSV của provider. Dòng đầu là header; các cột bắt buộc là
+ * {@code txn_ref}, {@code amount} (VND) và {@code status} (mã phản hồi VNPay hoặc tên trạng thái),
+ * các cột khác bị bỏ qua.
+ */
+public final class SettlementCsv {
+    private static final String REFERENCE_COLUMN = "txn_ref";
+    private static final String AMOUNT_COLUMN = "amount";
+    private static final String STATUS_COLUMN = "status";
+
+    private SettlementCsv() {
+    }
+
+    /**
+     * Trả về file đã sắp theo txn_ref. Nếu file đã đúng thứ tự thì trả lại chính nó; ngược lại sắp xếp ngoài
+     * (external merge sort) với tối đa {@code maxLinesInMemory} dòng trong bộ nhớ và ghi kết quả vào {@code workDir}.
+     */
+    public static Path sortByReference(Path csv, Path workDir, int maxLinesInMemory) throws IOException {
+        Header header;
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            header = Header.parse(reader.readLine());
+            String previous = null;
+            boolean sorted = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String key = header.reference(line);
+                if (previous != null && ReconciliationMerger.KEY_ORDER.compare(key, previous) < 0) {
+                    sorted = false;
+                    break;
+                }
+                previous = key;
+            }
+            if (sorted) {
+                return csv;
+            }
+        }
+
+        List<Path> runs = new ArrayList<>();
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+                reader.readLine();
+                List<KeyedLine> chunk = new ArrayList<>(maxLinesInMemory);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    chunk.add(new KeyedLine(header.reference(line), line, null));
+                    if (chunk.size() >= maxLinesInMemory) {
+                        runs.add(writeRun(chunk, workDir));
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    runs.add(writeRun(chunk, workDir));
+                }
+            }
+
+            Path sorted = Files.createTempFile(workDir, "settlement-sorted-", ".csv");
+            mergeRuns(runs, header, sorted);
+            return sorted;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    public static Reader open(Path csv) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+        try {
+            return new Reader(reader);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private static Path writeRun(List<KeyedLine> chunk, Path workDir) throws IOException {
+        chunk.sort(KeyedLine.ORDER);
+        Path run = Files.createTempFile(workDir, "settlement-run-", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (KeyedLine keyed : chunk) {
+                writer.write(keyed.line);
+                writer.newLine();
+            }
+        }
+        return run;
+    }
+
+    private static void mergeRuns(List<Path> runs, Header header, Path target) throws IOException {
+        List<BufferedReader> readers = new ArrayList<>(runs.size());
+        try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            writer.write(header.raw);
+            writer.newLine();
+            PriorityQueue<KeyedLine> heads = new PriorityQueue<>(KeyedLine.ORDER);
+            for (Path run : runs) {
+                BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                readers.add(reader);
+                String first = reader.readLine();
+                if (first != null) {
+                    heads.add(new KeyedLine(header.reference(first), first, reader));
+                }
+            }
+            while (!heads.isEmpty()) {
+                KeyedLine head = heads.poll();
+                writer.write(head.line);
+                writer.newLine();
+                String next = head.source.readLine();
+                if (next != null) {
+                    heads.add(new KeyedLine(header.reference(next), next, head.source));
+                }
+            }
+        } finally {
+            for (BufferedReader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Dòng CSV kèm khóa đã tách sẵn để không phải parse lại mỗi lần so sánh.
+     */
+    private static final class KeyedLine {
+        private static final Comparator<KeyedLine> ORDER =
+            Comparator.comparing((KeyedLine keyed) -> keyed.key, ReconciliationMerger.KEY_ORDER);
+
+        private final String key;
+        private final String line;
+        private final BufferedReader source;
+
+        private KeyedLine(String key, String line, BufferedReader source) {
+            this.key = key;
+            this.line = line;
+            this.source = source;
+        }
+    }
+
+    private static final class Header {
+        private final String raw;
+        private final int referenceIndex;
+        private final int amountIndex;
+        private final int statusIndex;
+        private final int columns;
+
+        private Header(String raw, int referenceIndex, int amountIndex, int statusIndex, int columns) {
+            this.raw = raw;
+            this.referenceIndex = referenceIndex;
+            this.amountIndex = amountIndex;
+            this.statusIndex = statusIndex;
+            this.columns = columns;
+        }
+
+        private static Header parse(String line) {
+            if (line == null) {
+                throw new IllegalArgumentException("Settlement file is empty");
+            }
+            String[] names = split(line, -1);
+            int reference = -1, amount = -1, status = -1;
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i].trim().toLowerCase();
+                if (name.equals(REFERENCE_COLUMN)) reference = i;
+                else if (name.equals(AMOUNT_COLUMN)) amount = i;
+                else if (name.equals(STATUS_COLUMN)) status = i;
+            }
+            if (reference < 0 || amount < 0 || status < 0) {
+                throw new IllegalArgumentException("Settlement file header must contain "
+                    + REFERENCE_COLUMN + ", " + AMOUNT_COLUMN + " and " + STATUS_COLUMN + ": " + line);
+            }
+            return new Header(line, reference, amount, status, names.length);
+        }
+
+        private String reference(String line) {
+            return split(line, columns)[referenceIndex];
+        }
+
+        private ReconciliationEntry toEntry(String line) {
+            String[] values = split(line, columns);
+            PaymentStatus status = PaymentStateMachine.resolveCallbackStatus(values[statusIndex]);
+            return new ReconciliationEntry(values[referenceIndex], new BigDecimal(values[amountIndex]), status);
+        }
+    }
+
+    /**
+     * Tách một dòng CSV đơn giản: hỗ trợ giá trị trong dấu nháy kép nhưng không hỗ trợ xuống dòng trong giá trị.
+     */
+    private static String[] split(String line, int expectedColumns) {
+        List<String> values = new ArrayList<>(Math.max(expectedColumns, 4));
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        if (expectedColumns > 0 && values.size() < expectedColumns) {
+            throw new IllegalArgumentException("Settlement line has " + values.size()
+                + " columns, expected " + expectedColumns + ": " + line);
+        }
+        return values.toArray(new String[0]);
+    }
+
+    public static final class Reader implements Iterator<ReconciliationEntry>, Closeable {
+        private final BufferedReader reader;
+        private final Header header;
+        private String nextLine;
+
+        private Reader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            this.header = Header.parse(reader.readLine());
+            this.nextLine = readNonBlank();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLine != null;
+        }
+
+        @Override
+        public ReconciliationEntry next() {
+            if (nextLine == null) {
+                throw new NoSuchElementException();
+            }
+            ReconciliationEntry entry = header.toEntry(nextLine);
+            try {
+                nextLine = readNonBlank();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return entry;
+        }
+
+        private String readNonBlank() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return line;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.auction.payment.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ký và xác thực tham số VNPay (HMAC-SHA512).
+ * Mỗi thread giữ sẵn một {@link Mac} đã init với secret nên không phải tạo lại key/Mac cho mỗi request;
+ * chuỗi hash và query string được dựng trong một lần duyệt các tham số đã sắp xếp.
+ */
+public final class VNPaySigner {
+    public static final String SECURE_HASH = "vnp_SecureHash";
+    public static final String SECURE_HASH_TYPE = "vnp_SecureHashType";
+
+    private static final String HMAC_SHA512 = "HmacSHA512";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final char[] HEX_UPPER = "0123456789ABCDEF".toCharArray();
+    private static final boolean[] UNRESERVED = new boolean[128];
+    private static final ConcurrentMap<String, VNPaySigner> SIGNERS = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_SIGNERS = 16;
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) UNRESERVED[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) UNRESERVED[c] = true;
+        for (char c = '0'; c <= '9'; c++) UNRESERVED[c] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['-'] = true;
+        UNRESERVED['*'] = true;
+        UNRESERVED['_'] = true;
+    }
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public VNPaySigner(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("VNPay hash secret must not be empty");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA512);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        // Fail fast nếu JCE không hỗ trợ HmacSHA512 hoặc key không hợp lệ
+        newMac();
+    }
+
+    /**
+     * Signer dùng chung cho một secret, dành cho các helper static không giữ được instance.
+     */
+    public static VNPaySigner forSecret(String secret) {
+        VNPaySigner signer = SIGNERS.get(secret);
+        if (signer != null) {
+            return signer;
+        }
+        if (SIGNERS.size() >= MAX_CACHED_SIGNERS) {
+            SIGNERS.clear();
+        }
+        return SIGNERS.computeIfAbsent(secret, VNPaySigner::new);
+    }
+
+    public String sign(String data) {
+        return toHex(digest(data));
+    }
+
+    /**
+     * Chuỗi dữ liệu dùng để ký: các tham số khác rỗng, sắp theo tên, nối bằng '&'.
+     * vnp_SecureHash và vnp_SecureHashType luôn bị bỏ qua.
+     */
+    public String canonicalize(Map<String, String> params) {
+        StringBuilder hashData = new StringBuilder(estimateLength(params));
+        appendCanonical(params, hashData, null);
+        return hashData.toString();
+    }
+
+    /**
+     * Query string đã URL-encode kèm vnp_SecureHash ở cuối.
+     */
+    public String signQuery(Map<String, String> params) {
+        int capacity = estimateLength(params);
+        StringBuilder hashData = new StringBuilder(capacity);
+        StringBuilder query = new StringBuilder(capacity + 160);
+        appendCanonical(params, hashData, query);
+        query.append('&').append(SECURE_HASH).append('=');
+        appendHex(digest(hashData.toString()), query);
+        return query.toString();
+    }
+
+    /**
+     * Xác thực chữ ký trong tham số callback/IPN. So sánh thời gian hằng số và không phân biệt hoa thường.
+     * Map đầu vào không bị thay đổi.
+     */
+    public boolean verify(Map<String, String> params) {
+        return verify(params, params.get(SECURE_HASH));
+    }
+
+    public boolean verify(Map<String, String> params, String secureHash) {
+        byte[] provided = fromHex(secureHash);
+        if (provided == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(digest(canonicalize(params)), provided);
+    }
+
+    private byte[] digest(String data) {
+        // doFinal reset Mac về trạng thái đã init nên có thể dùng lại ngay trên cùng thread
+        return mac.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_SHA512);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialize " + HMAC_SHA512, e);
+        }
+    }
+
+    private static void appendCanonical(Map<String, String> params, StringBuilder hashData, StringBuilder query) {
+        boolean first = true;
+        for (String name : sortedNames(params)) {
+            if (SECURE_HASH.equals(name) || SECURE_HASH_TYPE.equals(name)) {
+                continue;
+            }
+            String value = params.get(name);
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            if (!first) {
+                hashData.append('&');
+                if (query != null) {
+                    query.append('&');
+                }
+            }
+            first = false;
+            hashData.append(name).append('=').append(value);
+            if (query != null) {
+                urlEncode(name, query);
+                query.append('=');
+                urlEncode(value, query);
+            }
+        }
+    }
+
+    private static Iterable<String> sortedNames(Map<String, String> params) {
+        if (params instanceof SortedMap<String, String> sorted && sorted.comparator() == null) {
+            return sorted.keySet();
+        }
+        String[] names = params.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        return Arrays.asList(names);
+    }
+
+    /**
+     * Tương đương URLEncoder.encode(s, US_ASCII): ký tự ngoài ASCII thành '?' (%3F) như trước đây.
+     */
+    private static void urlEncode(String s, StringBuilder out) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 128 && UNRESERVED[c]) {
+                out.append(c);
+            } else if (c == ' ') {
+                out.append('+');
+            } else if (c < 128) {
+                out.append('%').append(HEX_UPPER[c >>> 4]).append(HEX_UPPER[c & 0xF]);
+            } else {
+                if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    i++;
+                }
+                out.append("%3F");
+            }
+        }
+    }
+
+    private static int estimateLength(Map<String, String> params) {
+        return Math.max(64, params.size() * 32);
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xFF;
+            chars[j++] = HEX[v >>> 4];
+            chars[j++] = HEX[v & 0xF];
+        }
+        return new String(chars);
+    }
+
+    private static void appendHex(byte[] bytes, StringBuilder out) {
+        for (byte b : bytes) {
+            int v = b & 0xFF;
+            out.append(HEX[v >>> 4]).append(HEX[v & 0xF]);
+        }
+    }
+
+    private static byte[] fromHex(String hex) {
+        if (hex == null || (hex.length() & 1) != 0) {
+            return null;
+        }
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int hi = Character.digit(hex.charAt(2 * i), 16);
+            int lo = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            bytes[i] = (byte) ((hi << 4) | lo);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,14 @@
+package com.auction.push.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class DeviceTokenRequest {
+    @NotBlank(message = "Token is required")
+    private String token;
+
+    private String provider = "local";
+
+    private String platform;
+}
@@ -0,0 +1,23 @@
+package com.auction.push.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushBatchResult {
+    private int successCount;
+    // Token không còn hợp lệ (gỡ app, hết hạn) -> sẽ bị vô hiệu hóa
+    private List<String> invalidTokens = new ArrayList<>();
+    // Token lỗi tạm thời -> sẽ được gửi lại
+    private List<String> retryableTokens = new ArrayList<>();
+
+    public static PushBatchResult success(int count) {
+        return new PushBatchResult(count, new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,19 @@
+package com.auction.push.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessage {
+    private String title;
+    private String body;
+    private String link;
+    private Map<String, String> data;
+}
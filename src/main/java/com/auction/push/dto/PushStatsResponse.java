@@ -0,0 +1,16 @@
+package com.auction.push.dto;
+
+import lombok.Data;
+
+@Data
+public class PushStatsResponse {
+    private boolean enabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private int activeWorkers;
+    private long submittedBatches;
+    private long deliveredMessages;
+    // Lô bị bỏ vì hàng đợi đầy (không chạy trên thread gọi)
+    private long shedBatches;
+    private long shedTokens;
+}
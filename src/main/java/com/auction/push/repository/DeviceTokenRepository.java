@@ -0,0 +1,29 @@
+package com.auction.push.repository;
+
+import com.auction.push.model.DeviceToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeviceTokenRepository extends JpaRepository<DeviceToken, Long> {
+    Optional<DeviceToken> findByToken(String token);
+
+    // Chỉ lấy (provider, token) để không phải load entity khi gửi hàng loạt
+    @Query("SELECT d.provider, d.token FROM DeviceToken d WHERE d.user.id IN :userIds AND d.active = true")
+    List<Object[]> findActiveTokensByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("UPDATE DeviceToken d SET d.active = false WHERE d.token IN :tokens")
+    int deactivateTokens(@Param("tokens") Collection<String> tokens);
+
+    @Modifying
+    @Query("UPDATE DeviceToken d SET d.active = false WHERE d.token = :token AND d.user.id = :userId")
+    int deactivateUserToken(@Param("userId") Long userId, @Param("token") String token);
+}
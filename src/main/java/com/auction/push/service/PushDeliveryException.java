@@ -0,0 +1,19 @@
+package com.auction.push.service;
+
+public class PushDeliveryException extends RuntimeException {
+    private final boolean retryable;
+
+    public PushDeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public PushDeliveryException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,18 @@
+package com.auction.push.service;
+
+import com.auction.push.dto.PushBatchResult;
+import com.auction.push.dto.PushMessage;
+
+import java.util.List;
+
+public interface PushProvider {
+    String getName();
+
+    // Số token tối đa trong một request multicast
+    int getMaxBatchSize();
+
+    // Số request đồng thời tối đa tới provider
+    int getMaxConcurrency();
+
+    PushBatchResult sendMulticast(List<String> tokens, PushMessage message) throws PushDeliveryException;
+}
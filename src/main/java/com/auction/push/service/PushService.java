@@ -0,0 +1,18 @@
+package com.auction.push.service;
+
+import com.auction.model.User;
+import com.auction.push.dto.DeviceTokenRequest;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.dto.PushStatsResponse;
+import com.auction.push.model.DeviceToken;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+public interface PushService {
+    DeviceToken registerToken(User user, DeviceTokenRequest request);
+    void unregisterToken(Long userId, String token);
+    CompletableFuture<Integer> sendToUser(Long userId, PushMessage message);
+    CompletableFuture<Integer> sendToUsers(Collection<Long> userIds, PushMessage message);
+    PushStatsResponse getStats();
+}
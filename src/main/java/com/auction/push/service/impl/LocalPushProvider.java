@@ -0,0 +1,60 @@
+package com.auction.push.service.impl;
+
+import com.auction.push.dto.PushBatchResult;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.service.PushProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provider giả lập dùng cho môi trường dev/test: không gọi ra ngoài, chỉ ghi log và đếm.
+ */
+@Slf4j
+@Component
+public class LocalPushProvider implements PushProvider {
+    public static final String NAME = "local";
+
+    @Value("${app.push.local.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.push.local.concurrency:4}")
+    private int concurrency;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getMaxConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public PushBatchResult sendMulticast(List<String> tokens, PushMessage message) {
+        requests.incrementAndGet();
+        delivered.addAndGet(tokens.size());
+        log.debug("[LocalPush] {} tokens: {}", tokens.size(), message.getTitle());
+        return PushBatchResult.success(tokens.size());
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+}
@@ -0,0 +1,219 @@
+package com.auction.push.service.impl;
+
+import com.auction.model.User;
+import com.auction.push.dto.DeviceTokenRequest;
+import com.auction.push.dto.PushBatchResult;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.dto.PushStatsResponse;
+import com.auction.push.model.DeviceToken;
+import com.auction.push.repository.DeviceTokenRepository;
+import com.auction.push.service.PushDeliveryException;
+import com.auction.push.service.PushProvider;
+import com.auction.push.service.PushService;
+import com.auction.push.util.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class PushServiceImpl implements PushService {
+    private static final int USER_ID_CHUNK = 1000;
+    private static final long SHED_LOG_EVERY = 100;
+
+    private final DeviceTokenRepository deviceTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, PushProvider> providers;
+    private final Map<String, Semaphore> providerPermits = new ConcurrentHashMap<>();
+    private final RateLimiter rateLimiter;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final boolean enabled;
+    private final AtomicLong submittedBatches = new AtomicLong();
+    private final AtomicLong deliveredMessages = new AtomicLong();
+    private final AtomicLong shedBatches = new AtomicLong();
+    private final AtomicLong shedTokens = new AtomicLong();
+
+    public PushServiceImpl(DeviceTokenRepository deviceTokenRepository,
+                           TransactionTemplate transactionTemplate,
+                           List<PushProvider> providers,
+                           @Value("${app.push.enabled:true}") boolean enabled,
+                           @Value("${app.push.rate-per-second:200}") double ratePerSecond,
+                           @Value("${app.push.pool-size:8}") int poolSize,
+                           @Value("${app.push.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.push.max-attempts:3}") int maxAttempts,
+                           @Value("${app.push.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.deviceTokenRepository = deviceTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.providers = providers.stream().collect(Collectors.toMap(PushProvider::getName, Function.identity()));
+        this.providers.values().forEach(p -> providerPermits.put(p.getName(), new Semaphore(p.getMaxConcurrency())));
+        this.enabled = enabled;
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+        this.queueCapacity = queueCapacity;
+        // Hàng đợi có giới hạn; khi đầy thì bỏ lô và đếm (AbortPolicy) để không bao giờ gửi trên thread request
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    @Transactional
+    public DeviceToken registerToken(User user, DeviceTokenRequest request) {
+        String provider = request.getProvider() != null ? request.getProvider() : LocalPushProvider.NAME;
+        if (!providers.containsKey(provider)) {
+            throw new RuntimeException("Unsupported push provider: " + provider);
+        }
+        DeviceToken deviceToken = deviceTokenRepository.findByToken(request.getToken())
+            .orElseGet(() -> DeviceToken.builder().token(request.getToken()).build());
+        deviceToken.setUser(user);
+        deviceToken.setProvider(provider);
+        deviceToken.setPlatform(request.getPlatform());
+        deviceToken.setActive(true);
+        deviceToken.setLastSeenAt(LocalDateTime.now());
+        return deviceTokenRepository.save(deviceToken);
+    }
+
+    @Override
+    @Transactional
+    public void unregisterToken(Long userId, String token) {
+        deviceTokenRepository.deactivateUserToken(userId, token);
+    }
+
+    @Override
+    public CompletableFuture<Integer> sendToUser(Long userId, PushMessage message) {
+        return sendToUsers(List.of(userId), message);
+    }
+
+    @Override
+    public CompletableFuture<Integer> sendToUsers(Collection<Long> userIds, PushMessage message) {
+        if (!enabled || userIds.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        // Gom token theo provider, đọc user id theo từng chunk để tránh IN (...) quá lớn
+        Map<String, List<String>> tokensByProvider = new HashMap<>();
+        List<Long> ids = new ArrayList<>(userIds);
+        for (int i = 0; i < ids.size(); i += USER_ID_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(i + USER_ID_CHUNK, ids.size()));
+            for (Object[] row : deviceTokenRepository.findActiveTokensByUserIds(chunk)) {
+                tokensByProvider.computeIfAbsent((String) row[0], k -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        tokensByProvider.forEach((providerName, tokens) -> {
+            PushProvider provider = providers.get(providerName);
+            if (provider == null) {
+                log.warn("No push provider registered for '{}', skipping {} tokens", providerName, tokens.size());
+                return;
+            }
+            int batchSize = Math.max(1, provider.getMaxBatchSize());
+            for (int i = 0; i < tokens.size(); i += batchSize) {
+                List<String> batch = new ArrayList<>(tokens.subList(i, Math.min(i + batchSize, tokens.size())));
+                batches.add(submit(provider, batch, message));
+            }
+        });
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+            .thenApply(v -> batches.stream().mapToInt(CompletableFuture::join).sum());
+    }
+
+    @Override
+    public PushStatsResponse getStats() {
+        PushStatsResponse stats = new PushStatsResponse();
+        stats.setEnabled(enabled);
+        stats.setQueueDepth(executor.getQueue().size());
+        stats.setQueueCapacity(queueCapacity);
+        stats.setActiveWorkers(executor.getActiveCount());
+        stats.setSubmittedBatches(submittedBatches.get());
+        stats.setDeliveredMessages(deliveredMessages.get());
+        stats.setShedBatches(shedBatches.get());
+        stats.setShedTokens(shedTokens.get());
+        return stats;
+    }
+
+    private CompletableFuture<Integer> submit(PushProvider provider, List<String> batch, PushMessage message) {
+        try {
+            CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> deliver(provider, batch, message), executor);
+            submittedBatches.incrementAndGet();
+            return future;
+        } catch (RejectedExecutionException e) {
+            shedTokens.addAndGet(batch.size());
+            long shed = shedBatches.incrementAndGet();
+            if (shed % SHED_LOG_EVERY == 1) {
+                log.warn("Push queue full, shed a batch of {} tokens for {} ({} batches shed so far)",
+                    batch.size(), provider.getName(), shed);
+            }
+            return CompletableFuture.completedFuture(0);
+        }
+    }
+
+    private int deliver(PushProvider provider, List<String> tokens, PushMessage message) {
+        Semaphore permits = providerPermits.get(provider.getName());
+        List<String> pending = tokens;
+        int delivered = 0;
+        Set<String> invalid = new HashSet<>();
+        for (int attempt = 1; attempt <= maxAttempts && !pending.isEmpty(); attempt++) {
+            try {
+                rateLimiter.acquire();
+                permits.acquire();
+                PushBatchResult result;
+                try {
+                    result = provider.sendMulticast(pending, message);
+                } finally {
+                    permits.release();
+                }
+                delivered += result.getSuccessCount();
+                invalid.addAll(result.getInvalidTokens());
+                pending = result.getRetryableTokens();
+            } catch (PushDeliveryException e) {
+                if (!e.isRetryable()) {
+                    log.error("Push batch to {} failed permanently ({} tokens)", provider.getName(), pending.size(), e);
+                    break;
+                }
+                log.warn("Push batch to {} failed (attempt {}/{}): {}", provider.getName(), attempt, maxAttempts, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!pending.isEmpty() && attempt < maxAttempts && !backoff(attempt)) {
+                break;
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Giving up on {} push tokens for provider {}", pending.size(), provider.getName());
+        }
+        deliveredMessages.addAndGet(delivered);
+        if (!invalid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> deviceTokenRepository.deactivateTokens(invalid));
+        }
+        return delivered;
+    }
+
+    private boolean backoff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * (1L << (attempt - 1)));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,36 @@
+package com.auction.push.util;
+
+/**
+ * Token bucket đơn giản: tối đa {@code permitsPerSecond} lượt mỗi giây, acquire() sẽ chờ khi hết lượt.
+ */
+public class RateLimiter {
+    private final double permitsPerNano;
+    private final double maxPermits;
+    private double storedPermits;
+    private long lastRefill;
+
+    public RateLimiter(double permitsPerSecond) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.maxPermits = Math.max(1, permitsPerSecond);
+        this.storedPermits = maxPermits;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            refill();
+            storedPermits -= 1;
+            waitNanos = storedPermits >= 0 ? 0 : (long) (-storedPermits / permitsPerNano);
+        }
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        storedPermits = Math.min(maxPermits, storedPermits + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,25 @@
+package com.auction.repository;
+
+import com.auction.model.AuctionBidder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AuctionBidderRepository extends JpaRepository<AuctionBidder, AuctionBidder.Key> {
+    // 1 nếu đây là bid đầu tiên của user trong phiên, 0 nếu đã được đếm
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "auction_bidders"))
+    @Query(value = "INSERT IGNORE INTO auction_bidders (auction_id, bidder_id) VALUES (:auctionId, :bidderId)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("auctionId") Long auctionId, @Param("bidderId") Long bidderId);
+
+    @Modifying
+    @Query("DELETE FROM AuctionBidder b WHERE b.id.auctionId = :auctionId")
+    int deleteByAuctionId(@Param("auctionId") Long auctionId);
+}
@@ -2,13 +2,27 @@ package com.auction.repository;
 
 import com.auction.model.Auction;
 import com.auction.model.AuctionImage;
+import com.auction.enums.RenditionStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface AuctionImageRepository extends JpaRepository<AuctionImage, Long> {
     List<AuctionImage> findByAuction(Auction auction);
     void deleteByAuction(Auction auction);
+
+    @Query("SELECT DISTINCT i.contentHash, i.fileName FROM AuctionImage i " +
+           "WHERE i.renditionStatus = com.auction.enums.RenditionStatus.PENDING AND i.createdAt < :before")
+    List<Object[]> findPendingRenditions(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE AuctionImage i SET i.renditionStatus = :status WHERE i.contentHash = :hash")
+    int updateRenditionStatus(@Param("hash") String hash, @Param("status") RenditionStatus status);
 } 
\ No newline at end of file
@@ -3,15 +3,18 @@ package com.auction.repository;
 import com.auction.model.Auction;
 import com.auction.model.AuctionStatus;
 import com.auction.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AuctionRepository extends JpaRepository<Auction, Long> {
@@ -19,6 +22,11 @@ public interface AuctionRepository extends JpaRepository<Auction, Long> {
     Page<Auction> findBySeller(User seller, Pageable pageable);
     Page<Auction> findByCategory(String category, Pageable pageable);
     Page<Auction> findByFeaturedTrue(Pageable pageable);
+
+    // Khóa dòng phiên để các bid đồng thời trên cùng phiên chạy tuần tự (chỉ một bid is_winning)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Auction a WHERE a.id = :id")
+    Optional<Auction> findByIdForUpdate(@Param("id") Long id);
     
     @Query("SELECT a FROM Auction a WHERE " +
            "(:keyword IS NULL OR LOWER(a.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -35,6 +43,15 @@ public interface AuctionRepository extends JpaRepository<Auction, Long> {
             @Param("status") AuctionStatus status,
             Pageable pageable);
 
+    // Phiên đã đóng trước cutoff, còn bid trong bảng nóng và chưa được lưu trữ
+    @Query("SELECT a.id FROM Auction a WHERE a.status IN :statuses AND a.endTime < :cutoff AND a.id > :afterId " +
+           "AND NOT EXISTS (SELECT 1 FROM BidArchive x WHERE x.auctionId = a.id) " +
+           "AND EXISTS (SELECT 1 FROM Bid b WHERE b.auction = a) ORDER BY a.id")
+    List<Long> findArchivableIds(@Param("statuses") List<AuctionStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
     @Query("SELECT a FROM Auction a WHERE a.endTime <= :now AND a.status = 'ACTIVE'")
     List<Auction> findEndedAuctions(@Param("now") LocalDateTime now);
 
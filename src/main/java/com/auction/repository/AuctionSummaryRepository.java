@@ -0,0 +1,51 @@
+package com.auction.repository;
+
+import com.auction.model.AuctionSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AuctionSummaryRepository extends JpaRepository<AuctionSummary, Long> {
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "auction_summary"))
+    @Query(value = "INSERT IGNORE INTO auction_summary (auction_id, current_price, bid_count, unique_bidders, updated_at) " +
+                   "VALUES (:auctionId, :price, 0, 0, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("auctionId") Long auctionId, @Param("price") BigDecimal price,
+                       @Param("now") LocalDateTime now);
+
+    // Người dẫn đầu chỉ đổi khi giá mới không thấp hơn giá hiện tại; các cột này được gán trước current_price
+    // vì MySQL đánh giá ON DUPLICATE KEY UPDATE từ trái sang phải với giá trị đã cập nhật
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "auction_summary"))
+    @Query(value = "INSERT INTO auction_summary (auction_id, current_price, bid_count, unique_bidders, " +
+                   "leading_bidder_id, last_bid_at, updated_at) " +
+                   "VALUES (:auctionId, :amount, 1, :newBidder, :bidderId, :bidTime, :now) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "leading_bidder_id = CASE WHEN VALUES(current_price) >= current_price " +
+                   "THEN VALUES(leading_bidder_id) ELSE leading_bidder_id END, " +
+                   "current_price = GREATEST(current_price, VALUES(current_price)), " +
+                   "bid_count = bid_count + 1, " +
+                   "unique_bidders = unique_bidders + VALUES(unique_bidders), " +
+                   "last_bid_at = GREATEST(COALESCE(last_bid_at, VALUES(last_bid_at)), VALUES(last_bid_at)), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int recordBid(@Param("auctionId") Long auctionId,
+                  @Param("amount") BigDecimal amount,
+                  @Param("newBidder") int newBidder,
+                  @Param("bidderId") Long bidderId,
+                  @Param("bidTime") LocalDateTime bidTime,
+                  @Param("now") LocalDateTime now);
+
+    List<AuctionSummary> findByAuctionIdIn(Collection<Long> auctionIds);
+}
@@ -0,0 +1,26 @@
+package com.auction.repository;
+
+import com.auction.model.BidArchiveDay;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface BidArchiveDayRepository extends JpaRepository<BidArchiveDay, BidArchiveDay.Key> {
+    // IGNORE: chạy lại việc bổ sung cho cùng một phiên không cộng trùng
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "bid_archive_days"))
+    @Query(value = "INSERT IGNORE INTO bid_archive_days (auction_id, stat_date, bidder_id, bid_count) " +
+                   "VALUES (:auctionId, :date, :bidderId, :bidCount)", nativeQuery = true)
+    int insertIfAbsent(@Param("auctionId") Long auctionId,
+                       @Param("date") LocalDate date,
+                       @Param("bidderId") Long bidderId,
+                       @Param("bidCount") int bidCount);
+}
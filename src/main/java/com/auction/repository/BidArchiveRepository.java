@@ -0,0 +1,22 @@
+package com.auction.repository;
+
+import com.auction.model.BidArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BidArchiveRepository extends JpaRepository<BidArchive, Long> {
+    // [số phiên, số bid, tổng byte payload]
+    @Query(value = "SELECT COUNT(*), COALESCE(SUM(bid_count), 0), COALESCE(SUM(LENGTH(payload)), 0) FROM bid_archives",
+           nativeQuery = true)
+    List<Object[]> sumTotals();
+
+    // Archive tạo trước khi có bid_archive_days, cần giải mã để bổ sung số bid theo ngày
+    @Query("SELECT a.auctionId FROM BidArchive a WHERE a.daysIndexed = false AND a.auctionId > :afterId ORDER BY a.auctionId")
+    List<Long> findUnindexedIds(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -6,6 +6,7 @@ import com.auction.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -32,4 +33,14 @@ public interface BidRepository extends JpaRepository<Bid, Long> {
     
     @Query("SELECT COUNT(b) FROM Bid b WHERE b.auction = :auction")
     Long countByAuction(Auction auction);
+
+    List<Bid> findByAuctionIdOrderByIdAsc(Long auctionId);
+
+    @Query("SELECT DISTINCT b.bidder.id FROM Bid b WHERE b.auction.id = :auctionId AND b.bidder.id <> :excludeId")
+    List<Long> findBidderIdsExcept(@Param("auctionId") Long auctionId, @Param("excludeId") Long excludeId);
+
+    // Giữ lại bid mà auctions.winning_bid_id đang tham chiếu
+    @Modifying
+    @Query("DELETE FROM Bid b WHERE b.auction.id = :auctionId AND (:keepId IS NULL OR b.id <> :keepId)")
+    int deleteArchived(@Param("auctionId") Long auctionId, @Param("keepId") Long keepId);
 } 
\ No newline at end of file
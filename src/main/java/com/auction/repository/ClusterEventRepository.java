@@ -0,0 +1,32 @@
+package com.auction.repository;
+
+import com.auction.model.ClusterEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ClusterEventRepository extends JpaRepository<ClusterEvent, Long> {
+    @Query(value = "SELECT * FROM cluster_events WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<ClusterEvent> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Dòng có id nhỏ hơn nhưng commit muộn hơn lần poll trước (id IDENTITY cấp trước khi commit)
+    @Query(value = "SELECT * FROM cluster_events WHERE id <= :upToId AND created_at >= :since ORDER BY id", nativeQuery = true)
+    List<ClusterEvent> findRecentUpTo(@Param("upToId") long upToId, @Param("since") LocalDateTime since);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM ClusterEvent e")
+    long findMaxId();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cluster_events"))
+    @Query(value = "DELETE FROM cluster_events WHERE created_at < :before LIMIT :limit", nativeQuery = true)
+    int deleteOlderThan(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
@@ -0,0 +1,36 @@
+package com.auction.repository;
+
+import com.auction.model.DailyPayingUser;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public interface DailyPayingUserRepository extends JpaRepository<DailyPayingUser, DailyPayingUser.Key> {
+    // 1 nếu user lần đầu thanh toán trong ngày, 0 nếu đã được đếm
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_paying_users"))
+    @Query(value = "INSERT IGNORE INTO daily_paying_users (stat_date, user_id) VALUES (:date, :userId)", nativeQuery = true)
+    int insertIfAbsent(@Param("date") LocalDate date, @Param("userId") Long userId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_paying_users"))
+    @Query(value = "DELETE FROM daily_paying_users WHERE stat_date >= :fromDate AND stat_date < :toDate", nativeQuery = true)
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO daily_paying_users (stat_date, user_id) " +
+                   "SELECT DISTINCT DATE(COALESCE(p.paid_at, p.created_at)), p.user_id FROM payment_orders p " +
+                   "WHERE p.status = 'COMPLETED' AND p.user_id IS NOT NULL " +
+                   "AND COALESCE(p.paid_at, p.created_at) >= :from AND COALESCE(p.paid_at, p.created_at) < :to",
+           nativeQuery = true)
+    int rebuild(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,75 @@
+package com.auction.repository;
+
+import com.auction.enums.SketchMetric;
+import com.auction.model.DailySketch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailySketchRepository extends JpaRepository<DailySketch, DailySketch.Key> {
+    @Query("SELECT s FROM DailySketch s WHERE s.id.metric = :metric AND s.id.statDate BETWEEN :from AND :to ORDER BY s.id.statDate")
+    List<DailySketch> findRange(@Param("metric") SketchMetric metric,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    // Khóa dòng để gộp sketch đọc-sửa-ghi an toàn giữa nhiều node
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailySketch s WHERE s.id = :id")
+    Optional<DailySketch> findForUpdate(@Param("id") DailySketch.Key id);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_sketches"))
+    @Query(value = "INSERT IGNORE INTO daily_sketches (stat_date, metric, sketch, updated_at) VALUES (:date, :metric, :sketch, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("date") LocalDate date,
+                       @Param("metric") String metric,
+                       @Param("sketch") byte[] sketch,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM DailySketch s WHERE s.id.metric = :metric AND s.id.statDate >= :from AND s.id.statDate < :to")
+    int deleteRange(@Param("metric") SketchMetric metric, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // [ngày, user_id] của các thanh toán thành công, dùng để dựng lại sketch PAYING_USERS
+    @Query(value = "SELECT stat_date, user_id FROM daily_paying_users WHERE stat_date >= :from AND stat_date < :to", nativeQuery = true)
+    List<Object[]> findPayingUsers(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Bid đã lưu trữ lấy từ bid_archive_days, gộp với bảng bids
+    @Query(value = "SELECT DATE(bid_time), bidder_id FROM bids WHERE bid_time >= :from AND bid_time < :to UNION " +
+                   "SELECT stat_date, bidder_id FROM bid_archive_days WHERE stat_date >= :from AND stat_date < :to",
+           nativeQuery = true)
+    List<Object[]> findBidders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(value = "SELECT MIN(d) FROM (SELECT DATE(MIN(bid_time)) AS d FROM bids UNION ALL " +
+                   "SELECT MIN(stat_date) FROM bid_archive_days) t", nativeQuery = true)
+    LocalDate findEarliestBidDate();
+
+    @Query(value = "SELECT COUNT(DISTINCT user_id) FROM daily_paying_users WHERE stat_date >= :from AND stat_date < :to", nativeQuery = true)
+    long countDistinctPayingUsers(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(value = "SELECT COUNT(DISTINCT t.bidder_id) FROM (" +
+                   "SELECT bidder_id FROM bids WHERE bid_time >= :from AND bid_time < :to UNION ALL " +
+                   "SELECT bidder_id FROM bid_archive_days WHERE stat_date >= :from AND stat_date < :to) t",
+           nativeQuery = true)
+    long countDistinctBidders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // [ngày, số bidder phân biệt] cho chế độ đếm chính xác
+    @Query(value = "SELECT t.d, COUNT(DISTINCT t.bidder_id) FROM (" +
+                   "SELECT DATE(bid_time) AS d, bidder_id FROM bids WHERE bid_time >= :from AND bid_time < :to UNION ALL " +
+                   "SELECT stat_date, bidder_id FROM bid_archive_days WHERE stat_date >= :from AND stat_date < :to) t " +
+                   "GROUP BY t.d", nativeQuery = true)
+    List<Object[]> countDistinctBiddersByDay(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,110 @@
+package com.auction.repository;
+
+import com.auction.model.DailyStats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyStatsRepository extends JpaRepository<DailyStats, LocalDate> {
+    List<DailyStats> findByStatDateBetweenOrderByStatDateAsc(LocalDate from, LocalDate to);
+
+    // [new_users, new_auctions, bids, revenue] trên toàn bộ các ngày đã tổng hợp
+    @Query("SELECT COALESCE(SUM(d.newUsers), 0), COALESCE(SUM(d.newAuctions), 0), COALESCE(SUM(d.bids), 0), " +
+           "COALESCE(SUM(d.revenue), 0) FROM DailyStats d")
+    List<Object[]> sumTotals();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "VALUES (:date, :revenue, :completedPayments, :payingUsers, :newUsers, :newAuctions, :bids, :now) " +
+                   "ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), " +
+                   "completed_payments = completed_payments + VALUES(completed_payments), " +
+                   "paying_users = paying_users + VALUES(paying_users), new_users = new_users + VALUES(new_users), " +
+                   "new_auctions = new_auctions + VALUES(new_auctions), bids = bids + VALUES(bids), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int addDeltas(@Param("date") LocalDate date,
+                  @Param("revenue") BigDecimal revenue,
+                  @Param("completedPayments") long completedPayments,
+                  @Param("payingUsers") long payingUsers,
+                  @Param("newUsers") long newUsers,
+                  @Param("newAuctions") long newAuctions,
+                  @Param("bids") long bids,
+                  @Param("now") LocalDateTime now);
+
+    // --- Dựng lại từ bảng gốc cho khoảng [from, to); bid đã lưu trữ lấy từ bid_archive_days ---
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "DELETE FROM daily_stats WHERE stat_date >= :fromDate AND stat_date < :toDate", nativeQuery = true)
+    int deleteRange(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "SELECT DATE(COALESCE(p.paid_at, p.created_at)), SUM(p.amount), COUNT(*), 0, 0, 0, 0, :now " +
+                   "FROM payment_orders p WHERE p.status = 'COMPLETED' " +
+                   "AND COALESCE(p.paid_at, p.created_at) >= :from AND COALESCE(p.paid_at, p.created_at) < :to " +
+                   "GROUP BY DATE(COALESCE(p.paid_at, p.created_at)) " +
+                   "ON DUPLICATE KEY UPDATE revenue = VALUES(revenue), completed_payments = VALUES(completed_payments), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int rebuildPayments(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "SELECT u.stat_date, 0, 0, COUNT(*), 0, 0, 0, :now FROM daily_paying_users u " +
+                   "WHERE u.stat_date >= :fromDate AND u.stat_date < :toDate GROUP BY u.stat_date " +
+                   "ON DUPLICATE KEY UPDATE paying_users = VALUES(paying_users), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int rebuildPayingUsers(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "SELECT DATE(u.created_at), 0, 0, 0, COUNT(*), 0, 0, :now FROM users u " +
+                   "WHERE u.created_at >= :from AND u.created_at < :to GROUP BY DATE(u.created_at) " +
+                   "ON DUPLICATE KEY UPDATE new_users = VALUES(new_users), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int rebuildNewUsers(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "SELECT DATE(a.created_at), 0, 0, 0, 0, COUNT(*), 0, :now FROM auctions a " +
+                   "WHERE a.created_at >= :from AND a.created_at < :to GROUP BY DATE(a.created_at) " +
+                   "ON DUPLICATE KEY UPDATE new_auctions = VALUES(new_auctions), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int rebuildNewAuctions(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_stats"))
+    @Query(value = "INSERT INTO daily_stats (stat_date, revenue, completed_payments, paying_users, new_users, new_auctions, bids, updated_at) " +
+                   "SELECT t.d, 0, 0, 0, 0, 0, SUM(t.c), :now FROM (" +
+                   "SELECT DATE(b.bid_time) AS d, COUNT(*) AS c FROM bids b " +
+                   "WHERE b.bid_time >= :from AND b.bid_time < :to GROUP BY DATE(b.bid_time) UNION ALL " +
+                   "SELECT x.stat_date, SUM(x.bid_count) FROM bid_archive_days x " +
+                   "WHERE x.stat_date >= :from AND x.stat_date < :to GROUP BY x.stat_date) t GROUP BY t.d " +
+                   "ON DUPLICATE KEY UPDATE bids = VALUES(bids), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int rebuildBids(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, @Param("now") LocalDateTime now);
+
+    // Ngày sớm nhất có dữ liệu gốc, làm điểm bắt đầu cho backfill
+    @Query(value = "SELECT MIN(d) FROM (" +
+                   "SELECT MIN(created_at) AS d FROM users UNION ALL " +
+                   "SELECT MIN(created_at) FROM auctions UNION ALL " +
+                   "SELECT MIN(bid_time) FROM bids UNION ALL " +
+                   "SELECT CAST(MIN(stat_date) AS DATETIME) FROM bid_archive_days UNION ALL " +
+                   "SELECT MIN(created_at) FROM payment_orders) t", nativeQuery = true)
+    LocalDateTime findEarliestActivity();
+}
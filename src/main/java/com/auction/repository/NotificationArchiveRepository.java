@@ -0,0 +1,29 @@
+package com.auction.repository;
+
+import com.auction.model.NotificationArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+    Page<NotificationArchive> findByRecipientIdOrderByCreatedAtDesc(Long recipientId, Pageable pageable);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_archive"))
+    @Query(value = "INSERT IGNORE INTO notification_archive " +
+                   "(id, recipient_id, type, message, auction_id, amount, digest_count, created_at, archived_at) " +
+                   "SELECT id, recipient_id, type, message, auction_id, amount, digest_count, created_at, NOW() " +
+                   "FROM notifications WHERE id IN (:ids)",
+           nativeQuery = true)
+    int archiveByIds(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,39 @@
+package com.auction.repository;
+
+import com.auction.model.NotificationCounter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "UPDATE notification_counters SET unread_count = GREATEST(unread_count + :delta, 0), updated_at = NOW() " +
+                   "WHERE user_id = :userId", nativeQuery = true)
+    int adjust(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "UPDATE notification_counters SET unread_count = 0, updated_at = NOW() WHERE user_id = :userId",
+           nativeQuery = true)
+    int reset(@Param("userId") Long userId);
+
+    // Seeds (or repairs) the counter from the notifications table in a single statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "notification_counters"))
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count, updated_at) " +
+                   "SELECT :userId, COUNT(*), NOW() FROM notifications WHERE recipient_id = :userId AND is_read = false " +
+                   "ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int recount(@Param("userId") Long userId);
+
+    @Query("SELECT c.unreadCount FROM NotificationCounter c WHERE c.userId = :userId")
+    Long findUnreadCount(@Param("userId") Long userId);
+}
@@ -4,21 +4,50 @@ import com.auction.model.Notification;
 import com.auction.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     Page<Notification> findByRecipientOrderByCreatedAtDesc(User recipient, Pageable pageable);
     Page<Notification> findByRecipientAndReadFalseOrderByCreatedAtDesc(User recipient, Pageable pageable);
-    List<Notification> findByRecipient(User recipient);
-    void deleteByRecipient(User recipient);
+
+    // Tổng hợp theo type ngay trên DB: type, tổng số, số chưa đọc, thời điểm mới nhất
+    @Query("SELECT n.type, COUNT(n), SUM(CASE WHEN n.read = false THEN 1 ELSE 0 END), MAX(n.createdAt) " +
+           "FROM Notification n WHERE n.recipient.id = :userId GROUP BY n.type ORDER BY MAX(n.createdAt) DESC")
+    List<Object[]> summarizeByType(@Param("userId") Long userId);
+
+    @Query("SELECT COUNT(n), SUM(CASE WHEN n.read = false THEN 1 ELSE 0 END), MAX(n.createdAt) " +
+           "FROM Notification n WHERE n.recipient.id = :userId AND n.type = :type")
+    List<Object[]> summarizeType(@Param("userId") Long userId, @Param("type") String type);
+
+    // Một trang item của một type, đọc ngược trên idx_notifications_recipient_type_created
+    Slice<Notification> findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(Long recipientId, String type, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.recipient = :recipient")
+    int deleteByRecipient(@Param("recipient") User recipient);
+
+    // Keyset scan cho job retention: chỉ lấy id, không load entity
+    @Query("SELECT n.id FROM Notification n WHERE n.read = true AND n.createdAt < :cutoff AND n.id > :afterId ORDER BY n.id")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids AND n.read = true")
+    int deleteReadByIds(@Param("ids") List<Long> ids);
     
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :userId")
-    void markAllAsRead(Long userId);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markAsReadIfUnread(@Param("id") Long id);
 } 
\ No newline at end of file
@@ -4,8 +4,13 @@ import com.auction.model.Transaction;
 import com.auction.model.User;
 import com.auction.enums.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +21,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByStatus(PaymentStatus status);
     List<Transaction> findByBuyer(User buyer);
     boolean existsByTransactionRef(String transactionRef);
+
+    @Query(value = "SELECT id FROM transactions WHERE status = 'PENDING' AND created_at <= :createdBefore " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Number> lockExpiredPendingIds(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+
+    // H2 không hỗ trợ SKIP LOCKED; dùng trên profile local/loadtest (một node nên không có dòng bị node khác khóa)
+    @Query(value = "SELECT id FROM transactions WHERE status = 'PENDING' AND created_at <= :createdBefore " +
+                   "ORDER BY created_at LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Number> lockExpiredPendingIdsWaiting(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = :toStatus, t.updatedAt = :now WHERE t.id IN :ids AND t.status = :fromStatus")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("fromStatus") PaymentStatus fromStatus,
+                         @Param("toStatus") PaymentStatus toStatus,
+                         @Param("now") LocalDateTime now);
+
+    // Trang keyset theo transaction_ref cho job đối soát: [transaction_ref, amount, status]
+    @Query(value = "SELECT transaction_ref, amount, status FROM transactions WHERE transaction_ref > :after " +
+                   "ORDER BY transaction_ref LIMIT :limit", nativeQuery = true)
+    List<Object[]> findReconciliationPage(@Param("after") String after, @Param("limit") int limit);
+
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t WHERE t.status = 'PENDING'")
+    LocalDateTime findOldestPendingCreatedAt();
 } 
\ No newline at end of file
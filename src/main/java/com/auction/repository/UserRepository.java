@@ -2,8 +2,10 @@ package com.auction.repository;
 
 import com.auction.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.time.LocalDateTime;
 
@@ -15,4 +17,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     long countByCreatedAtAfter(LocalDateTime fromDate);
+
+    @Query("SELECT u.id FROM User u WHERE u.blocked = true")
+    List<Long> findBlockedUserIds();
 } 
\ No newline at end of file
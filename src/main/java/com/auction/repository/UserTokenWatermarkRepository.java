@@ -0,0 +1,31 @@
+package com.auction.repository;
+
+import com.auction.model.UserTokenWatermark;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserTokenWatermarkRepository extends JpaRepository<UserTokenWatermark, Long> {
+    // Mốc chỉ tiến lên: hai lần đổi quyền đồng thời giữ mốc muộn hơn
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_token_watermarks"))
+    @Query(value = "INSERT INTO user_token_watermarks (user_id, not_before) VALUES (:userId, :notBefore) " +
+                   "ON DUPLICATE KEY UPDATE not_before = GREATEST(not_before, VALUES(not_before))",
+           nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("notBefore") LocalDateTime notBefore);
+
+    List<UserTokenWatermark> findByNotBeforeAfter(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM UserTokenWatermark w WHERE w.notBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
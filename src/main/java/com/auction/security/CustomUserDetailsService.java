@@ -2,6 +2,7 @@ package com.auction.security;
 
 import com.auction.model.User;
 import com.auction.repository.UserRepository;
+import com.auction.service.UserCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -15,11 +16,16 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserCacheService userCacheService;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail)
             throws UsernameNotFoundException {
-        User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+        // Đa số lookup theo username nên đi qua cache; đăng nhập bằng email vẫn truy vấn DB
+        User user = userCacheService.findByUsername(usernameOrEmail)
+                .or(() -> userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail))
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username or email : " + usernameOrEmail)
                 );
@@ -29,7 +35,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Transactional
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id).orElseThrow(
+        User user = userCacheService.findById(id).orElseThrow(
                 () -> new UsernameNotFoundException("User not found with id : " + id)
         );
 
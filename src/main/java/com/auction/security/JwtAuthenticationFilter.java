@@ -1,28 +1,43 @@
 package com.auction.security;
 
 import com.auction.service.JwtService;
+import com.auction.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Xác thực Bearer token: parse và kiểm tra chữ ký đúng một lần, dựng principal từ claim (id, username, roles)
+ * nên request không cần truy vấn DB. Token phát hành trước khi có các claim này vẫn được chấp nhận bằng cách
+ * tải user từ DB như trước. Token đã thu hồi, user bị khóa và token phát hành trước lần đổi quyền gần nhất của user
+ * bị từ chối qua {@link TokenRevocationService}.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = "Bearer ";
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
 
     @Override
     protected void doFilterInternal(
@@ -31,29 +46,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        System.out.println("Authorization header: " + authHeader);
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-            System.out.println("Extracted username: " + username);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                System.out.println("UserDetails loaded: " + userDetails);
-                if (jwtService.isTokenValid(token, userDetails)) {
-                    System.out.println("Token is valid");
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    System.out.println("Token is NOT valid");
-                }
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticate(authHeader.substring(BEARER_PREFIX.length()));
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
+                authToken.setDetails(detailsSource.buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
-        System.out.println("SecurityContextHolder: " + SecurityContextHolder.getContext().getAuthentication());
         filterChain.doFilter(request, response);
     }
-} 
\ No newline at end of file
+
+    private UserDetails authenticate(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+        if (tokenRevocationService.isRevoked(claims.getId())) {
+            log.debug("Rejected revoked JWT {}", claims.getId());
+            return null;
+        }
+        UserDetails userDetails = JwtClaims.toPrincipal(claims);
+        if (userDetails instanceof UserPrincipal principal && tokenRevocationService.isIssuedBeforeRoleChange(
+                principal.getId(), claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null)) {
+            log.debug("Rejected JWT of user {} issued before a role change", principal.getId());
+            return null;
+        }
+        if (userDetails == null) {
+            userDetails = loadLegacy(claims.getSubject());
+        }
+        if (userDetails instanceof UserPrincipal principal && tokenRevocationService.isUserBlocked(principal.getId())) {
+            log.debug("Rejected JWT of blocked user {}", principal.getId());
+            return null;
+        }
+        return userDetails;
+    }
+
+    private UserDetails loadLegacy(String username) {
+        if (username == null) {
+            return null;
+        }
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            log.debug("JWT subject {} no longer exists", username);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.auction.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claim nhúng vào access token lúc phát hành để filter dựng {@link UserPrincipal} mà không cần truy vấn DB.
+ */
+public final class JwtClaims {
+    public static final String USER_ID = "uid";
+    public static final String ROLES = "roles";
+
+    private JwtClaims() {
+    }
+
+    public static Map<String, Object> forUser(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserPrincipal principal && principal.getId() != null) {
+            claims.put(USER_ID, principal.getId());
+        }
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            roles.add(authority.getAuthority());
+        }
+        claims.put(ROLES, roles);
+        return claims;
+    }
+
+    /**
+     * Dựng principal từ claim đã xác thực chữ ký; trả về null với token cũ không có id/roles.
+     * Principal không có email và password.
+     */
+    public static UserPrincipal toPrincipal(Claims claims) {
+        Object id = claims.get(USER_ID);
+        Object roles = claims.get(ROLES);
+        if (!(id instanceof Number) || !(roles instanceof Collection<?> roleNames) || claims.getSubject() == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(roleNames.size());
+        for (Object role : roleNames) {
+            authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        return new UserPrincipal(((Number) id).longValue(), claims.getSubject(), null, null, authorities, true);
+    }
+}
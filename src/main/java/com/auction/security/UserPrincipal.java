@@ -34,7 +34,7 @@ public class UserPrincipal implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                true
+                !Boolean.TRUE.equals(user.getBlocked())
         );
     }
 
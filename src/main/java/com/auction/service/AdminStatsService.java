@@ -4,4 +4,10 @@ import com.auction.dto.AdminStatsResponse;
 
 public interface AdminStatsService {
     AdminStatsResponse getStats(String range);
+
+    /**
+     * @param exact true để đếm người dùng phân biệt chính xác bằng COUNT(DISTINCT) trên bảng gốc (chậm hơn);
+     *              số người xem không có chế độ chính xác.
+     */
+    AdminStatsResponse getStats(String range, boolean exact);
 }
@@ -14,7 +14,7 @@ public interface AuctionService {
     Page<Auction> searchAuctions(String keyword, String category, Double minPrice, Double maxPrice, AuctionStatus status, Pageable pageable);
     Auction updateAuction(Long id, Auction updatedAuction);
     void deleteAuction(Long id);
-    void incrementViewCount(Long id);
+    void incrementViewCount(Long id, String viewerKey);
     void updateAuctionStatus(Long id, AuctionStatus status);
     void processEndedAuctions();
     void startPendingAuctions();
@@ -0,0 +1,17 @@
+package com.auction.service;
+
+import com.auction.model.Auction;
+import com.auction.model.AuctionSummary;
+import com.auction.model.Bid;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+public interface AuctionSummaryService {
+    void initialize(Auction auction);
+    void recordBid(Bid bid);
+    void remove(Long auctionId);
+    Optional<AuctionSummary> getSummary(Long auctionId);
+    Map<Long, AuctionSummary> getSummaries(Collection<Long> auctionIds);
+}
@@ -5,6 +5,7 @@ import com.auction.model.Bid;
 import com.auction.model.User;
 import com.auction.payment.dto.PaymentRequest;
 import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.service.PaymentExpiryEngine;
 import com.auction.payment.service.PaymentService;
 import com.auction.payment.service.PaymentNotificationService;
 import com.auction.enums.PaymentStatus;
@@ -15,16 +16,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
 @Service
 @Slf4j
@@ -35,6 +33,7 @@ public class AuctionWinnerService {
     private final SpringTemplateEngine templateEngine;
     private final PaymentService paymentService;
     private final PaymentNotificationService paymentNotificationService;
+    private final PaymentExpiryEngine paymentExpiryEngine;
 
     @Value("${app.base-url}")
     private String baseUrl;
@@ -119,16 +118,8 @@ public class AuctionWinnerService {
         }
     }
 
-    @Scheduled(fixedRate = 300000) // Run every 5 minutes
-    @Transactional
     public void checkExpiredPayments() {
-        LocalDateTime now = LocalDateTime.now();
-        List<PaymentOrder> expiredPayments = paymentService.findExpiredPayments(now);
-        
-        for (PaymentOrder payment : expiredPayments) {
-            if (payment.getStatus() == PaymentStatus.PENDING) {
-                handlePaymentStatusUpdate(payment, PaymentStatus.EXPIRED);
-            }
-        }
+        // Hết hạn thanh toán do PaymentExpiryEngine xử lý (chunked, đúng deadline, gửi thông báo theo lô)
+        paymentExpiryEngine.sweep();
     }
 } 
\ No newline at end of file
@@ -2,7 +2,10 @@ package com.auction.service;
 
 import com.auction.model.User;
 import com.auction.repository.UserRepository;
+import com.auction.security.JwtClaims;
 import com.auction.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -19,6 +22,8 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
 
     public String login(String username, String password) {
         Authentication authentication = authenticationManager.authenticate(
@@ -29,6 +34,23 @@ public class AuthService {
         return tokenProvider.generateToken(authentication);
     }
 
+    /**
+     * Thu hồi access token đến khi hết hạn. Token không hợp lệ, đã hết hạn hoặc không có jti thì bỏ qua.
+     */
+    public void logout(String token) {
+        Claims claims;
+        try {
+            claims = jwtService.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return;
+        }
+        Object userId = claims.get(JwtClaims.USER_ID);
+        tokenRevocationService.revoke(claims.getId(),
+            userId instanceof Number number ? number.longValue() : null,
+            claims.getExpiration().toInstant());
+        SecurityContextHolder.clearContext();
+    }
+
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
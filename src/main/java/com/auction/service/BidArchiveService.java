@@ -0,0 +1,15 @@
+package com.auction.service;
+
+import com.auction.dto.BidArchiveStatsResponse;
+import com.auction.model.Auction;
+import com.auction.model.Bid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface BidArchiveService {
+    BidArchiveStatsResponse runArchival();
+    BidArchiveStatsResponse getStats();
+    Optional<Page<Bid>> findArchivedBids(Auction auction, Pageable pageable);
+}
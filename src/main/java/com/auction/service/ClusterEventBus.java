@@ -0,0 +1,198 @@
+package com.auction.service;
+
+import com.auction.model.ClusterEvent;
+import com.auction.repository.ClusterEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Kênh phát thông điệp giữa các node qua bảng cluster_events. Node gửi xử lý thông điệp ngay tại chỗ, các node khác
+ * nhận trong vòng một chu kỳ flush cộng một chu kỳ polling. Giao nhận là at-least-once nên handler phải idempotent.
+ * <p>
+ * {@link #publish} không chạm DB: thông điệp vào hàng đợi trong bộ nhớ (trùng topic/payload thì gộp) và được ghi theo
+ * lô trên thread scheduler. Nhờ vậy request thread, kể cả trong listener after-commit vẫn giữ connection của
+ * transaction vừa commit, không phải mượn thêm connection thứ hai từ pool.
+ */
+@Slf4j
+@Service
+public class ClusterEventBus {
+    private static final int POLL_BATCH_SIZE = 500;
+    private static final int PRUNE_BATCH_SIZE = 5000;
+    private static final int FLUSH_BATCH_SIZE = 500;
+    // Giới hạn hàng đợi khi DB không ghi được; vượt quá thì bỏ thông điệp cũ nhất
+    private static final int MAX_PENDING = 100_000;
+
+    private final ClusterEventRepository clusterEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    // id -> thời điểm nhận, để không xử lý lại dòng đọc lại trong cửa sổ lookback
+    private final Map<Long, Long> recentlySeen = new HashMap<>();
+    // Giữ thứ tự để ghi theo thứ tự phát
+    private final Set<Pending> outbox = new LinkedHashSet<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private long lastSeenId = -1;
+
+    @Value("${app.cluster.events.lookback-seconds:5}")
+    private long lookbackSeconds;
+
+    @Value("${app.cluster.events.retention-hours:24}")
+    private long retentionHours;
+
+    public ClusterEventBus(ClusterEventRepository clusterEventRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.clusterEventRepository = clusterEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void subscribe(String topic, Consumer<String> handler) {
+        handlers.computeIfAbsent(topic, t -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Xử lý tại node này rồi xếp hàng để ghi cho các node khác; không mở transaction hay lấy connection nên gọi được
+     * từ bất kỳ đâu, kể cả listener after-commit trên request thread.
+     */
+    public void publish(String topic, String payload) {
+        dispatch(topic, payload);
+        synchronized (outbox) {
+            // Thông điệp trùng đang chờ ghi chỉ cần ghi một lần
+            outbox.add(new Pending(topic, payload));
+            if (outbox.size() > MAX_PENDING) {
+                Iterator<Pending> oldest = outbox.iterator();
+                oldest.next();
+                oldest.remove();
+                if (dropped.incrementAndGet() % 1000 == 1) {
+                    log.warn("Cluster event outbox full, dropped {} event(s) so far", dropped.get());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.events.flush-interval-ms:200}")
+    public void flush() {
+        List<ClusterEvent> batch;
+        do {
+            batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<ClusterEvent> events = batch;
+            try {
+                transactionTemplate.executeWithoutResult(status -> clusterEventRepository.saveAll(events));
+            } catch (Exception e) {
+                log.error("Failed to write {} cluster event(s), will retry", events.size(), e);
+                requeue(events);
+                return;
+            }
+        } while (batch.size() == FLUSH_BATCH_SIZE);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.events.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (lastSeenId < 0) {
+            // Node mới khởi động có cache rỗng nên không cần thông điệp cũ
+            lastSeenId = clusterEventRepository.findMaxId();
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (ClusterEvent event : clusterEventRepository.findRecentUpTo(lastSeenId,
+                LocalDateTime.now().minusSeconds(lookbackSeconds))) {
+            receive(event, now);
+        }
+        List<ClusterEvent> events;
+        do {
+            events = clusterEventRepository.findAfter(lastSeenId, POLL_BATCH_SIZE);
+            for (ClusterEvent event : events) {
+                lastSeenId = event.getId();
+                receive(event, now);
+            }
+        } while (events.size() == POLL_BATCH_SIZE);
+        long expireBefore = now - 2 * lookbackSeconds * 1000;
+        recentlySeen.values().removeIf(seenAt -> seenAt < expireBefore);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.events.prune-interval-ms:3600000}")
+    public void prune() {
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> clusterEventRepository.deleteOlderThan(before, PRUNE_BATCH_SIZE));
+        } while (deleted == PRUNE_BATCH_SIZE);
+    }
+
+    private List<ClusterEvent> drain() {
+        List<ClusterEvent> batch = new ArrayList<>();
+        // created_at là lúc ghi chứ không phải lúc publish, để cửa sổ lookback khi poll vẫn đúng sau khi ghi lại
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (outbox) {
+            Iterator<Pending> it = outbox.iterator();
+            while (it.hasNext() && batch.size() < FLUSH_BATCH_SIZE) {
+                Pending pending = it.next();
+                batch.add(ClusterEvent.builder()
+                    .topic(pending.topic())
+                    .payload(pending.payload())
+                    .originNode(nodeId)
+                    .createdAt(now)
+                    .build());
+                it.remove();
+            }
+        }
+        return batch;
+    }
+
+    private void requeue(List<ClusterEvent> events) {
+        synchronized (outbox) {
+            Set<Pending> newer = new LinkedHashSet<>(outbox);
+            outbox.clear();
+            for (ClusterEvent event : events) {
+                outbox.add(new Pending(event.getTopic(), event.getPayload()));
+            }
+            outbox.addAll(newer);
+        }
+    }
+
+    private void receive(ClusterEvent event, long now) {
+        if (recentlySeen.putIfAbsent(event.getId(), now) != null || nodeId.equals(event.getOriginNode())) {
+            return;
+        }
+        dispatch(event.getTopic(), event.getPayload());
+    }
+
+    private void dispatch(String topic, String payload) {
+        for (Consumer<String> handler : handlers.getOrDefault(topic, List.of())) {
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                log.error("Cluster event handler failed for {}:{}", topic, payload, e);
+            }
+        }
+    }
+
+    private record Pending(String topic, String payload) {
+    }
+}
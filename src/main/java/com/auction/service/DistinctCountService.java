@@ -0,0 +1,287 @@
+package com.auction.service;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.enums.SketchMetric;
+import com.auction.event.AuctionViewedEvent;
+import com.auction.event.BidPlacedEvent;
+import com.auction.model.DailySketch;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.repository.DailySketchRepository;
+import com.auction.repository.DailyStatsRepository;
+import com.auction.utils.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Đếm gần đúng số người dùng phân biệt (trả tiền, đặt giá, xem) theo ngày bằng HyperLogLog.
+ * Mỗi ngày/metric lưu một sketch vài KB trong daily_sketches; đếm trên một khoảng ngày bằng cách gộp các sketch,
+ * nên không cần giữ danh sách user_id hay chạy COUNT(DISTINCT) trên bảng gốc.
+ * Sketch trong bộ nhớ được gộp vào DB định kỳ dưới khóa dòng, an toàn khi chạy nhiều node.
+ */
+@Slf4j
+@Service
+public class DistinctCountService {
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private final DailySketchRepository dailySketchRepository;
+    private final DailyStatsRepository dailyStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<Key, PendingSketch> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "distinct-count-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.stats.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public DistinctCountService(DailySketchRepository dailySketchRepository,
+                                DailyStatsRepository dailyStatsRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.dailySketchRepository = dailySketchRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBidPlaced(BidPlacedEvent event) {
+        if (event.getBidderId() != null) {
+            record(SketchMetric.ACTIVE_BIDDERS, event.getOccurredAt(), sketch -> sketch.add(event.getBidderId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        // Hoàn tiền không trừ được khỏi sketch; ngày đó được sửa khi rebuild
+        if (event.getToStatus() == PaymentStatus.COMPLETED && event.getUserId() != null) {
+            record(SketchMetric.PAYING_USERS, event.getOccurredAt(), sketch -> sketch.add(event.getUserId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuctionViewed(AuctionViewedEvent event) {
+        if (event.getViewerKey() != null) {
+            record(SketchMetric.VIEWERS, event.getOccurredAt(), sketch -> sketch.add(event.getViewerKey()));
+        }
+    }
+
+    /**
+     * Ước lượng số phần tử phân biệt của metric trong [from, to] (sai số chuẩn khoảng 0.8%).
+     * Gồm cả phần chưa flush của node này.
+     */
+    public long estimate(SketchMetric metric, LocalDate from, LocalDate to) {
+        HyperLogLog union = new HyperLogLog();
+        for (DailySketch stored : dailySketchRepository.findRange(metric, from, to)) {
+            union.merge(HyperLogLog.fromBytes(stored.getSketch()));
+        }
+        mergePending(metric, from, to, union);
+        return union.estimate();
+    }
+
+    /**
+     * Ước lượng theo từng ngày trong [from, to]; ngày không có dữ liệu không có trong map.
+     */
+    public Map<LocalDate, Long> estimateDaily(SketchMetric metric, LocalDate from, LocalDate to) {
+        Map<LocalDate, HyperLogLog> days = new HashMap<>();
+        for (DailySketch stored : dailySketchRepository.findRange(metric, from, to)) {
+            days.put(stored.getId().getStatDate(), HyperLogLog.fromBytes(stored.getSketch()));
+        }
+        for (Map.Entry<Key, PendingSketch> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            if (key.metric == metric && !key.date.isBefore(from) && !key.date.isAfter(to)) {
+                entry.getValue().mergeInto(days.computeIfAbsent(key.date, d -> new HyperLogLog()));
+            }
+        }
+        Map<LocalDate, Long> result = new LinkedHashMap<>();
+        days.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey())
+            .forEach(entry -> result.put(entry.getKey(), entry.getValue().estimate()));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.sketch.flush-interval-ms:10000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            for (Key key : pending.keySet()) {
+                PendingSketch sketch = pending.remove(key);
+                if (sketch == null) {
+                    continue;
+                }
+                HyperLogLog delta = sketch.seal();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> mergeStored(key, delta));
+                } catch (Exception e) {
+                    log.error("Failed to flush {} sketch for {}, will retry", key.metric, key.date, e);
+                    record(key.metric, key.date.atStartOfDay(), retry -> retry.merge(delta));
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Dựng lại sketch PAYING_USERS (từ daily_paying_users, nên chạy sau khi bảng này được dựng lại) và ACTIVE_BIDDERS
+     * (từ bids) cho [from, to]. VIEWERS không có log gốc nên được giữ nguyên.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        flush();
+        writeLock.lock();
+        try {
+            int days = 0;
+            LocalDate chunkStart = from;
+            while (!chunkStart.isAfter(to)) {
+                LocalDate chunkEnd = chunkStart.plusDays(REBUILD_CHUNK_DAYS);
+                if (chunkEnd.isAfter(to.plusDays(1))) {
+                    chunkEnd = to.plusDays(1);
+                }
+                LocalDate start = chunkStart;
+                LocalDate end = chunkEnd;
+                transactionTemplate.executeWithoutResult(status -> rebuildChunk(start, end));
+                days += (int) (end.toEpochDay() - start.toEpochDay());
+                chunkStart = chunkEnd;
+            }
+            log.info("Rebuilt distinct-count sketches from {} to {} ({} days)", from, to, days);
+            return days;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                // Khi daily_stats còn trống, backfill của StatsRollupService sẽ dựng lại cả sketch
+                if (dailySketchRepository.count() > 0 || dailyStatsRepository.count() == 0) {
+                    return;
+                }
+                LocalDate earliest = dailySketchRepository.findEarliestBidDate();
+                if (earliest != null) {
+                    rebuild(earliest, LocalDate.now());
+                }
+            } catch (Exception e) {
+                log.error("Distinct-count sketch backfill failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+        flush();
+    }
+
+    private void rebuildChunk(LocalDate fromDate, LocalDate toDate) {
+        Map<LocalDate, HyperLogLog> payingUsers = new HashMap<>();
+        for (Object[] row : dailySketchRepository.findPayingUsers(fromDate, toDate)) {
+            payingUsers.computeIfAbsent(toLocalDate(row[0]), d -> new HyperLogLog()).add(((Number) row[1]).longValue());
+        }
+        Map<LocalDate, HyperLogLog> bidders = new HashMap<>();
+        for (Object[] row : dailySketchRepository.findBidders(fromDate.atStartOfDay(), toDate.atStartOfDay())) {
+            bidders.computeIfAbsent(toLocalDate(row[0]), d -> new HyperLogLog()).add(((Number) row[1]).longValue());
+        }
+        replaceRange(SketchMetric.PAYING_USERS, fromDate, toDate, payingUsers);
+        replaceRange(SketchMetric.ACTIVE_BIDDERS, fromDate, toDate, bidders);
+    }
+
+    private void replaceRange(SketchMetric metric, LocalDate from, LocalDate to, Map<LocalDate, HyperLogLog> days) {
+        dailySketchRepository.deleteRange(metric, from, to);
+        dailySketchRepository.flush();
+        LocalDateTime now = LocalDateTime.now();
+        days.forEach((date, sketch) ->
+            dailySketchRepository.save(new DailySketch(new DailySketch.Key(date, metric), sketch.toBytes(), now)));
+    }
+
+    private void mergeStored(Key key, HyperLogLog delta) {
+        DailySketch.Key id = new DailySketch.Key(key.date, key.metric);
+        LocalDateTime now = LocalDateTime.now();
+        // Tạo dòng rỗng nếu chưa có rồi khóa nó, để hai node không ghi đè sketch của nhau
+        dailySketchRepository.insertIfAbsent(key.date, key.metric.name(), new HyperLogLog().toBytes(), now);
+        DailySketch stored = dailySketchRepository.findForUpdate(id)
+            .orElseThrow(() -> new IllegalStateException("Sketch row missing for " + id));
+        HyperLogLog merged = HyperLogLog.fromBytes(stored.getSketch());
+        merged.merge(delta);
+        stored.setSketch(merged.toBytes());
+        stored.setUpdatedAt(now);
+        dailySketchRepository.save(stored);
+    }
+
+    private void mergePending(SketchMetric metric, LocalDate from, LocalDate to, HyperLogLog target) {
+        for (Map.Entry<Key, PendingSketch> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            if (key.metric == metric && !key.date.isBefore(from) && !key.date.isAfter(to)) {
+                entry.getValue().mergeInto(target);
+            }
+        }
+    }
+
+    private void record(SketchMetric metric, LocalDateTime occurredAt, Consumer<HyperLogLog> update) {
+        Key key = new Key(metric, (occurredAt != null ? occurredAt : LocalDateTime.now()).toLocalDate());
+        while (true) {
+            PendingSketch sketch = pending.computeIfAbsent(key, k -> new PendingSketch());
+            if (sketch.update(update)) {
+                return;
+            }
+            // Sketch vừa bị flush lấy đi; thử lại với sketch mới
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof LocalDate date) {
+            return date;
+        }
+        return ((Date) value).toLocalDate();
+    }
+
+    private record Key(SketchMetric metric, LocalDate date) {
+    }
+
+    private static final class PendingSketch {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private boolean sealed;
+
+        private synchronized boolean update(Consumer<HyperLogLog> update) {
+            if (sealed) {
+                return false;
+            }
+            update.accept(sketch);
+            return true;
+        }
+
+        private synchronized void mergeInto(HyperLogLog target) {
+            target.merge(sketch);
+        }
+
+        private synchronized HyperLogLog seal() {
+            sealed = true;
+            return sketch;
+        }
+    }
+}
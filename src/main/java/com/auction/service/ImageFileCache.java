@@ -0,0 +1,83 @@
+package com.auction.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache LRU off-heap (direct ByteBuffer) cho ảnh nhỏ được đọc nhiều (thumbnail, card), giới hạn theo tổng số byte.
+ * Ảnh chỉ được đưa vào cache ở lần đọc thứ hai để ảnh xem một lần không đẩy ảnh nóng ra ngoài.
+ * File có tên theo hash nội dung nên không bao giờ cần vô hiệu.
+ */
+@Service
+public class ImageFileCache {
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final Map<Path, ByteBuffer> entries = new LinkedHashMap<>(256, 0.75f, true);
+    // Lần truy cập đầu tiên của mỗi path, giới hạn số phần tử
+    private final Map<Path, Boolean> seenOnce;
+    private long currentBytes;
+
+    public ImageFileCache(@Value("${app.images.serve.cache-max-bytes:33554432}") long maxBytes,
+                          @Value("${app.images.serve.cache-max-entry-bytes:262144}") int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.seenOnce = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, Boolean> eldest) {
+                return size() > 10_000;
+            }
+        };
+    }
+
+    /**
+     * Trả về bản sao chỉ đọc (vị trí riêng) của nội dung file, hoặc null nếu chưa được cache.
+     */
+    public ByteBuffer get(Path file, long size) throws IOException {
+        synchronized (this) {
+            ByteBuffer cached = entries.get(file);
+            if (cached != null) {
+                return cached.asReadOnlyBuffer();
+            }
+            if (size > maxEntryBytes || maxBytes <= 0 || seenOnce.put(file, Boolean.TRUE) == null) {
+                return null;
+            }
+            seenOnce.remove(file);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // đọc đến hết file
+            }
+        }
+        buffer.flip();
+        synchronized (this) {
+            ByteBuffer existing = entries.putIfAbsent(file, buffer);
+            if (existing != null) {
+                return existing.asReadOnlyBuffer();
+            }
+            currentBytes += buffer.capacity();
+            var iterator = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<Path, ByteBuffer> eldest = iterator.next();
+                if (eldest.getValue() == buffer) {
+                    continue;
+                }
+                currentBytes -= eldest.getValue().capacity();
+                iterator.remove();
+            }
+        }
+        return buffer.asReadOnlyBuffer();
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+}
@@ -0,0 +1,415 @@
+package com.auction.service;
+
+import com.auction.dto.AuctionImageDTO;
+import com.auction.enums.ImageRendition;
+import com.auction.enums.RenditionStatus;
+import com.auction.model.AuctionImage;
+import com.auction.repository.AuctionImageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lưu ảnh đấu giá theo nội dung: ảnh được stream vào file tạm đồng thời tính SHA-256, sau đó chuyển vào
+ * {@code original/ab/cd/<hash>.<ext>}, nên file trùng nội dung chỉ lưu một lần và thư mục không phình quá lớn.
+ * Các rendition (thumbnail, card, full) được sinh bất đồng bộ trên pool giới hạn; khi pool đầy thì bỏ qua và
+ * {@link #retryPendingRenditions()} sẽ xếp lại sau. Ảnh lỗi liên tiếp max-attempts lần được đánh dấu FAILED để
+ * không bị giải mã lại mãi.
+ */
+@Slf4j
+@Service
+public class ImageStorageService {
+    private static final String ORIGINAL_DIRECTORY = "original";
+    private static final String TEMP_DIRECTORY = "tmp";
+    private static final String RENDITION_EXTENSION = "jpg";
+    private static final int SNIFF_BYTES = 12;
+
+    private final AuctionImageRepository auctionImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final String urlPrefix;
+    private final ThreadPoolExecutor renditionExecutor;
+    // Hash đang chờ/đang sinh, để upload trùng không xếp hàng hai lần
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Số lần sinh rendition lỗi liên tiếp theo hash trên node này
+    private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final int maxAttempts;
+
+    public ImageStorageService(AuctionImageRepository auctionImageRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.file.upload-dir:./uploads/images}") String uploadDir,
+                               @Value("${app.images.url-prefix:/uploads/images}") String urlPrefix,
+                               @Value("${app.images.rendition.threads:2}") int threads,
+                               @Value("${app.images.rendition.queue-capacity:200}") int queueCapacity,
+                               @Value("${app.images.rendition.max-attempts:3}") int maxAttempts) {
+        this.auctionImageRepository = auctionImageRepository;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.transactionTemplate = transactionTemplate;
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.urlPrefix = urlPrefix.endsWith("/") ? urlPrefix.substring(0, urlPrefix.length() - 1) : urlPrefix;
+        this.renditionExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread thread = new Thread(r, "image-renditions");
+                thread.setDaemon(true);
+                // Ưu tiên thấp để không giành CPU với luồng xử lý đặt giá
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            (task, executor) -> {
+                // Hàng đợi đầy: bỏ qua, retryPendingRenditions sẽ xếp lại
+                if (task instanceof RenditionTask rejected) {
+                    inFlight.remove(rejected.hash);
+                    log.warn("Image rendition queue full, deferring {}", rejected.fileName);
+                }
+            });
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Lưu ảnh upload và tạo {@link AuctionImage} (chưa persist) trỏ tới ảnh gốc. Rendition được sinh sau khi gọi
+     * {@link #scheduleRenditions(List)}.
+     */
+    public AuctionImage store(MultipartFile file) {
+        try {
+            Files.createDirectories(root.resolve(TEMP_DIRECTORY));
+            Path temp = Files.createTempFile(root.resolve(TEMP_DIRECTORY), "upload-", ".part");
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                byte[] head = new byte[SNIFF_BYTES];
+                int headLength;
+                long size;
+                try (InputStream in = file.getInputStream();
+                     OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                    headLength = in.readNBytes(head, 0, SNIFF_BYTES);
+                    out.write(head, 0, headLength);
+                    size = headLength + in.transferTo(out);
+                }
+                String extension = detectExtension(head, headLength);
+                if (extension == null) {
+                    throw new IllegalArgumentException("Unsupported image type: " + file.getOriginalFilename());
+                }
+                String hash = HexFormat.of().formatHex(digest.digest());
+                String fileName = hash + "." + extension;
+                Path target = shardedPath(ORIGINAL_DIRECTORY, fileName);
+                Files.createDirectories(target.getParent());
+                if (!Files.exists(target)) {
+                    moveIntoPlace(temp, target);
+                }
+                return AuctionImage.builder()
+                    .fileName(fileName)
+                    .fileType(mimeType(extension))
+                    .size(size)
+                    .url(url(ORIGINAL_DIRECTORY, fileName))
+                    .contentHash(hash)
+                    // Ảnh trùng đã có rendition thì dùng luôn
+                    .renditionStatus(renditionsExist(hash) ? RenditionStatus.READY : RenditionStatus.PENDING)
+                    .build();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save image: " + file.getOriginalFilename(), e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Gọi sau khi các dòng auction_images đã commit, để job cập nhật được trạng thái.
+     */
+    public void scheduleRenditions(List<AuctionImage> images) {
+        for (AuctionImage image : images) {
+            if (image.getContentHash() != null && image.getRenditionStatus() == RenditionStatus.PENDING) {
+                enqueue(image.getContentHash(), image.getFileName());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.images.rendition.retry-interval-ms:60000}")
+    public void retryPendingRenditions() {
+        int capacity = renditionExecutor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Object[]> pending = auctionImageRepository.findPendingRenditions(
+            LocalDateTime.now().minusSeconds(30), PageRequest.of(0, capacity));
+        for (Object[] row : pending) {
+            enqueue((String) row[0], (String) row[1]);
+        }
+    }
+
+    /**
+     * Điền URL các rendition vào DTO; ảnh cũ hoặc chưa có rendition thì mọi cỡ đều trỏ tới ảnh gốc.
+     */
+    public void applyImageUrls(AuctionImageDTO dto, AuctionImage image) {
+        dto.setOriginalUrl(image.getUrl());
+        if (image.getContentHash() != null && image.getRenditionStatus() == RenditionStatus.READY) {
+            String fileName = image.getContentHash() + "." + RENDITION_EXTENSION;
+            dto.setThumbnailUrl(url(ImageRendition.THUMBNAIL.getDirectory(), fileName));
+            dto.setCardUrl(url(ImageRendition.CARD.getDirectory(), fileName));
+            dto.setFullUrl(url(ImageRendition.FULL.getDirectory(), fileName));
+        } else {
+            dto.setThumbnailUrl(image.getUrl());
+            dto.setCardUrl(image.getUrl());
+            dto.setFullUrl(image.getUrl());
+        }
+        dto.setImageUrl(dto.getCardUrl());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renditionExecutor.shutdownNow();
+    }
+
+    private void enqueue(String hash, String fileName) {
+        if (inFlight.add(hash)) {
+            renditionExecutor.execute(new RenditionTask(hash, fileName));
+        }
+    }
+
+    private RenditionStatus generateRenditions(String hash, String fileName) throws IOException {
+        if (renditionsExist(hash)) {
+            return RenditionStatus.READY;
+        }
+        String renditionName = hash + "." + RENDITION_EXTENSION;
+        BufferedImage source = decode(shardedPath(ORIGINAL_DIRECTORY, fileName), ImageRendition.FULL.getMaxDimension());
+        if (source == null) {
+            return RenditionStatus.FAILED;
+        }
+        // Từ lớn đến nhỏ, mỗi cỡ thu nhỏ từ cỡ trước cho nhanh và ít nhòe
+        BufferedImage current = source;
+        ImageRendition[] renditions = ImageRendition.values();
+        for (int i = renditions.length - 1; i >= 0; i--) {
+            ImageRendition rendition = renditions[i];
+            current = resize(current, rendition.getMaxDimension());
+            Path target = shardedPath(rendition.getDirectory(), renditionName);
+            if (!Files.exists(target)) {
+                writeJpeg(current, target, rendition.getJpegQuality());
+            }
+        }
+        return RenditionStatus.READY;
+    }
+
+    private boolean renditionsExist(String hash) {
+        String renditionName = hash + "." + RENDITION_EXTENSION;
+        for (ImageRendition rendition : ImageRendition.values()) {
+            if (!Files.exists(shardedPath(rendition.getDirectory(), renditionName))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Giải mã với subsampling để ảnh 12 MP không chiếm gần 50 MB heap khi chỉ cần cạnh dài {@code targetDimension}.
+     */
+    private static BufferedImage decode(Path file, int targetDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / targetDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BufferedImage current = source;
+        // Giảm một nửa mỗi bước để bilinear không bỏ sót điểm ảnh
+        while (Math.max(width, height) > maxDimension) {
+            double scale = Math.max(0.5, (double) maxDimension / Math.max(width, height));
+            width = Math.max(1, (int) Math.round(width * scale));
+            height = Math.max(1, (int) Math.round(height * scale));
+            current = draw(current, width, height);
+        }
+        if (current.getType() != BufferedImage.TYPE_INT_RGB) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // Nền trắng cho ảnh có kênh alpha vì JPEG không hỗ trợ trong suốt
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(root.resolve(TEMP_DIRECTORY), "rendition-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Upload cùng nội dung chạy song song đã ghi trước
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path shardedPath(String directory, String fileName) {
+        return root.resolve(directory).resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+    }
+
+    private String url(String directory, String fileName) {
+        return urlPrefix + "/" + directory + "/" + fileName.substring(0, 2) + "/" + fileName.substring(2, 4) + "/" + fileName;
+    }
+
+    private static String detectExtension(byte[] head, int length) {
+        if (length >= 3 && (head[0] & 0xFF) == 0xFF && (head[1] & 0xFF) == 0xD8 && (head[2] & 0xFF) == 0xFF) {
+            return "jpg";
+        }
+        if (length >= 8 && (head[0] & 0xFF) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') {
+            return "png";
+        }
+        if (length >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') {
+            return "gif";
+        }
+        if (length >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return "webp";
+        }
+        return null;
+    }
+
+    private final class RenditionTask implements Runnable {
+        private final String hash;
+        private final String fileName;
+
+        private RenditionTask(String hash, String fileName) {
+            this.hash = hash;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public void run() {
+            try {
+                RenditionStatus status = generateRenditions(hash, fileName);
+                updateStatus(status);
+                failedAttempts.remove(hash);
+            } catch (Exception e) {
+                int attempts = failedAttempts.merge(hash, 1, Integer::sum);
+                if (attempts < maxAttempts) {
+                    log.warn("Failed to generate renditions for {} (attempt {}/{})", fileName, attempts, maxAttempts, e);
+                } else {
+                    log.error("Giving up on renditions for {} after {} attempts", fileName, attempts, e);
+                    giveUp();
+                }
+            } finally {
+                inFlight.remove(hash);
+            }
+        }
+
+        private void updateStatus(RenditionStatus status) {
+            transactionTemplate.executeWithoutResult(tx -> auctionImageRepository.updateRenditionStatus(hash, status));
+        }
+
+        private void giveUp() {
+            try {
+                updateStatus(RenditionStatus.FAILED);
+                failedAttempts.remove(hash);
+            } catch (Exception e) {
+                // Còn PENDING: lần thử sau sẽ đánh dấu lại
+                log.error("Failed to mark renditions of {} as FAILED", fileName, e);
+            }
+        }
+    }
+
+    private static String mimeType(String extension) {
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.auction.service;
 
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface JwtService {
@@ -7,4 +8,10 @@ public interface JwtService {
     String generateToken(UserDetails userDetails);
     boolean isTokenValid(String token, UserDetails userDetails);
     String generateRefreshToken(UserDetails userDetails);
-} 
\ No newline at end of file
+
+    /**
+     * Xác thực chữ ký và hạn của token đúng một lần và trả về claims.
+     * Ném {@link io.jsonwebtoken.JwtException} nếu token không hợp lệ hoặc đã hết hạn.
+     */
+    Claims parseClaims(String token);
+}
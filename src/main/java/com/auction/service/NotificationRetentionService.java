@@ -0,0 +1,8 @@
+package com.auction.service;
+
+import com.auction.dto.RetentionStatsResponse;
+
+public interface NotificationRetentionService {
+    RetentionStatsResponse runRetention();
+    RetentionStatsResponse getStats();
+}
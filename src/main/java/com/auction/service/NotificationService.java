@@ -1,11 +1,13 @@
 package com.auction.service;
 
+import com.auction.dto.NotificationGroupSummary;
 import com.auction.model.Notification;
 import com.auction.model.NotificationPreference;
 import com.auction.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -13,12 +15,18 @@ public interface NotificationService {
     void createAndSendNotification(User recipient, String message, String link);
     
     Notification createNotification(User recipient, String message, String type);
+
+    Notification sendOutbidNotification(User recipient, Long auctionId, BigDecimal latestPrice, int outbidCount);
     
     Page<Notification> getUserNotifications(User user, Pageable pageable);
     
     Page<Notification> getUnreadNotifications(User user, Pageable pageable);
     
     Map<String, List<Notification>> getGroupedNotifications(User user);
+
+    Map<String, NotificationGroupSummary> getNotificationGroups(User user, int page, int size);
+
+    NotificationGroupSummary getNotificationGroup(User user, String type, int page, int size);
     
     void markAsRead(Long notificationId);
     
@@ -27,6 +35,8 @@ public interface NotificationService {
     void deleteNotification(Long notificationId);
     
     void deleteAllUserNotifications(User user);
+
+    long getUnreadCount(Long userId);
     
     NotificationPreference getNotificationPreference(User user, String type);
     
@@ -0,0 +1,176 @@
+package com.auction.service;
+
+import com.auction.model.Auction;
+import com.auction.model.NotificationPreference;
+import com.auction.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Gộp thông báo bị vượt giá theo (user, auction) trong một cửa sổ thời gian.
+ * Lần vượt giá đầu tiên được gửi ngay, các lần tiếp theo trong cửa sổ chỉ cập nhật bộ đếm
+ * và được gửi thành một thông báo duy nhất khi cửa sổ kết thúc. Email được gộp theo user
+ * với cửa sổ dài hơn.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutbidDigestService {
+    private final NotificationService notificationService;
+
+    @Value("${app.notifications.outbid-digest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.outbid-digest.window-seconds:30}")
+    private long windowSeconds;
+
+    @Value("${app.notifications.outbid-digest.email-window-seconds:300}")
+    private long emailWindowSeconds;
+
+    private final ConcurrentMap<String, OutbidWindow> windows = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, EmailDigest> emailDigests = new ConcurrentHashMap<>();
+
+    public void onOutbid(User recipient, Auction auction, BigDecimal latestPrice) {
+        if (!enabled) {
+            notificationService.createAndSendNotification(
+                recipient,
+                "Bạn vừa bị vượt giá ở phiên đấu giá #" + auction.getId(),
+                "/auctions/" + auction.getId()
+            );
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        String key = recipient.getId() + ":" + auction.getId();
+        boolean[] leading = {false};
+        windows.compute(key, (k, window) -> {
+            if (window == null || window.closesAt <= now) {
+                leading[0] = true;
+                return new OutbidWindow(recipient, auction.getId(), now + windowSeconds * 1000);
+            }
+            window.pendingCount++;
+            window.latestPrice = latestPrice;
+            return window;
+        });
+        if (leading[0]) {
+            notificationService.sendOutbidNotification(recipient, auction.getId(), latestPrice, 1);
+        }
+
+        emailDigests.compute(recipient.getId(), (k, digest) -> {
+            EmailDigest target = digest != null ? digest : new EmailDigest(recipient, now + emailWindowSeconds * 1000);
+            target.record(auction, latestPrice);
+            return target;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbid-digest.flush-interval-ms:1000}")
+    public void flushExpiredWindows() {
+        long now = System.currentTimeMillis();
+        for (String key : windows.keySet()) {
+            OutbidWindow[] expired = {null};
+            windows.computeIfPresent(key, (k, window) -> {
+                if (window.closesAt > now) {
+                    return window;
+                }
+                expired[0] = window;
+                return null;
+            });
+            OutbidWindow window = expired[0];
+            if (window != null && window.pendingCount > 0) {
+                try {
+                    notificationService.sendOutbidNotification(
+                        window.recipient, window.auctionId, window.latestPrice, window.pendingCount);
+                } catch (Exception e) {
+                    log.error("Failed to flush outbid digest for user {} auction {}",
+                        window.recipient.getId(), window.auctionId, e);
+                }
+            }
+        }
+
+        for (Long userId : emailDigests.keySet()) {
+            EmailDigest[] expired = {null};
+            emailDigests.computeIfPresent(userId, (k, digest) -> {
+                if (digest.sendAt > now) {
+                    return digest;
+                }
+                expired[0] = digest;
+                return null;
+            });
+            if (expired[0] != null) {
+                sendEmailDigest(expired[0]);
+            }
+        }
+    }
+
+    private void sendEmailDigest(EmailDigest digest) {
+        try {
+            NotificationPreference preference = notificationService.getNotificationPreference(digest.recipient, "BID");
+            if (preference == null || !preference.isEmailEnabled()) {
+                return;
+            }
+            StringBuilder content = new StringBuilder("Bạn đã bị vượt giá ở các phiên đấu giá sau:\n");
+            for (AuctionOutbid outbid : digest.auctions.values()) {
+                content.append("- ").append(outbid.title)
+                    .append(" (#").append(outbid.auctionId).append("): ")
+                    .append(outbid.count).append(" lần, giá hiện tại ").append(outbid.latestPrice)
+                    .append('\n');
+            }
+            notificationService.sendEmailNotification(digest.recipient, "Bạn đã bị vượt giá", content.toString());
+        } catch (Exception e) {
+            log.error("Failed to send outbid email digest to user {}", digest.recipient.getId(), e);
+        }
+    }
+
+    private static class OutbidWindow {
+        private final User recipient;
+        private final Long auctionId;
+        private final long closesAt;
+        private int pendingCount;
+        private BigDecimal latestPrice;
+
+        private OutbidWindow(User recipient, Long auctionId, long closesAt) {
+            this.recipient = recipient;
+            this.auctionId = auctionId;
+            this.closesAt = closesAt;
+        }
+    }
+
+    private static class EmailDigest {
+        private final User recipient;
+        private final long sendAt;
+        private final Map<Long, AuctionOutbid> auctions = new LinkedHashMap<>();
+
+        private EmailDigest(User recipient, long sendAt) {
+            this.recipient = recipient;
+            this.sendAt = sendAt;
+        }
+
+        private void record(Auction auction, BigDecimal latestPrice) {
+            AuctionOutbid outbid = auctions.computeIfAbsent(auction.getId(),
+                id -> new AuctionOutbid(id, auction.getTitle()));
+            outbid.count++;
+            outbid.latestPrice = latestPrice;
+        }
+    }
+
+    private static class AuctionOutbid {
+        private final Long auctionId;
+        private final String title;
+        private int count;
+        private BigDecimal latestPrice;
+
+        private AuctionOutbid(Long auctionId, String title) {
+            this.auctionId = auctionId;
+            this.title = title;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.auction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Chạy EXPLAIN cho các truy vấn nóng (dạng SQL Hibernate sinh ra) và báo lỗi khi truy vấn quét toàn bảng.
+ * Trên bảng nhỏ optimizer có thể chọn quét toàn bảng dù có index, nên dưới min-rows chỉ yêu cầu index mong đợi
+ * nằm trong possible_keys. Với fail-on-full-scan, ứng dụng không khởi động được khi có vi phạm. CI chạy kiểm tra này
+ * trên MySQL thật qua QueryPlanVerifierIT (mvn -Pmysql-it verify, cần Docker).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.schema.explain-check", name = "enabled", havingValue = "true")
+public class QueryPlanVerifier {
+    private static final List<HotQuery> HOT_QUERIES = List.of(
+        new HotQuery("highest bid", "bids", "idx_bids_auction_amount",
+            "SELECT id, amount FROM bids WHERE auction_id = 1 ORDER BY amount DESC LIMIT 1"),
+        new HotQuery("winning bid", "bids", "idx_bids_auction_winning",
+            "SELECT id FROM bids WHERE auction_id = 1 AND is_winning = TRUE"),
+        new HotQuery("unread notifications", "notifications", "idx_notifications_recipient_read_created",
+            "SELECT id FROM notifications WHERE recipient_id = 1 AND is_read = FALSE ORDER BY created_at DESC LIMIT 20"),
+        new HotQuery("notifications", "notifications", "idx_notifications_recipient_read_created",
+            "SELECT id FROM notifications WHERE recipient_id = 1 ORDER BY created_at DESC LIMIT 20"),
+        new HotQuery("notification group page", "notifications", "idx_notifications_recipient_type_created",
+            "SELECT id FROM notifications WHERE recipient_id = 1 AND type = 'OUTBID' ORDER BY created_at DESC, id DESC LIMIT 6"),
+        new HotQuery("auctions to end", "auctions", "idx_auctions_status_end",
+            "SELECT id FROM auctions WHERE end_time <= NOW() AND status = 'ACTIVE'"),
+        new HotQuery("auctions to start", "auctions", "idx_auctions_status_start",
+            "SELECT id FROM auctions WHERE start_time <= NOW() AND status = 'PENDING'"),
+        new HotQuery("expired payments", "payment_orders", "idx_payment_orders_status_expires",
+            "SELECT id FROM payment_orders WHERE status = 'PENDING' AND expires_at <= NOW() ORDER BY expires_at LIMIT 100")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnFullScan;
+    private final long minRows;
+
+    public QueryPlanVerifier(JdbcTemplate jdbcTemplate,
+                             @Value("${app.schema.explain-check.fail-on-full-scan:false}") boolean failOnFullScan,
+                             @Value("${app.schema.explain-check.min-rows:1000}") long minRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnFullScan = failOnFullScan;
+        this.minRows = minRows;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verify() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            log.info("Skipping query plan check on {}", product);
+            return;
+        }
+        List<String> violations = findViolations();
+        if (violations.isEmpty()) {
+            log.info("Query plan check passed for {} hot queries", HOT_QUERIES.size());
+            return;
+        }
+        violations.forEach(violation -> log.warn("Query plan regression - {}", violation));
+        if (failOnFullScan) {
+            throw new IllegalStateException("Hot queries fall back to full scans: " + violations);
+        }
+    }
+
+    // Vi phạm của từng truy vấn nóng, dạng "<tên>: <vấn đề>"; chỉ có nghĩa trên MySQL
+    List<String> findViolations() {
+        List<String> violations = new ArrayList<>();
+        for (HotQuery query : HOT_QUERIES) {
+            String problem = check(query);
+            if (problem != null) {
+                violations.add(query.name() + ": " + problem);
+            }
+        }
+        return violations;
+    }
+
+    private String check(HotQuery query) {
+        for (Map<String, Object> row : jdbcTemplate.queryForList("EXPLAIN " + query.sql())) {
+            if (!query.table().equals(row.get("table"))) {
+                continue;
+            }
+            String possibleKeys = (String) row.get("possible_keys");
+            if (possibleKeys == null || !List.of(possibleKeys.split(",")).contains(query.expectedIndex())) {
+                return "index " + query.expectedIndex() + " not usable (possible_keys=" + possibleKeys + ")";
+            }
+            Number rows = (Number) row.get("rows");
+            boolean fullScan = "ALL".equals(row.get("type")) || row.get("key") == null;
+            if (fullScan && rows != null && rows.longValue() >= minRows) {
+                return "full scan of ~" + rows + " rows on " + query.table();
+            }
+            return null;
+        }
+        // Bảng không xuất hiện khi optimizer đã loại trừ được nó (ví dụ bảng rỗng), không phải quét toàn bảng
+        return null;
+    }
+
+    private record HotQuery(String name, String table, String expectedIndex, String sql) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.auction.service;
+
+import com.auction.event.BidPlacedEvent;
+import com.auction.security.UserPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Quyết định transaction read-only có được đọc từ replica hay không (xem ReplicaDataSourceConfig):
+ * <ul>
+ *   <li>replica phải đang khỏe, tức độ trễ đo bằng heartbeat không vượt ngưỡng;</li>
+ *   <li>user vừa đặt giá được ghim vào primary trong một khoảng ngắn để thấy ngay dữ liệu mình vừa ghi
+ *   (ghim áp dụng ngay tại node nhận bid; các node khác nhận qua {@link ClusterEventBus}, mỗi user tối đa một
+ *   thông điệp trong nửa thời gian ghim, kéo dài thêm nửa thời gian đó, nên số thông điệp không tăng theo tốc độ
+ *   đặt giá);</li>
+ *   <li>đoạn code bọc trong {@link #onPrimary(Supplier)} luôn đọc primary (ví dụ nạp cache).</li>
+ * </ul>
+ * Khi không cấu hình replica, service vẫn tồn tại nhưng không ảnh hưởng gì.
+ */
+@Slf4j
+@Service
+public class ReadRoutingService {
+    public static final String PIN_TOPIC = "read-pin";
+
+    private final ClusterEventBus clusterEventBus;
+    private final boolean enabled;
+    private final long pinMillis;
+    private final long maxLagMillis;
+    // userId -> thời điểm hết ghim (epoch ms)
+    private final Map<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+    // userId -> lần cuối phát ghim cho các node khác (epoch ms)
+    private final Map<Long, Long> pinBroadcastAt = new ConcurrentHashMap<>();
+    private final ThreadLocal<Integer> primaryDepth = ThreadLocal.withInitial(() -> 0);
+    private volatile boolean replicaHealthy;
+    private volatile long lastLagMillis = -1;
+
+    public ReadRoutingService(ClusterEventBus clusterEventBus,
+                              @Value("${app.datasource.replica.url:}") String replicaUrl,
+                              @Value("${app.datasource.replica.read-your-writes-ms:5000}") long pinMillis,
+                              @Value("${app.datasource.replica.max-lag-ms:3000}") long maxLagMillis) {
+        this.clusterEventBus = clusterEventBus;
+        this.enabled = !replicaUrl.isBlank();
+        this.pinMillis = pinMillis;
+        this.maxLagMillis = maxLagMillis;
+        clusterEventBus.subscribe(PIN_TOPIC, this::onPinMessage);
+    }
+
+    public boolean shouldUseReplica() {
+        if (!replicaHealthy || primaryDepth.get() > 0) {
+            return false;
+        }
+        Long userId = currentUserId();
+        if (userId == null) {
+            return true;
+        }
+        Long until = pinnedUntil.get(userId);
+        return until == null || until < System.currentTimeMillis();
+    }
+
+    /**
+     * Chạy loader với mọi truy vấn read-only trên thread hiện tại đi vào primary.
+     */
+    public <T> T onPrimary(Supplier<T> loader) {
+        primaryDepth.set(primaryDepth.get() + 1);
+        try {
+            return loader.get();
+        } finally {
+            int depth = primaryDepth.get() - 1;
+            if (depth == 0) {
+                primaryDepth.remove();
+            } else {
+                primaryDepth.set(depth);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBidPlaced(BidPlacedEvent event) {
+        if (!enabled || event.getBidderId() == null) {
+            return;
+        }
+        Long userId = event.getBidderId();
+        long now = System.currentTimeMillis();
+        pinLocal(userId);
+        // Ghim phát đi dài pinMillis * 1.5 nên bid trong nửa thời gian ghim sau lần phát trước vẫn được che phủ
+        long threshold = now - pinMillis / 2;
+        if (pinBroadcastAt.compute(userId, (id, last) -> last == null || last < threshold ? now : last) == now) {
+            clusterEventBus.publish(PIN_TOPIC, userId + ":" + (now + pinMillis + pinMillis / 2));
+        }
+    }
+
+    public void pinLocal(Long userId) {
+        pinnedUntil.merge(userId, System.currentTimeMillis() + pinMillis, Math::max);
+    }
+
+    private void onPinMessage(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            pinLocal(Long.valueOf(payload));
+            return;
+        }
+        Long userId = Long.valueOf(payload.substring(0, separator));
+        pinnedUntil.merge(userId, Long.parseLong(payload.substring(separator + 1)), Math::max);
+    }
+
+    /**
+     * Ghi nhận độ trễ đo được; âm nghĩa là không đọc được replica.
+     */
+    public void reportLag(long lagMillis) {
+        boolean healthy = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        if (healthy != replicaHealthy) {
+            if (healthy) {
+                log.info("Replica caught up (lag {} ms), routing read-only transactions to it", lagMillis);
+            } else if (lagMillis < 0) {
+                log.warn("Replica unreachable, routing reads to primary");
+            } else {
+                log.warn("Replica lag {} ms exceeds {} ms, routing reads to primary", lagMillis, maxLagMillis);
+            }
+        }
+        lastLagMillis = lagMillis;
+        replicaHealthy = healthy;
+    }
+
+    public boolean isReplicaHealthy() {
+        return replicaHealthy;
+    }
+
+    public long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-ms:5000}")
+    public void pruneExpiredPins() {
+        long now = System.currentTimeMillis();
+        pinnedUntil.values().removeIf(until -> until < now);
+        pinBroadcastAt.values().removeIf(at -> at < now - pinMillis);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+}
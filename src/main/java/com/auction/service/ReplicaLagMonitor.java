@@ -0,0 +1,54 @@
+package com.auction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+/**
+ * Đo độ trễ replica: ghi epoch ms hiện tại vào replica_heartbeat trên primary, đọc lại giá trị đã replicate
+ * trên replica. Độ trễ đo được gồm cả chu kỳ heartbeat, nên ngưỡng max-lag-ms phải lớn hơn chu kỳ.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReplicaLagMonitor {
+    private static final int HEARTBEAT_ID = 1;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReadRoutingService readRoutingService;
+
+    public ReplicaLagMonitor(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                             @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             ReadRoutingService readRoutingService) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.readRoutingService = readRoutingService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            Long beat = replica.query("SELECT beat_at_ms FROM replica_heartbeat WHERE id = ?",
+                rs -> rs.next() ? rs.getLong(1) : null, HEARTBEAT_ID);
+            readRoutingService.reportLag(beat == null ? -1 : Math.max(0, now - beat));
+        } catch (DataAccessException e) {
+            log.debug("Replica heartbeat read failed: {}", e.getMessage());
+            readRoutingService.reportLag(-1);
+        }
+        try {
+            if (primary.update("UPDATE replica_heartbeat SET beat_at_ms = ? WHERE id = ?", now, HEARTBEAT_ID) == 0) {
+                primary.update("INSERT INTO replica_heartbeat (id, beat_at_ms) VALUES (?, ?)", HEARTBEAT_ID, now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat write failed: {}", e.getMessage());
+        }
+    }
+}
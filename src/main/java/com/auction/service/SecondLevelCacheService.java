@@ -0,0 +1,171 @@
+package com.auction.service;
+
+import com.auction.config.SecondLevelCacheConfig;
+import com.auction.dto.CacheStatsResponse;
+import com.auction.event.CachedEntityChangedEvent;
+import com.auction.event.UserRolesChangedEvent;
+import com.auction.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vô hiệu second-level cache giữa các node và tổng hợp thống kê cache cho trang admin. Trên node ghi, Hibernate đã
+ * tự cập nhật cache; các node khác xóa entity (và query cache tham chiếu) khi nhận thông điệp qua
+ * {@link ClusterEventBus}.
+ */
+@Slf4j
+@Service
+public class SecondLevelCacheService {
+    public static final String INVALIDATION_TOPIC = "l2-cache";
+    // Khóa resource gắn với transaction, giữ các entity đã đổi chờ phát sau commit
+    private static final Object PENDING_KEY = new Object();
+
+    private final SessionFactory sessionFactory;
+    private final ClusterEventBus clusterEventBus;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory, ClusterEventBus clusterEventBus) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.clusterEventBus = clusterEventBus;
+        clusterEventBus.subscribe(INVALIDATION_TOPIC, this::evictLocal);
+    }
+
+    /**
+     * Gom các thay đổi trong cùng transaction (một entity có thể được flush nhiều lần) và phát mỗi entity một lần
+     * sau commit. User mới tạo bị bỏ qua: chưa node nào cache nó và không có query cache nào trên users.
+     */
+    @EventListener
+    public void onCachedEntityChanged(CachedEntityChangedEvent event) {
+        if (event.isCreated() && User.class.equals(event.getEntityType())) {
+            return;
+        }
+        enqueue(event.getEntityType().getName() + "#" + event.getId());
+    }
+
+    /**
+     * Chỉ đổi tập roles là cập nhật collection: User không có @Version nên Hibernate không gọi @PostUpdate và
+     * {@link #onCachedEntityChanged} không chạy. Phát vô hiệu User (kèm collection users.roles) một cách tường minh.
+     */
+    @EventListener
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        enqueue(User.class.getName() + "#" + event.getUserId());
+    }
+
+    /**
+     * Xóa entity User và collection roles khỏi L2 của node này, để lần nạp tiếp theo đọc từ DB.
+     */
+    public void evictUserLocal(Long userId) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(User.class, userId);
+        cache.evictCollectionData(User.class.getName() + ".roles", userId);
+    }
+
+    private void enqueue(String payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            clusterEventBus.publish(INVALIDATION_TOPIC, payload);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<String> changed = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (changed == null) {
+            Set<String> pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.forEach(changedEntity -> clusterEventBus.publish(INVALIDATION_TOPIC, changedEntity));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            changed = pending;
+        }
+        changed.add(payload);
+    }
+
+    void evictLocal(String payload) {
+        int separator = payload.lastIndexOf('#');
+        if (separator < 0) {
+            log.warn("Ignoring malformed L2 cache invalidation: {}", payload);
+            return;
+        }
+        String entityName = payload.substring(0, separator);
+        Long id = Long.valueOf(payload.substring(separator + 1));
+        if (User.class.getName().equals(entityName)) {
+            evictUserLocal(id);
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName, id);
+        // Query cache tham chiếu role/template/preference (kể cả kết quả rỗng trước khi bản ghi được tạo)
+        cache.evictQueryRegion(SecondLevelCacheConfig.REFERENCE_QUERIES);
+    }
+
+    public CacheStatsResponse getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setStatisticsSince(LocalDateTime.ofInstant(statistics.getStart(), ZoneId.systemDefault()));
+
+        List<CacheStatsResponse.RegionStats> regions = new ArrayList<>();
+        // Gồm cả region entity/collection và region query cache
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(regionStats(region, regionStatistics));
+            }
+        }
+        response.setRegions(regions);
+
+        response.setSecondLevelHits(statistics.getSecondLevelCacheHitCount());
+        response.setSecondLevelMisses(statistics.getSecondLevelCacheMissCount());
+        response.setSecondLevelHitRatio(ratio(response.getSecondLevelHits(), response.getSecondLevelMisses()));
+        response.setQueryCacheHits(statistics.getQueryCacheHitCount());
+        response.setQueryCacheMisses(statistics.getQueryCacheMissCount());
+        response.setQueryCacheHitRatio(ratio(response.getQueryCacheHits(), response.getQueryCacheMisses()));
+
+        response.setStatementsPrepared(statistics.getPrepareStatementCount());
+        response.setStatementsAvoided(response.getSecondLevelHits() + response.getQueryCacheHits());
+        response.setStatementReductionRatio(ratio(response.getStatementsAvoided(), response.getStatementsPrepared()));
+        response.setEntityLoads(statistics.getEntityLoadCount());
+        response.setQueryExecutions(statistics.getQueryExecutionCount());
+        return response;
+    }
+
+    public void resetStats() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    private CacheStatsResponse.RegionStats regionStats(String region, CacheRegionStatistics statistics) {
+        CacheStatsResponse.RegionStats stats = new CacheStatsResponse.RegionStats();
+        stats.setRegion(region);
+        stats.setHits(statistics.getHitCount());
+        stats.setMisses(statistics.getMissCount());
+        stats.setPuts(statistics.getPutCount());
+        stats.setHitRatio(ratio(statistics.getHitCount(), statistics.getMissCount()));
+        long entries = statistics.getElementCountInMemory();
+        stats.setEntriesInMemory(entries >= 0 ? entries : null);
+        return stats;
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,261 @@
+package com.auction.service;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.event.AuctionCreatedEvent;
+import com.auction.event.BidPlacedEvent;
+import com.auction.event.UserRegisteredEvent;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.repository.PaymentOrderRepository;
+import com.auction.repository.DailyPayingUserRepository;
+import com.auction.repository.DailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Duy trì bảng daily_stats. Domain event (sau khi commit) được cộng vào bộ đệm theo ngày trong bộ nhớ và
+ * flush định kỳ bằng một câu upsert mỗi ngày, nên luồng đặt giá không phải tranh khóa trên dòng của ngày hôm nay.
+ * Số liệu mất khi node dừng đột ngột được khôi phục bằng {@link #rebuild(LocalDate, LocalDate)}.
+ */
+@Slf4j
+@Service
+public class StatsRollupService {
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailyPayingUserRepository dailyPayingUserRepository;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final DistinctCountService distinctCountService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<LocalDate, DayDelta> pending = new ConcurrentHashMap<>();
+    // Flush và rebuild không chạy chồng lên nhau
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stats-rollup-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.stats.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    public StatsRollupService(DailyStatsRepository dailyStatsRepository,
+                              DailyPayingUserRepository dailyPayingUserRepository,
+                              PaymentOrderRepository paymentOrderRepository,
+                              DistinctCountService distinctCountService,
+                              TransactionTemplate transactionTemplate) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.dailyPayingUserRepository = dailyPayingUserRepository;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.distinctCountService = distinctCountService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        record(event.getOccurredAt(), delta -> delta.newUsers++);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuctionCreated(AuctionCreatedEvent event) {
+        record(event.getOccurredAt(), delta -> delta.newAuctions++);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBidPlaced(BidPlacedEvent event) {
+        record(event.getOccurredAt(), delta -> delta.bids++);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        BigDecimal amount = event.getAmount() != null ? event.getAmount() : BigDecimal.ZERO;
+        if (event.getToStatus() == PaymentStatus.COMPLETED) {
+            record(event.getOccurredAt(), delta -> {
+                delta.revenue = delta.revenue.add(amount);
+                delta.completedPayments++;
+                if (event.getUserId() != null) {
+                    delta.payingUsers.add(event.getUserId());
+                }
+            });
+        } else if (event.getFromStatus() == PaymentStatus.COMPLETED) {
+            // Hoàn tiền trừ vào ngày đã thanh toán; paying_users của ngày đó được sửa khi rebuild
+            LocalDateTime paidAt = paymentOrderRepository.findById(event.getPaymentOrderId())
+                .map(PaymentOrder::getPaidAt)
+                .orElse(event.getOccurredAt());
+            record(paidAt, delta -> {
+                delta.revenue = delta.revenue.subtract(amount);
+                delta.completedPayments--;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.rollup.flush-interval-ms:5000}")
+    public void flush() {
+        writeLock.lock();
+        try {
+            for (LocalDate date : pending.keySet()) {
+                DayDelta delta = pending.remove(date);
+                if (delta == null) {
+                    continue;
+                }
+                delta.seal();
+                try {
+                    transactionTemplate.executeWithoutResult(status -> apply(date, delta));
+                } catch (Exception e) {
+                    log.error("Failed to flush stats rollup for {}, will retry", date, e);
+                    requeue(date, delta);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Dựng lại daily_stats cho các ngày trong [from, to] từ bảng gốc, theo từng khối ngày trong một transaction,
+     * sau đó dựng lại các sketch đếm phân biệt của cùng khoảng.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        int days = rebuildRollup(from, to);
+        distinctCountService.rebuild(from, to);
+        return days;
+    }
+
+    private int rebuildRollup(LocalDate from, LocalDate to) {
+        flush();
+        writeLock.lock();
+        try {
+            int days = 0;
+            LocalDate chunkStart = from;
+            while (!chunkStart.isAfter(to)) {
+                LocalDate chunkEnd = chunkStart.plusDays(REBUILD_CHUNK_DAYS);
+                if (chunkEnd.isAfter(to.plusDays(1))) {
+                    chunkEnd = to.plusDays(1);
+                }
+                LocalDate start = chunkStart;
+                LocalDate end = chunkEnd;
+                transactionTemplate.executeWithoutResult(status -> rebuildChunk(start, end));
+                days += (int) (end.toEpochDay() - start.toEpochDay());
+                chunkStart = chunkEnd;
+            }
+            log.info("Rebuilt daily stats from {} to {} ({} days)", from, to, days);
+            return days;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                if (dailyStatsRepository.count() > 0) {
+                    return;
+                }
+                LocalDateTime earliest = dailyStatsRepository.findEarliestActivity();
+                if (earliest != null) {
+                    rebuild(earliest.toLocalDate(), LocalDate.now());
+                }
+            } catch (Exception e) {
+                log.error("Daily stats backfill failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+        flush();
+    }
+
+    private void rebuildChunk(LocalDate fromDate, LocalDate toDate) {
+        LocalDateTime from = fromDate.atStartOfDay();
+        LocalDateTime to = toDate.atStartOfDay();
+        LocalDateTime now = LocalDateTime.now();
+        dailyStatsRepository.deleteRange(fromDate, toDate);
+        dailyPayingUserRepository.deleteRange(fromDate, toDate);
+        dailyPayingUserRepository.rebuild(from, to);
+        dailyStatsRepository.rebuildPayments(from, to, now);
+        dailyStatsRepository.rebuildPayingUsers(fromDate, toDate, now);
+        dailyStatsRepository.rebuildNewUsers(from, to, now);
+        dailyStatsRepository.rebuildNewAuctions(from, to, now);
+        dailyStatsRepository.rebuildBids(from, to, now);
+    }
+
+    private void apply(LocalDate date, DayDelta delta) {
+        long newPayingUsers = 0;
+        for (Long userId : delta.payingUsers) {
+            newPayingUsers += dailyPayingUserRepository.insertIfAbsent(date, userId);
+        }
+        dailyStatsRepository.addDeltas(date, delta.revenue, delta.completedPayments, newPayingUsers,
+            delta.newUsers, delta.newAuctions, delta.bids, LocalDateTime.now());
+    }
+
+    private void record(LocalDateTime occurredAt, Consumer<DayDelta> update) {
+        LocalDate date = (occurredAt != null ? occurredAt : LocalDateTime.now()).toLocalDate();
+        while (true) {
+            DayDelta delta = pending.computeIfAbsent(date, d -> new DayDelta());
+            if (delta.update(update)) {
+                return;
+            }
+            // Delta vừa bị flush lấy đi; thử lại với delta mới của ngày đó
+        }
+    }
+
+    private void requeue(LocalDate date, DayDelta failed) {
+        record(date.atStartOfDay(), delta -> delta.merge(failed));
+    }
+
+    private static final class DayDelta {
+        private BigDecimal revenue = BigDecimal.ZERO;
+        private long completedPayments;
+        private long newUsers;
+        private long newAuctions;
+        private long bids;
+        private final Set<Long> payingUsers = new HashSet<>();
+        private boolean sealed;
+
+        private synchronized boolean update(Consumer<DayDelta> update) {
+            if (sealed) {
+                return false;
+            }
+            update.accept(this);
+            return true;
+        }
+
+        private synchronized void seal() {
+            sealed = true;
+        }
+
+        private void merge(DayDelta other) {
+            revenue = revenue.add(other.revenue);
+            completedPayments += other.completedPayments;
+            newUsers += other.newUsers;
+            newAuctions += other.newAuctions;
+            bids += other.bids;
+            payingUsers.addAll(other.payingUsers);
+        }
+    }
+}
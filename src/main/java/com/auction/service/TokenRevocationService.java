@@ -0,0 +1,317 @@
+package com.auction.service;
+
+import com.auction.event.UserBlockedEvent;
+import com.auction.event.UserRolesChangedEvent;
+import com.auction.model.RevokedToken;
+import com.auction.model.UserTokenWatermark;
+import com.auction.repository.RevokedTokenRepository;
+import com.auction.repository.UserRepository;
+import com.auction.repository.UserTokenWatermarkRepository;
+import com.auction.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kiểm tra token đã thu hồi và user bị khóa trong O(1), không truy vấn DB.
+ * <ul>
+ *   <li>Token thu hồi: Bloom filter (không khóa) đứng trước bảng băm địa chỉ mở chứa fingerprint 64-bit của jti
+ *   và hạn của token; chỉ khi filter báo có mới tra bảng. Bảng gốc là revoked_tokens.</li>
+ *   <li>User bị khóa: tập id lấy từ users.blocked.</li>
+ *   <li>User đổi quyền: mốc thời gian theo user (user_token_watermarks); access token phát hành không sau mốc
+ *   mang roles cũ trong claim nên bị từ chối. Mốc được giữ đến khi mọi token như vậy hết hạn.</li>
+ * </ul>
+ * Thay đổi được đồng bộ giữa các node qua {@link ClusterEventBus}; token hết hạn được dọn khỏi DB và bộ nhớ định kỳ.
+ * <p>
+ * Bộ nhớ cho kịch bản 1 triệu user, mỗi user đăng xuất một lần trong thời hạn token (1 triệu jti còn hiệu lực):
+ * Bloom filter p = 1% khoảng 1.2 MB, bảng fingerprint 2^21 ô × 12 byte khoảng 24 MB;
+ * 1% user bị khóa (10 nghìn id) khoảng 0.6 MB.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+    public static final String TOKEN_TOPIC = "token-revoked";
+    public static final String USER_TOPIC = "user-blocked";
+    public static final String WATERMARK_TOPIC = "user-roles-changed";
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    private static final int PRUNE_BATCH_SIZE = 5_000;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final UserTokenWatermarkRepository watermarkRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> blockedUsers = ConcurrentHashMap.newKeySet();
+    // userId -> epoch second của lần đổi quyền gần nhất
+    private final Map<Long, Long> tokenWatermarks = new ConcurrentHashMap<>();
+    private final long tokenLifetimeMs;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private volatile BloomFilter bloomFilter;
+    private RevokedTable revokedTable;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  UserRepository userRepository,
+                                  UserTokenWatermarkRepository watermarkRepository,
+                                  ClusterEventBus clusterEventBus,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${application.security.jwt.expiration}") long tokenLifetimeMs,
+                                  @Value("${app.revocation.expected-tokens:1000000}") long expectedTokens,
+                                  @Value("${app.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.clusterEventBus = clusterEventBus;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedTokens, falsePositiveRate);
+        this.revokedTable = new RevokedTable(16);
+    }
+
+    @PostConstruct
+    void load() {
+        // Đăng ký trước khi nạp để không lỡ thông điệp đến trong lúc nạp; áp dụng lại là vô hại
+        clusterEventBus.subscribe(TOKEN_TOPIC, this::applyTokenMessage);
+        clusterEventBus.subscribe(USER_TOPIC, this::applyUserMessage);
+        clusterEventBus.subscribe(WATERMARK_TOPIC, this::applyWatermarkMessage);
+
+        blockedUsers.addAll(userRepository.findBlockedUserIds());
+        LocalDateTime now = LocalDateTime.now();
+        for (UserTokenWatermark watermark : watermarkRepository.findByNotBeforeAfter(watermarkCutoff(now))) {
+            advanceLocal(watermark.getUserId(), toEpochSecond(watermark.getNotBefore()));
+        }
+        String after = "";
+        int loaded = 0;
+        List<RevokedToken> page;
+        do {
+            page = revokedTokenRepository.findActivePage(after, now, LOAD_PAGE_SIZE);
+            for (RevokedToken token : page) {
+                addLocal(BloomFilter.hash(token.getJti()), toEpochSecond(token.getExpiresAt()));
+                after = token.getJti();
+            }
+            loaded += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Loaded {} revoked tokens, {} blocked users and {} role-change watermarks",
+            loaded, blockedUsers.size(), tokenWatermarks.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        long fingerprint = BloomFilter.hash(jti);
+        if (!bloomFilter.mightContain(fingerprint)) {
+            return false;
+        }
+        synchronized (this) {
+            return revokedTable.contains(fingerprint, Instant.now().getEpochSecond());
+        }
+    }
+
+    public boolean isUserBlocked(Long userId) {
+        return userId != null && blockedUsers.contains(userId);
+    }
+
+    /**
+     * Token phát hành không sau lần đổi quyền gần nhất của user; iat của JWT chỉ chính xác đến giây nên token
+     * phát hành cùng giây với lần đổi quyền cũng bị coi là cũ.
+     */
+    public boolean isIssuedBeforeRoleChange(Long userId, Instant issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Long watermark = tokenWatermarks.get(userId);
+        return watermark != null && (issuedAt == null || issuedAt.getEpochSecond() <= watermark);
+    }
+
+    /**
+     * Thu hồi một access token đến khi nó hết hạn. Có hiệu lực ngay trên node này, các node khác sau một chu kỳ polling.
+     */
+    public void revoke(String jti, Long userId, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.insertIfAbsent(
+            jti, userId, LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault())));
+        clusterEventBus.publish(TOKEN_TOPIC, BloomFilter.hash(jti) + ":" + expiresAt.getEpochSecond());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserBlocked(UserBlockedEvent event) {
+        clusterEventBus.publish(USER_TOPIC, event.getUserId() + ":" + (event.isBlocked() ? 1 : 0));
+    }
+
+    // Ghi mốc trong transaction đổi quyền để mốc và roles mới cùng commit
+    @EventListener
+    public void recordRoleChange(UserRolesChangedEvent event) {
+        watermarkRepository.advance(event.getUserId(),
+            LocalDateTime.ofInstant(event.getChangedAt(), ZoneId.systemDefault()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        clusterEventBus.publish(WATERMARK_TOPIC, event.getUserId() + ":" + event.getChangedAt().getEpochSecond());
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.prune-interval-ms:600000}")
+    public void pruneExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermarkCutoff = watermarkCutoff(now);
+        transactionTemplate.executeWithoutResult(status -> watermarkRepository.deleteOlderThan(watermarkCutoff));
+        long watermarkCutoffEpoch = toEpochSecond(watermarkCutoff);
+        tokenWatermarks.values().removeIf(watermark -> watermark < watermarkCutoffEpoch);
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> revokedTokenRepository.deleteExpired(now, PRUNE_BATCH_SIZE));
+        } while (deleted == PRUNE_BATCH_SIZE);
+
+        // Dựng lại bảng và filter chỉ với token còn hạn, vì Bloom filter không xóa được phần tử
+        long nowEpoch = Instant.now().getEpochSecond();
+        synchronized (this) {
+            RevokedTable live = new RevokedTable(revokedTable.size());
+            BloomFilter filter = new BloomFilter(Math.max(expectedTokens, revokedTable.size()), falsePositiveRate);
+            revokedTable.forEachLive(nowEpoch, (fingerprint, expiresAt) -> {
+                live.put(fingerprint, expiresAt);
+                filter.put(fingerprint);
+            });
+            revokedTable = live;
+            bloomFilter = filter;
+        }
+    }
+
+    private void applyTokenMessage(String payload) {
+        int separator = payload.indexOf(':');
+        addLocal(Long.parseLong(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+    }
+
+    private void applyUserMessage(String payload) {
+        int separator = payload.indexOf(':');
+        Long userId = Long.valueOf(payload.substring(0, separator));
+        if (payload.endsWith(":1")) {
+            blockedUsers.add(userId);
+        } else {
+            blockedUsers.remove(userId);
+        }
+    }
+
+    private void applyWatermarkMessage(String payload) {
+        int separator = payload.indexOf(':');
+        advanceLocal(Long.valueOf(payload.substring(0, separator)), Long.parseLong(payload.substring(separator + 1)));
+    }
+
+    private void advanceLocal(Long userId, long epochSecond) {
+        tokenWatermarks.merge(userId, epochSecond, Math::max);
+    }
+
+    // Token phát hành trước mốc này đã hết hạn nên mốc cũ hơn không còn tác dụng
+    private LocalDateTime watermarkCutoff(LocalDateTime now) {
+        return now.minusNanos(tokenLifetimeMs * 1_000_000L).minusMinutes(1);
+    }
+
+    private synchronized void addLocal(long fingerprint, long expiresAtEpochSecond) {
+        revokedTable.put(fingerprint, expiresAtEpochSecond);
+        // Ghi bảng trước filter để ai thấy filter báo có thì cũng thấy dòng trong bảng
+        bloomFilter.put(fingerprint);
+    }
+
+    private static long toEpochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private interface EntryConsumer {
+        void accept(long fingerprint, long expiresAt);
+    }
+
+    /**
+     * Bảng băm địa chỉ mở (linear probing) fingerprint → hạn, 12 byte mỗi ô, không xóa tại chỗ.
+     * Hạn lưu theo phút (làm tròn lên) để vừa int; fingerprint 0 được dùng làm ô trống nên được đổi thành 1.
+     * Không thread-safe.
+     */
+    private static final class RevokedTable {
+        private long[] fingerprints;
+        private int[] expiries;
+        private int size;
+
+        private RevokedTable(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 4 / 3) * 2 - 1);
+            fingerprints = new long[capacity];
+            expiries = new int[capacity];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void put(long fingerprint, long expiresAt) {
+            if ((size + 1) * 4L > fingerprints.length * 3L) {
+                grow();
+            }
+            putMinutes(fingerprint == 0 ? 1 : fingerprint, (int) ((expiresAt + 59) / 60));
+        }
+
+        private void putMinutes(long key, int expiresAtMinute) {
+            int mask = fingerprints.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (fingerprints[slot] != 0) {
+                if (fingerprints[slot] == key) {
+                    expiries[slot] = Math.max(expiries[slot], expiresAtMinute);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            fingerprints[slot] = key;
+            expiries[slot] = expiresAtMinute;
+            size++;
+        }
+
+        private boolean contains(long fingerprint, long nowEpoch) {
+            long key = fingerprint == 0 ? 1 : fingerprint;
+            int mask = fingerprints.length - 1;
+            int slot = (int) (key ^ (key >>> 32)) & mask;
+            while (fingerprints[slot] != 0) {
+                if (fingerprints[slot] == key) {
+                    return expiries[slot] > nowEpoch / 60;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return false;
+        }
+
+        private void forEachLive(long nowEpoch, EntryConsumer consumer) {
+            for (int i = 0; i < fingerprints.length; i++) {
+                if (fingerprints[i] != 0 && expiries[i] > nowEpoch / 60) {
+                    consumer.accept(fingerprints[i], expiries[i] * 60L);
+                }
+            }
+        }
+
+        private void grow() {
+            long[] oldFingerprints = fingerprints;
+            int[] oldExpiries = expiries;
+            fingerprints = new long[oldFingerprints.length * 2];
+            expiries = new int[oldExpiries.length * 2];
+            size = 0;
+            for (int i = 0; i < oldFingerprints.length; i++) {
+                if (oldFingerprints[i] != 0) {
+                    putMinutes(oldFingerprints[i], oldExpiries[i]);
+                }
+            }
+        }
+    }
+}
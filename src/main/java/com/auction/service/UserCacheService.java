@@ -0,0 +1,127 @@
+package com.auction.service;
+
+import com.auction.event.UserChangedEvent;
+import com.auction.model.User;
+import com.auction.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Cache LRU có giới hạn cho user theo id và theo username, để các lookup mỗi request (xác thực, notification,
+ * đặt giá) không truy vấn DB. Mỗi lần đọc trả về bản sao detached nên người gọi sửa cũng không ảnh hưởng cache.
+ * Bị vô hiệu sau khi transaction sửa user commit, và trên các node khác qua {@link ClusterEventBus}; khi vô hiệu
+ * cũng xóa user khỏi second-level cache để lần nạp lại không lấy roles cũ từ L2 (thông điệp l2-cache có thể đến sau).
+ */
+@Service
+public class UserCacheService {
+    public static final String INVALIDATION_TOPIC = "user-cache";
+
+    private final UserRepository userRepository;
+    private final ClusterEventBus clusterEventBus;
+    private final ReadRoutingService readRoutingService;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final Map<Long, User> byId;
+    private final Map<String, Long> idByUsername;
+    // Tăng mỗi lần vô hiệu; lần nạp bắt đầu trước đó không được ghi kết quả (có thể đã cũ) vào cache
+    private long generation;
+
+    public UserCacheService(UserRepository userRepository,
+                            ClusterEventBus clusterEventBus,
+                            ReadRoutingService readRoutingService,
+                            SecondLevelCacheService secondLevelCacheService,
+                            @Value("${app.user-cache.max-entries:10000}") int maxEntries) {
+        this.userRepository = userRepository;
+        this.clusterEventBus = clusterEventBus;
+        this.readRoutingService = readRoutingService;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.idByUsername = new HashMap<>();
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                if (size() > maxEntries) {
+                    idByUsername.remove(eldest.getValue().getUsername());
+                    return true;
+                }
+                return false;
+            }
+        };
+        clusterEventBus.subscribe(INVALIDATION_TOPIC, payload -> evictLocal(Long.valueOf(payload)));
+    }
+
+    public Optional<User> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            User cached = byId.get(id);
+            if (cached != null) {
+                return Optional.of(copy(cached));
+            }
+        }
+        return load(() -> userRepository.findById(id));
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        synchronized (this) {
+            Long id = idByUsername.get(username);
+            User cached = id != null ? byId.get(id) : null;
+            if (cached != null) {
+                return Optional.of(copy(cached));
+            }
+        }
+        return load(() -> userRepository.findByUsername(username));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        clusterEventBus.publish(INVALIDATION_TOPIC, String.valueOf(event.getUserId()));
+    }
+
+    public void evictLocal(Long userId) {
+        // Xóa L2 trước khi tăng generation: lần nạp nào bắt đầu sau đó (và được ghi vào cache) đều đọc từ DB
+        secondLevelCacheService.evictUserLocal(userId);
+        synchronized (this) {
+            generation++;
+            User removed = byId.remove(userId);
+            if (removed != null) {
+                idByUsername.remove(removed.getUsername());
+            }
+        }
+    }
+
+    private Optional<User> load(Supplier<Optional<User>> loader) {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        // Nạp từ primary: replica có thể chưa có thay đổi vừa gây ra việc vô hiệu
+        Optional<User> loaded = readRoutingService.onPrimary(loader);
+        loaded.ifPresent(user -> {
+            User snapshot = copy(user);
+            synchronized (this) {
+                if (generation == startGeneration) {
+                    byId.put(snapshot.getId(), snapshot);
+                    idByUsername.put(snapshot.getUsername(), snapshot.getId());
+                }
+            }
+        });
+        return loaded.map(UserCacheService::copy);
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+            user.getFullName(), user.getPhoneNumber(), user.getRating(), user.getRatingCount(),
+            new HashSet<>(user.getRoles()), user.getCreatedAt(), user.getUpdatedAt(), user.getBlocked());
+    }
+}
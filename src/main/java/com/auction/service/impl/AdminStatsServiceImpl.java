@@ -1,67 +1,110 @@
 package com.auction.service.impl;
 
 import com.auction.dto.AdminStatsResponse;
+import com.auction.model.DailyStats;
+import com.auction.enums.SketchMetric;
+import com.auction.repository.DailySketchRepository;
+import com.auction.repository.DailyStatsRepository;
 import com.auction.service.AdminStatsService;
+import com.auction.service.DistinctCountService;
 import org.springframework.stereotype.Service;
-import com.auction.repository.UserRepository;
-import com.auction.repository.AuctionRepository;
-import com.auction.repository.BidRepository;
-import com.auction.payment.repository.PaymentOrderRepository;
-import com.auction.payment.model.PaymentOrder;
-import com.auction.model.AuctionStatus;
-import com.auction.enums.PaymentStatus;
 import lombok.RequiredArgsConstructor;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class AdminStatsServiceImpl implements AdminStatsService {
-    private final UserRepository userRepository;
-    private final AuctionRepository auctionRepository;
-    private final BidRepository bidRepository;
-    private final PaymentOrderRepository paymentOrderRepository;
+    private final DailyStatsRepository dailyStatsRepository;
+    private final DailySketchRepository dailySketchRepository;
+    private final DistinctCountService distinctCountService;
 
     @Override
     public AdminStatsResponse getStats(String range) {
+        return getStats(range, false);
+    }
+
+    @Override
+    public AdminStatsResponse getStats(String range, boolean exact) {
         AdminStatsResponse stats = new AdminStatsResponse();
-        LocalDateTime fromDate = getFromDate(range);
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = getFromDate(range, today);
 
-        // Thống kê cơ bản
-        stats.setTotalUsers(userRepository.count());
-        stats.setTotalAuctions(auctionRepository.count());
-        stats.setTotalBids(bidRepository.count());
+        // Tổng toàn hệ thống: cộng các dòng daily_stats (O(số ngày)) thay vì count() trên bảng gốc
+        Object[] totals = dailyStatsRepository.sumTotals().get(0);
+        stats.setTotalUsers(((Number) totals[0]).longValue());
+        stats.setTotalAuctions(((Number) totals[1]).longValue());
+        stats.setTotalBids(((Number) totals[2]).longValue());
+        stats.setTotalRevenue(((BigDecimal) totals[3]).longValue());
 
-        // Tổng doanh thu (tổng payment đã COMPLETED)
-        BigDecimal totalRevenue = paymentOrderRepository.sumAmountByStatus(PaymentStatus.COMPLETED);
-        stats.setTotalRevenue(totalRevenue != null ? totalRevenue.longValue() : 0);
+        Map<LocalDate, Long> dailyBidders = exact
+            ? exactDailyBidders(fromDate, today)
+            : distinctCountService.estimateDaily(SketchMetric.ACTIVE_BIDDERS, fromDate, today);
+        Map<LocalDate, Long> dailyViewers = exact
+            ? Map.of()
+            : distinctCountService.estimateDaily(SketchMetric.VIEWERS, fromDate, today);
 
         // Thống kê dailyStats
-        List<Object[]> dailyStatsRaw = paymentOrderRepository.getDailyRevenueAndActiveUsers(PaymentStatus.COMPLETED, fromDate);
         List<AdminStatsResponse.DailyStat> dailyStats = new ArrayList<>();
-        for (Object[] row : dailyStatsRaw) {
+        long newUsers = 0;
+        for (DailyStats day : dailyStatsRepository.findByStatDateBetweenOrderByStatDateAsc(fromDate, today)) {
             AdminStatsResponse.DailyStat dailyStat = new AdminStatsResponse.DailyStat();
-            dailyStat.setDate(row[0].toString());
-            dailyStat.setRevenue(((BigDecimal) row[1]).longValue());
-            dailyStat.setActiveUsers(((Long) row[2]).intValue());
+            dailyStat.setDate(day.getStatDate().toString());
+            dailyStat.setRevenue(day.getRevenue().longValue());
+            dailyStat.setActiveUsers(day.getPayingUsers());
+            dailyStat.setNewUsers(day.getNewUsers());
+            dailyStat.setNewAuctions(day.getNewAuctions());
+            dailyStat.setBids(day.getBids());
+            dailyStat.setActiveBidders(dailyBidders.getOrDefault(day.getStatDate(), 0L));
+            dailyStat.setViewers(exact ? null : dailyViewers.getOrDefault(day.getStatDate(), 0L));
             dailyStats.add(dailyStat);
+            newUsers += day.getNewUsers();
         }
+        stats.setNewUsers(newUsers);
         stats.setDailyStats(dailyStats);
+        stats.setExactCounts(exact);
+        stats.setDistinctCounts(exact ? exactDistinctCounts(fromDate, today) : estimatedDistinctCounts(fromDate, today));
 
         return stats;
     }
 
-    private LocalDateTime getFromDate(String range) {
-        LocalDateTime now = LocalDateTime.now();
+    private AdminStatsResponse.DistinctCounts estimatedDistinctCounts(LocalDate from, LocalDate to) {
+        AdminStatsResponse.DistinctCounts counts = new AdminStatsResponse.DistinctCounts();
+        counts.setPayingUsers(distinctCountService.estimate(SketchMetric.PAYING_USERS, from, to));
+        counts.setActiveBidders(distinctCountService.estimate(SketchMetric.ACTIVE_BIDDERS, from, to));
+        counts.setViewers(distinctCountService.estimate(SketchMetric.VIEWERS, from, to));
+        return counts;
+    }
+
+    private AdminStatsResponse.DistinctCounts exactDistinctCounts(LocalDate from, LocalDate to) {
+        AdminStatsResponse.DistinctCounts counts = new AdminStatsResponse.DistinctCounts();
+        counts.setPayingUsers(dailySketchRepository.countDistinctPayingUsers(from, to.plusDays(1)));
+        counts.setActiveBidders(dailySketchRepository.countDistinctBidders(from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+        // Lượt xem không được lưu theo từng người xem nên không đếm chính xác được
+        counts.setViewers(null);
+        return counts;
+    }
+
+    private Map<LocalDate, Long> exactDailyBidders(LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> result = new HashMap<>();
+        for (Object[] row : dailySketchRepository.countDistinctBiddersByDay(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            LocalDate date = row[0] instanceof LocalDate d ? d : ((java.sql.Date) row[0]).toLocalDate();
+            result.put(date, ((Number) row[1]).longValue());
+        }
+        return result;
+    }
+
+    private LocalDate getFromDate(String range, LocalDate today) {
         return switch (range.toLowerCase()) {
-            case "week" -> now.minus(7, ChronoUnit.DAYS);
-            case "month" -> now.minus(30, ChronoUnit.DAYS);
-            case "year" -> now.minus(365, ChronoUnit.DAYS);
-            default -> now.minus(7, ChronoUnit.DAYS);
+            case "week" -> today.minusDays(7);
+            case "month" -> today.minusDays(30);
+            case "year" -> today.minusDays(365);
+            default -> today.minusDays(7);
         };
     }
 }
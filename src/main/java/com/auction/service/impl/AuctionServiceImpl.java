@@ -1,16 +1,24 @@
 package com.auction.service.impl;
 
+import com.auction.event.AuctionCreatedEvent;
+import com.auction.event.AuctionViewedEvent;
 import com.auction.model.Auction;
 import com.auction.model.AuctionStatus;
+import com.auction.model.AuctionSummary;
 import com.auction.model.Bid;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.service.PushService;
 import com.auction.repository.AuctionRepository;
+import com.auction.repository.BidArchiveRepository;
 import com.auction.repository.BidRepository;
 import com.auction.service.AuctionService;
 import com.auction.service.AuctionStatusHistoryService;
+import com.auction.service.AuctionSummaryService;
 import com.auction.service.AuctionWinnerService;
 import com.auction.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -27,9 +35,13 @@ import java.util.List;
 public class AuctionServiceImpl implements AuctionService {
     private final AuctionRepository auctionRepository;
     private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
     private final AuctionStatusHistoryService auctionStatusHistoryService;
     private final BidRepository bidRepository;
     private final AuctionWinnerService auctionWinnerService;
+    private final AuctionSummaryService auctionSummaryService;
+    private final BidArchiveRepository bidArchiveRepository;
+    private final PushService pushService;
 
     @Override
     @Transactional
@@ -40,7 +52,10 @@ public class AuctionServiceImpl implements AuctionService {
         auction.setStatus(AuctionStatus.PENDING);
         auction.setCurrentPrice(auction.getStartingPrice());
         auction.setViewCount(0);
-        return auctionRepository.save(auction);
+        Auction saved = auctionRepository.save(auction);
+        auctionSummaryService.initialize(saved);
+        eventPublisher.publishEvent(new AuctionCreatedEvent(saved.getId(), sellerId, saved.getCreatedAt()));
+        return saved;
     }
 
     @Override
@@ -94,14 +109,17 @@ public class AuctionServiceImpl implements AuctionService {
     public void deleteAuction(Long id) {
         Auction auction = getAuctionById(id);
         auctionRepository.delete(auction);
+        auctionSummaryService.remove(id);
+        bidArchiveRepository.deleteById(id);
     }
 
     @Override
     @Transactional
-    public void incrementViewCount(Long id) {
+    public void incrementViewCount(Long id, String viewerKey) {
         Auction auction = getAuctionById(id);
         auction.setViewCount(auction.getViewCount() + 1);
         auctionRepository.save(auction);
+        eventPublisher.publishEvent(new AuctionViewedEvent(id, viewerKey, LocalDateTime.now()));
     }
 
     @Override
@@ -189,6 +207,7 @@ public class AuctionServiceImpl implements AuctionService {
             
             // Process winner and send notification
             auctionWinnerService.processAuctionWinner(auction, winningBid);
+            notifyOutbidBidders(auction, winningBid);
             
             log.info("Auction {} ended with winning bid: {}", auctionId, winningBid.getAmount());
         } else {
@@ -197,6 +216,19 @@ public class AuctionServiceImpl implements AuctionService {
         }
     }
 
+    // Một lần multicast cho mọi người đã đặt giá nhưng không thắng
+    private void notifyOutbidBidders(Auction auction, Bid winningBid) {
+        List<Long> bidderIds = bidRepository.findBidderIdsExcept(auction.getId(), winningBid.getBidder().getId());
+        if (bidderIds.isEmpty()) {
+            return;
+        }
+        pushService.sendToUsers(bidderIds, PushMessage.builder()
+            .title("Phiên đấu giá đã kết thúc")
+            .body("Phiên \"" + auction.getTitle() + "\" đã kết thúc với giá " + winningBid.getAmount())
+            .link("/auctions/" + auction.getId())
+            .build());
+    }
+
     @Override
     public void cancelAuction(Long id) {
         throw new UnsupportedOperationException("Method not implemented");
@@ -233,13 +265,21 @@ public class AuctionServiceImpl implements AuctionService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BigDecimal getHighestBidForAuction(Long id) {
-        throw new UnsupportedOperationException("Method not implemented");
+        // null khi phiên chưa có bid nào
+        return auctionSummaryService.getSummary(id)
+            .filter(summary -> summary.getBidCount() > 0)
+            .map(AuctionSummary::getCurrentPrice)
+            .orElse(null);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int getTotalBidsForAuction(Long id) {
-        throw new UnsupportedOperationException("Method not implemented");
+        return auctionSummaryService.getSummary(id)
+            .map(summary -> (int) summary.getBidCount())
+            .orElse(0);
     }
 
     @Override
@@ -0,0 +1,69 @@
+package com.auction.service.impl;
+
+import com.auction.model.Auction;
+import com.auction.model.AuctionSummary;
+import com.auction.model.Bid;
+import com.auction.repository.AuctionBidderRepository;
+import com.auction.repository.AuctionSummaryRepository;
+import com.auction.service.AuctionSummaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Giữ auction_summary khớp với bảng bids: {@link #recordBid} bắt buộc chạy trong transaction của placeBid nên
+ * summary và bid cùng commit hoặc cùng rollback.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuctionSummaryServiceImpl implements AuctionSummaryService {
+    private final AuctionSummaryRepository summaryRepository;
+    private final AuctionBidderRepository bidderRepository;
+
+    @Override
+    @Transactional
+    public void initialize(Auction auction) {
+        summaryRepository.insertIfAbsent(auction.getId(), auction.getCurrentPrice(), LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordBid(Bid bid) {
+        Long auctionId = bid.getAuction().getId();
+        Long bidderId = bid.getBidder().getId();
+        int newBidder = bidderRepository.insertIfAbsent(auctionId, bidderId) > 0 ? 1 : 0;
+        summaryRepository.recordBid(auctionId, bid.getAmount(), newBidder, bidderId, bid.getBidTime(),
+            LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void remove(Long auctionId) {
+        bidderRepository.deleteByAuctionId(auctionId);
+        summaryRepository.deleteById(auctionId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuctionSummary> getSummary(Long auctionId) {
+        return summaryRepository.findById(auctionId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, AuctionSummary> getSummaries(Collection<Long> auctionIds) {
+        if (auctionIds.isEmpty()) {
+            return Map.of();
+        }
+        return summaryRepository.findByAuctionIdIn(auctionIds).stream()
+            .collect(Collectors.toMap(AuctionSummary::getAuctionId, Function.identity()));
+    }
+}
@@ -0,0 +1,330 @@
+package com.auction.service.impl;
+
+import com.auction.dto.BidArchiveStatsResponse;
+import com.auction.model.Auction;
+import com.auction.model.AuctionStatus;
+import com.auction.model.Bid;
+import com.auction.model.BidArchive;
+import com.auction.model.User;
+import com.auction.repository.AuctionRepository;
+import com.auction.repository.BidArchiveDayRepository;
+import com.auction.repository.BidArchiveRepository;
+import com.auction.repository.BidRepository;
+import com.auction.service.BidArchiveService;
+import com.auction.service.UserService;
+import com.auction.utils.BidArchiveCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chuyển lịch sử bid của các phiên đã đóng quá closed-age-days sang bid_archives (một blob mỗi phiên) rồi xóa
+ * khỏi bảng bids. Bid mà auctions.winning_bid_id tham chiếu được giữ lại trong bảng nóng; khi đọc, bid có trong
+ * archive được ưu tiên và bid phát sinh sau khi lưu trữ (nếu có) được gộp vào. Cùng transaction đó ghi số bid theo
+ * (ngày, bidder) của các dòng bị xóa vào bid_archive_days để thống kê theo ngày vẫn đếm được chúng.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BidArchiveServiceImpl implements BidArchiveService {
+    private static final List<AuctionStatus> CLOSED_STATUSES =
+        List.of(AuctionStatus.ENDED, AuctionStatus.COMPLETED, AuctionStatus.CANCELLED);
+
+    private final AuctionRepository auctionRepository;
+    private final BidRepository bidRepository;
+    private final BidArchiveRepository bidArchiveRepository;
+    private final BidArchiveDayRepository bidArchiveDayRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.bids.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.bids.archive.closed-age-days:30}")
+    private int closedAgeDays;
+
+    @Value("${app.bids.archive.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.bids.archive.batch-pause-ms:50}")
+    private long batchPauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final BidArchiveStatsResponse stats = new BidArchiveStatsResponse();
+
+    @Scheduled(cron = "${app.bids.archive.cron:0 0 4 * * *}")
+    public void scheduledArchival() {
+        if (enabled) {
+            runArchival();
+        }
+    }
+
+    @Override
+    public BidArchiveStatsResponse runArchival() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Bid archival already running, skipping");
+            return getStats();
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(closedAgeDays);
+        synchronized (stats) {
+            stats.setRunning(true);
+            stats.setCutoff(cutoff);
+            stats.setLastRunStartedAt(LocalDateTime.now());
+            stats.setLastRunFinishedAt(null);
+            stats.setAuctionsInCurrentRun(0);
+            stats.setBidsInCurrentRun(0);
+            stats.setLastError(null);
+        }
+        try {
+            indexPendingArchives();
+            long afterId = 0;
+            while (true) {
+                List<Long> auctionIds = auctionRepository.findArchivableIds(CLOSED_STATUSES, cutoff, afterId,
+                    PageRequest.of(0, batchSize));
+                if (auctionIds.isEmpty()) {
+                    break;
+                }
+                for (Long auctionId : auctionIds) {
+                    // Mỗi phiên một transaction: ghi archive và xóa bid cùng commit
+                    Integer archived = transactionTemplate.execute(status -> archiveAuction(auctionId));
+                    synchronized (stats) {
+                        stats.setAuctionsInCurrentRun(stats.getAuctionsInCurrentRun() + 1);
+                        stats.setBidsInCurrentRun(stats.getBidsInCurrentRun() + (archived != null ? archived : 0));
+                    }
+                }
+                afterId = auctionIds.get(auctionIds.size() - 1);
+                if (auctionIds.size() < batchSize) {
+                    break;
+                }
+                pause();
+            }
+            log.info("Bid archival moved {} bids of {} auctions (cutoff {})",
+                stats.getBidsInCurrentRun(), stats.getAuctionsInCurrentRun(), cutoff);
+        } catch (Exception e) {
+            log.error("Bid archival failed", e);
+            synchronized (stats) {
+                stats.setLastError(e.getMessage());
+            }
+        } finally {
+            synchronized (stats) {
+                stats.setRunning(false);
+                stats.setLastRunFinishedAt(LocalDateTime.now());
+                stats.setTotalRuns(stats.getTotalRuns() + 1);
+            }
+            running.set(false);
+        }
+        return getStats();
+    }
+
+    private int archiveAuction(Long auctionId) {
+        Auction auction = auctionRepository.findById(auctionId).orElse(null);
+        List<Bid> bids = bidRepository.findByAuctionIdOrderByIdAsc(auctionId);
+        if (auction == null || bids.isEmpty()) {
+            return 0;
+        }
+        List<BidArchiveCodec.Entry> entries = bids.stream()
+            .map(bid -> new BidArchiveCodec.Entry(bid.getId(), bid.getBidder().getId(), bid.getAmount(),
+                bid.getBidTime(), bid.isWinning()))
+            .toList();
+        BidArchive archive = new BidArchive();
+        archive.setAuctionId(auctionId);
+        archive.setBidCount(entries.size());
+        archive.setPayload(BidArchiveCodec.encode(entries));
+        archive.setArchivedAt(LocalDateTime.now());
+        archive.setDaysIndexed(true);
+        bidArchiveRepository.save(archive);
+        Long keepId = auction.getWinningBid() != null ? auction.getWinningBid().getId() : null;
+        bidRepository.deleteArchived(auctionId, keepId);
+        indexDays(auctionId, entries, keepId != null ? Set.of(keepId) : Set.of());
+        return entries.size();
+    }
+
+    // Bổ sung bid_archive_days cho các archive tạo trước khi có bảng này
+    private void indexPendingArchives() {
+        int indexed = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> auctionIds = bidArchiveRepository.findUnindexedIds(afterId, PageRequest.of(0, batchSize));
+            if (auctionIds.isEmpty()) {
+                break;
+            }
+            for (Long auctionId : auctionIds) {
+                transactionTemplate.executeWithoutResult(status -> indexArchive(auctionId));
+                indexed++;
+            }
+            afterId = auctionIds.get(auctionIds.size() - 1);
+            if (auctionIds.size() < batchSize) {
+                break;
+            }
+            pause();
+        }
+        if (indexed > 0) {
+            log.info("Indexed daily bid counts of {} existing archives", indexed);
+        }
+    }
+
+    private void indexArchive(Long auctionId) {
+        BidArchive archive = bidArchiveRepository.findById(auctionId).orElse(null);
+        if (archive == null || archive.isDaysIndexed()) {
+            return;
+        }
+        // Bid còn trong bảng nóng (bid thắng được giữ lại) đã được đếm từ bảng bids
+        Set<Long> hotIds = new HashSet<>();
+        for (Bid bid : bidRepository.findByAuctionIdOrderByIdAsc(auctionId)) {
+            hotIds.add(bid.getId());
+        }
+        indexDays(auctionId, BidArchiveCodec.decode(archive.getPayload()), hotIds);
+        archive.setDaysIndexed(true);
+        bidArchiveRepository.save(archive);
+    }
+
+    private void indexDays(Long auctionId, List<BidArchiveCodec.Entry> entries, Set<Long> hotIds) {
+        Map<LocalDate, Map<Long, Integer>> counts = new HashMap<>();
+        for (BidArchiveCodec.Entry entry : entries) {
+            if (!hotIds.contains(entry.id())) {
+                counts.computeIfAbsent(entry.bidTime().toLocalDate(), d -> new HashMap<>())
+                    .merge(entry.bidderId(), 1, Integer::sum);
+            }
+        }
+        counts.forEach((date, bidders) -> bidders.forEach((bidderId, count) ->
+            bidArchiveDayRepository.insertIfAbsent(auctionId, date, bidderId, count)));
+    }
+
+    @Override
+    public BidArchiveStatsResponse getStats() {
+        BidArchiveStatsResponse copy = new BidArchiveStatsResponse();
+        synchronized (stats) {
+            copy.setRunning(stats.isRunning());
+            copy.setCutoff(stats.getCutoff());
+            copy.setLastRunStartedAt(stats.getLastRunStartedAt());
+            copy.setLastRunFinishedAt(stats.getLastRunFinishedAt());
+            copy.setAuctionsInCurrentRun(stats.getAuctionsInCurrentRun());
+            copy.setBidsInCurrentRun(stats.getBidsInCurrentRun());
+            copy.setTotalRuns(stats.getTotalRuns());
+            copy.setLastError(stats.getLastError());
+        }
+        Object[] totals = bidArchiveRepository.sumTotals().get(0);
+        copy.setArchivedAuctions(((Number) totals[0]).longValue());
+        copy.setArchivedBids(((Number) totals[1]).longValue());
+        copy.setArchiveBytes(((Number) totals[2]).longValue());
+        copy.setArchiveBytesPerBid(copy.getArchivedBids() > 0
+            ? (double) copy.getArchiveBytes() / copy.getArchivedBids() : 0);
+        copy.setHotBidRows(bidRepository.count());
+        Double hotBytesPerBid = hotBytesPerBid();
+        copy.setHotBytesPerBid(hotBytesPerBid);
+        if (hotBytesPerBid != null) {
+            copy.setEstimatedBytesSaved(Math.round(copy.getArchivedBids() * hotBytesPerBid) - copy.getArchiveBytes());
+        }
+        return copy;
+    }
+
+    // Dung lượng dữ liệu + index của bảng bids chia theo số dòng, theo thống kê của InnoDB
+    private Double hotBytesPerBid() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(
+            "SELECT (data_length + index_length) / NULLIF(table_rows, 0) FROM information_schema.tables " +
+            "WHERE table_schema = DATABASE() AND table_name = 'bids'", Double.class);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Page<Bid>> findArchivedBids(Auction auction, Pageable pageable) {
+        Optional<BidArchive> archive = bidArchiveRepository.findById(auction.getId());
+        if (archive.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Bid> bids = new ArrayList<>();
+        Set<Long> archivedIds = new HashSet<>();
+        Map<Long, User> bidders = new HashMap<>();
+        for (BidArchiveCodec.Entry entry : BidArchiveCodec.decode(archive.get().getPayload())) {
+            Bid bid = new Bid();
+            bid.setId(entry.id());
+            bid.setAuction(auction);
+            bid.setBidder(bidders.computeIfAbsent(entry.bidderId(), this::resolveBidder));
+            bid.setAmount(entry.amount());
+            bid.setBidTime(entry.bidTime());
+            bid.setWinning(entry.winning());
+            bids.add(bid);
+            archivedIds.add(entry.id());
+        }
+        for (Bid bid : bidRepository.findByAuctionIdOrderByIdAsc(auction.getId())) {
+            if (!archivedIds.contains(bid.getId())) {
+                bids.add(bid);
+            }
+        }
+        bids.sort(comparatorFor(pageable.getSort()));
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(bids, pageable, bids.size()));
+        }
+        int from = (int) Math.min(pageable.getOffset(), bids.size());
+        int to = Math.min(from + pageable.getPageSize(), bids.size());
+        return Optional.of(new PageImpl<>(bids.subList(from, to), pageable, bids.size()));
+    }
+
+    private User resolveBidder(Long bidderId) {
+        return userService.getUserById(bidderId).orElseGet(() -> {
+            User user = new User();
+            user.setId(bidderId);
+            return user;
+        });
+    }
+
+    // Hỗ trợ sắp xếp theo id, amount, bidTime như truy vấn trên bảng bids; thuộc tính khác bị bỏ qua
+    private Comparator<Bid> comparatorFor(Sort sort) {
+        Comparator<Bid> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Bid> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(Bid::getId);
+                case "amount" -> Comparator.comparing(Bid::getAmount);
+                case "bidTime" -> Comparator.comparing(Bid::getBidTime);
+                default -> null;
+            };
+            if (next == null) {
+                continue;
+            }
+            next = order.isDescending() ? next.reversed() : next;
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<Bid> byId = Comparator.comparing(Bid::getId);
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private void pause() {
+        if (batchPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
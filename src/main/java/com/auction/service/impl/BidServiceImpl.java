@@ -1,13 +1,17 @@
 package com.auction.service.impl;
 
+import com.auction.event.BidPlacedEvent;
 import com.auction.model.Auction;
 import com.auction.model.AuctionStatus;
+import com.auction.model.AuctionSummary;
 import com.auction.model.Bid;
 import com.auction.model.User;
 import com.auction.model.ItemCondition;
+import com.auction.repository.AuctionRepository;
 import com.auction.repository.BidRepository;
 import com.auction.service.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,16 +32,25 @@ import com.auction.model.AuctionImage;
 @RequiredArgsConstructor
 public class BidServiceImpl implements BidService {
     private final BidRepository bidRepository;
+    private final AuctionRepository auctionRepository;
     private final AuctionService auctionService;
     private final UserService userService;
     private final WebSocketService webSocketService;
     private final NotificationService notificationService;
+    private final OutbidDigestService outbidDigestService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageStorageService imageStorageService;
+    private final AuctionSummaryService auctionSummaryService;
+    private final BidArchiveService bidArchiveService;
     @Autowired
     private ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public Bid placeBid(Long auctionId, Long userId, BigDecimal amount) {
+        // Khóa phiên trước khi đọc giá hiện tại và bid đang thắng; giữ tới khi transaction kết thúc
+        auctionRepository.findByIdForUpdate(auctionId)
+            .orElseThrow(() -> new RuntimeException("Auction not found"));
         Auction auction = auctionService.getAuctionById(auctionId);
         User bidder = userService.getUserById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -66,6 +79,9 @@ public class BidServiceImpl implements BidService {
         // Save new bid as winning
         bid.setWinning(true);
         Bid savedBid = bidRepository.save(bid);
+        auctionSummaryService.recordBid(savedBid);
+        eventPublisher.publishEvent(new BidPlacedEvent(
+            savedBid.getId(), auctionId, userId, amount, savedBid.getBidTime()));
 
         // Nếu auction đã kết thúc, set winner
         if (auction.getStatus() == AuctionStatus.ENDED) {
@@ -75,7 +91,8 @@ public class BidServiceImpl implements BidService {
         // Lấy lại auction mới nhất (bao gồm bid mới và winner)
         Auction updatedAuction = auctionService.getAuctionById(auctionId);
         System.out.println("[BidServiceImpl] After updateAuction: currentPrice=" + updatedAuction.getCurrentPrice());
-        AuctionResponse auctionResponse = mapToAuctionResponse(updatedAuction);
+        AuctionResponse auctionResponse = mapToAuctionResponse(updatedAuction,
+            auctionSummaryService.getSummary(auctionId).orElse(null));
         // Log dữ liệu realtime gửi qua WebSocket
         try {
             String json = objectMapper.writeValueAsString(auctionResponse);
@@ -92,14 +109,10 @@ public class BidServiceImpl implements BidService {
             "/auctions/" + auction.getId()
         );
 
-        // Gửi notification cho người bị vượt giá
-        previousWinningBid.ifPresent(winningBid -> {
-            notificationService.createAndSendNotification(
-                winningBid.getBidder(),
-                "Bạn vừa bị vượt giá ở phiên đấu giá #" + auction.getId(),
-                "/auctions/" + auction.getId()
-            );
-        });
+        // Gửi notification cho người bị vượt giá (gộp theo cửa sổ thời gian)
+        previousWinningBid.ifPresent(winningBid ->
+            outbidDigestService.onOutbid(winningBid.getBidder(), auction, amount)
+        );
 
         // Gửi notification cho người đặt giá mới
         notificationService.createAndSendNotification(
@@ -138,7 +151,9 @@ public class BidServiceImpl implements BidService {
     @Transactional(readOnly = true)
     public Page<Bid> getBidsByAuction(Long auctionId, Pageable pageable) {
         Auction auction = auctionService.getAuctionById(auctionId);
-        return bidRepository.findByAuction(auction, pageable);
+        // Phiên đã lưu trữ đọc từ bid_archives, còn lại đọc bảng bids
+        return bidArchiveService.findArchivedBids(auction, pageable)
+            .orElseGet(() -> bidRepository.findByAuction(auction, pageable));
     }
 
     @Override
@@ -156,7 +171,7 @@ public class BidServiceImpl implements BidService {
         return bidRepository.findWinningBid(auction);
     }
 
-    private AuctionResponse mapToAuctionResponse(Auction auction) {
+    private AuctionResponse mapToAuctionResponse(Auction auction, AuctionSummary summary) {
         AuctionResponse response = new AuctionResponse();
         response.setId(auction.getId());
         response.setTitle(auction.getTitle());
@@ -173,14 +188,21 @@ public class BidServiceImpl implements BidService {
             sellerDTO.setEmail(auction.getSeller().getEmail());
             response.setSeller(sellerDTO);
         }
-        // Winner động: lấy bid cao nhất, nếu không có thì set null rõ ràng
-        bidRepository.findTopByAuctionOrderByAmountDesc(auction).ifPresentOrElse(bid -> {
+        // Winner động: người dẫn đầu trong auction_summary, không có bid thì null
+        Long leaderId = summary != null ? summary.getLeadingBidderId() : null;
+        response.setWinner(leaderId == null ? null : userService.getUserById(leaderId).map(leader -> {
             UserDTO winnerDTO = new UserDTO();
-            winnerDTO.setId(bid.getBidder().getId());
-            winnerDTO.setUsername(bid.getBidder().getUsername());
-            winnerDTO.setEmail(bid.getBidder().getEmail());
-            response.setWinner(winnerDTO);
-        }, () -> response.setWinner(null));
+            winnerDTO.setId(leader.getId());
+            winnerDTO.setUsername(leader.getUsername());
+            winnerDTO.setEmail(leader.getEmail());
+            return winnerDTO;
+        }).orElse(null));
+        response.setWinnerId(leaderId);
+        if (summary != null) {
+            response.setBidCount((int) summary.getBidCount());
+            response.setUniqueBidderCount(summary.getUniqueBidders());
+            response.setLastBidAt(summary.getLastBidAt());
+        }
         if (auction.getBids() != null) {
             response.setBids(
                 auction.getBids().stream()
@@ -213,7 +235,7 @@ public class BidServiceImpl implements BidService {
     private com.auction.dto.AuctionImageDTO mapToAuctionImageDTO(AuctionImage image) {
         com.auction.dto.AuctionImageDTO dto = new com.auction.dto.AuctionImageDTO();
         dto.setId(image.getId());
-        dto.setImageUrl(image.getUrl());
+        imageStorageService.applyImageUrls(dto, image);
         dto.setDescription(null); // Nếu có trường description thì set, không thì để null
         dto.setUploadedAt(image.getCreatedAt());
         dto.setAuctionId(image.getAuction() != null ? image.getAuction().getId() : null);
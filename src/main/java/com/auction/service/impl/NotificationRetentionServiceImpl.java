@@ -0,0 +1,136 @@
+package com.auction.service.impl;
+
+import com.auction.dto.RetentionStatsResponse;
+import com.auction.repository.NotificationArchiveRepository;
+import com.auction.repository.NotificationRepository;
+import com.auction.service.NotificationRetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetentionServiceImpl implements NotificationRetentionService {
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.notifications.retention.read-age-days:30}")
+    private int readAgeDays;
+
+    @Value("${app.notifications.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.notifications.retention.batch-pause-ms:50}")
+    private long batchPauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final RetentionStatsResponse stats = new RetentionStatsResponse();
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledRetention() {
+        if (enabled) {
+            runRetention();
+        }
+    }
+
+    @Override
+    public RetentionStatsResponse runRetention() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Notification retention already running, skipping");
+            return getStats();
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readAgeDays);
+        synchronized (stats) {
+            stats.setRunning(true);
+            stats.setCutoff(cutoff);
+            stats.setLastRunStartedAt(LocalDateTime.now());
+            stats.setLastRunFinishedAt(null);
+            stats.setLastProcessedId(0);
+            stats.setArchivedInCurrentRun(0);
+            stats.setBatchesInCurrentRun(0);
+            stats.setLastError(null);
+        }
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = notificationRepository.findArchivableIds(cutoff, afterId, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                // Mỗi batch một transaction ngắn để không giữ lock lâu trên bảng notifications
+                Integer purged = transactionTemplate.execute(status -> {
+                    archiveRepository.archiveByIds(ids);
+                    return notificationRepository.deleteReadByIds(ids);
+                });
+                afterId = ids.get(ids.size() - 1);
+                synchronized (stats) {
+                    stats.setLastProcessedId(afterId);
+                    stats.setArchivedInCurrentRun(stats.getArchivedInCurrentRun() + (purged != null ? purged : 0));
+                    stats.setBatchesInCurrentRun(stats.getBatchesInCurrentRun() + 1);
+                    stats.setTotalArchived(stats.getTotalArchived() + (purged != null ? purged : 0));
+                }
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                pause();
+            }
+            log.info("Notification retention archived {} rows in {} batches (cutoff {})",
+                stats.getArchivedInCurrentRun(), stats.getBatchesInCurrentRun(), cutoff);
+        } catch (Exception e) {
+            log.error("Notification retention failed", e);
+            synchronized (stats) {
+                stats.setLastError(e.getMessage());
+            }
+        } finally {
+            synchronized (stats) {
+                stats.setRunning(false);
+                stats.setLastRunFinishedAt(LocalDateTime.now());
+                stats.setTotalRuns(stats.getTotalRuns() + 1);
+            }
+            running.set(false);
+        }
+        return getStats();
+    }
+
+    @Override
+    public RetentionStatsResponse getStats() {
+        synchronized (stats) {
+            RetentionStatsResponse copy = new RetentionStatsResponse();
+            copy.setRunning(stats.isRunning());
+            copy.setCutoff(stats.getCutoff());
+            copy.setLastRunStartedAt(stats.getLastRunStartedAt());
+            copy.setLastRunFinishedAt(stats.getLastRunFinishedAt());
+            copy.setLastProcessedId(stats.getLastProcessedId());
+            copy.setArchivedInCurrentRun(stats.getArchivedInCurrentRun());
+            copy.setBatchesInCurrentRun(stats.getBatchesInCurrentRun());
+            copy.setTotalArchived(stats.getTotalArchived());
+            copy.setTotalRuns(stats.getTotalRuns());
+            copy.setLastError(stats.getLastError());
+            return copy;
+        }
+    }
+
+    private void pause() {
+        if (batchPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
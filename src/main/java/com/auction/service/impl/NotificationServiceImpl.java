@@ -1,32 +1,46 @@
 package com.auction.service.impl;
 
+import com.auction.dto.NotificationGroupSummary;
+import com.auction.dto.UnreadCountResponse;
 import com.auction.model.Notification;
 import com.auction.model.NotificationPreference;
 import com.auction.model.User;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.service.PushService;
+import com.auction.repository.NotificationCounterRepository;
 import com.auction.repository.NotificationPreferenceRepository;
 import com.auction.repository.NotificationRepository;
 import com.auction.service.EmailService;
 import com.auction.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.LinkedHashMap;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int MAX_GROUP_PAGE_SIZE = 50;
+    private static final String OUTBID_TYPE = "OUTBID";
+
     private final NotificationRepository notificationRepository;
     private final NotificationPreferenceRepository preferenceRepository;
+    private final NotificationCounterRepository counterRepository;
     private final EmailService emailService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final PushService pushService;
 
     @Override
     @Transactional
@@ -60,7 +74,41 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setMessage(message);
         notification.setType(type);
         notification.setRead(false);
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        adjustUnreadCount(recipient, 1);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Notification sendOutbidNotification(User recipient, Long auctionId, BigDecimal latestPrice, int outbidCount) {
+        String message = outbidCount > 1
+            ? "Bạn đã bị vượt giá " + outbidCount + " lần ở phiên đấu giá #" + auctionId + ", giá hiện tại: " + latestPrice
+            : "Bạn vừa bị vượt giá ở phiên đấu giá #" + auctionId + ", giá hiện tại: " + latestPrice;
+
+        Notification notification = new Notification();
+        notification.setRecipient(recipient);
+        notification.setMessage(message);
+        notification.setType(OUTBID_TYPE);
+        notification.setRead(false);
+        notification.setAuctionId(auctionId);
+        notification.setAmount(latestPrice);
+        notification.setDigestCount(outbidCount);
+        Notification saved = notificationRepository.save(notification);
+        adjustUnreadCount(recipient, 1);
+
+        messagingTemplate.convertAndSendToUser(
+            recipient.getUsername(),
+            "/queue/notifications",
+            saved
+        );
+
+        // Email được gộp riêng theo cửa sổ dài hơn (OutbidDigestService), ở đây chỉ xử lý push
+        NotificationPreference preference = getNotificationPreference(recipient, "BID");
+        if (preference != null && preference.isPushEnabled()) {
+            sendPushNotification(recipient, message);
+        }
+        return saved;
     }
 
     @Override
@@ -78,9 +126,54 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, List<Notification>> getGroupedNotifications(User user) {
-        List<Notification> notifications = notificationRepository.findByRecipient(user);
-        return notifications.stream()
-            .collect(Collectors.groupingBy(Notification::getType));
+        // Giữ dạng phản hồi cũ nhưng mỗi type chỉ trả trang mới nhất, không tải toàn bộ lịch sử
+        Map<String, List<Notification>> grouped = new LinkedHashMap<>();
+        getNotificationGroups(user, 0, MAX_GROUP_PAGE_SIZE)
+            .forEach((type, group) -> grouped.put(type, group.getItems()));
+        return grouped;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, NotificationGroupSummary> getNotificationGroups(User user, int page, int size) {
+        // Số đếm lấy từ một GROUP BY; item mỗi type là một truy vấn LIMIT trên index (recipient_id, type, created_at),
+        // nên chi phí theo số type và kích thước trang chứ không theo độ dài lịch sử
+        Map<String, NotificationGroupSummary> groups = new LinkedHashMap<>();
+        for (Object[] row : notificationRepository.summarizeByType(user.getId())) {
+            NotificationGroupSummary group = new NotificationGroupSummary();
+            group.setType((String) row[0]);
+            group.setTotalCount(((Number) row[1]).longValue());
+            group.setUnreadCount(row[2] != null ? ((Number) row[2]).longValue() : 0);
+            group.setLatestAt((LocalDateTime) row[3]);
+            fillGroupItems(user, group, page, size);
+            groups.put(group.getType(), group);
+        }
+        return groups;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationGroupSummary getNotificationGroup(User user, String type, int page, int size) {
+        NotificationGroupSummary group = new NotificationGroupSummary();
+        group.setType(type);
+        for (Object[] row : notificationRepository.summarizeType(user.getId(), type)) {
+            group.setTotalCount(((Number) row[0]).longValue());
+            group.setUnreadCount(row[1] != null ? ((Number) row[1]).longValue() : 0);
+            group.setLatestAt((LocalDateTime) row[2]);
+        }
+        fillGroupItems(user, group, page, size);
+        return group;
+    }
+
+    private void fillGroupItems(User user, NotificationGroupSummary group, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_GROUP_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+        Slice<Notification> slice = notificationRepository.findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(
+            user.getId(), group.getType(), PageRequest.of(pageNumber, pageSize));
+        group.setPage(pageNumber);
+        group.setSize(pageSize);
+        group.setHasMore(slice.hasNext());
+        group.setItems(slice.getContent());
     }
 
     @Override
@@ -88,27 +181,72 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAsRead(Long notificationId) {
         notificationRepository.findById(notificationId)
             .ifPresent(notification -> {
-                notification.setRead(true);
-                notificationRepository.save(notification);
+                // Chỉ giảm counter khi thông báo thực sự chuyển từ chưa đọc sang đã đọc
+                if (notificationRepository.markAsReadIfUnread(notificationId) > 0) {
+                    adjustUnreadCount(notification.getRecipient(), -1);
+                }
             });
     }
 
     @Override
     @Transactional
     public void markAllAsRead(User user) {
-        notificationRepository.markAllAsRead(user.getId());
+        if (notificationRepository.markAllAsRead(user.getId()) > 0) {
+            resetUnreadCount(user);
+        }
     }
 
     @Override
     @Transactional
     public void deleteNotification(Long notificationId) {
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.findById(notificationId)
+            .ifPresent(notification -> {
+                notificationRepository.delete(notification);
+                if (!notification.isRead()) {
+                    adjustUnreadCount(notification.getRecipient(), -1);
+                }
+            });
     }
 
     @Override
     @Transactional
     public void deleteAllUserNotifications(User user) {
         notificationRepository.deleteByRecipient(user);
+        resetUnreadCount(user);
+    }
+
+    @Override
+    @Transactional
+    public long getUnreadCount(Long userId) {
+        Long count = counterRepository.findUnreadCount(userId);
+        if (count == null) {
+            counterRepository.recount(userId);
+            count = counterRepository.findUnreadCount(userId);
+        }
+        return count != null ? count : 0;
+    }
+
+    private void adjustUnreadCount(User user, long delta) {
+        if (counterRepository.adjust(user.getId(), delta) == 0) {
+            // Counter chưa tồn tại: khởi tạo từ bảng notifications (đã bao gồm thay đổi hiện tại)
+            counterRepository.recount(user.getId());
+        }
+        pushUnreadCount(user, counterRepository.findUnreadCount(user.getId()));
+    }
+
+    private void resetUnreadCount(User user) {
+        if (counterRepository.reset(user.getId()) == 0) {
+            counterRepository.recount(user.getId());
+        }
+        pushUnreadCount(user, 0L);
+    }
+
+    private void pushUnreadCount(User user, Long count) {
+        messagingTemplate.convertAndSendToUser(
+            user.getUsername(),
+            "/queue/notifications",
+            new UnreadCountResponse(count != null ? count : 0)
+        );
     }
 
     @Override
@@ -164,8 +302,10 @@ public class NotificationServiceImpl implements NotificationService {
     public void sendPushNotification(User recipient, String message) {
         NotificationPreference preference = getNotificationPreference(recipient, "PUSH");
         if (preference.isPushEnabled()) {
-            // Implementation for push notifications will be added later
-            // This could integrate with Firebase Cloud Messaging or other push notification service
+            pushService.sendToUser(recipient.getId(), PushMessage.builder()
+                .title("Online Auction")
+                .body(message)
+                .build());
         }
     }
 } 
\ No newline at end of file
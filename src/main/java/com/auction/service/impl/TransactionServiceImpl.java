@@ -3,18 +3,23 @@ package com.auction.service.impl;
 import com.auction.model.Transaction;
 import com.auction.model.User;
 import com.auction.enums.PaymentStatus;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.repository.PaymentOrderRepository;
 import com.auction.repository.TransactionRepository;
+import com.auction.repository.UserRepository;
 import com.auction.service.TransactionService;
-import com.auction.payment.util.QrCodeGenerator;
+import com.auction.payment.service.PaymentExpiryEngine;
+import com.auction.payment.service.QrCodeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.nio.charset.StandardCharsets;
 
 @Service
 @Slf4j
@@ -22,7 +27,10 @@ import java.nio.charset.StandardCharsets;
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
     private final TransactionRepository transactionRepository;
-    private final QrCodeGenerator qrCodeGenerator;
+    private final QrCodeService qrCodeService;
+    private final PaymentExpiryEngine paymentExpiryEngine;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final UserRepository userRepository;
 
     @Override
     public Transaction createTransaction(Long auctionId, User buyer, String bankInfo) {
@@ -33,7 +41,43 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setBankInfo(bankInfo);
         transaction.setCreatedAt(LocalDateTime.now());
         transaction.setStatus(PaymentStatus.PENDING);
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        paymentExpiryEngine.onTransactionCreated(saved.getCreatedAt());
+        return saved;
+    }
+
+    /**
+     * Ghi transaction cho payment order trong cùng transaction với lần đổi trạng thái. transaction_ref là order_code
+     * (cũng là vnp_TxnRef gửi VNPay) để job đối soát khớp được order, transaction và file quyết toán.
+     * Transaction được tạo khi order được thanh toán, sau đó đi theo trạng thái của order (ví dụ hoàn tiền).
+     */
+    @EventListener
+    public void onPaymentStatusChanged(PaymentStatusChangedEvent event) {
+        Optional<Transaction> existing = transactionRepository.findByTransactionRef(event.getOrderCode());
+        if (existing.isPresent()) {
+            Transaction transaction = existing.get();
+            transaction.setStatus(event.getToStatus());
+            transactionRepository.save(transaction);
+            return;
+        }
+        if (event.getToStatus() != PaymentStatus.COMPLETED) {
+            return;
+        }
+        PaymentOrder order = paymentOrderRepository.findByOrderCode(event.getOrderCode())
+            .orElseThrow(() -> new RuntimeException("Payment not found with order code: " + event.getOrderCode()));
+        if (order.getAuctionId() == null) {
+            log.warn("Payment {} has no auction, not recording a transaction", order.getOrderCode());
+            return;
+        }
+        Transaction transaction = new Transaction();
+        transaction.setTransactionRef(order.getOrderCode());
+        transaction.setAuctionId(order.getAuctionId());
+        transaction.setBuyer(event.getUserId() != null ? userRepository.getReferenceById(event.getUserId()) : null);
+        transaction.setAmount(event.getAmount().longValue());
+        transaction.setOrderInfo("Thanh toan don hang: " + order.getOrderCode());
+        transaction.setStatus(event.getToStatus());
+        transactionRepository.save(transaction);
+        log.info("Recorded transaction {} for auction {}", transaction.getTransactionRef(), transaction.getAuctionId());
     }
 
     @Override
@@ -88,23 +132,13 @@ public class TransactionServiceImpl implements TransactionService {
             transaction.getId(),
             transaction.getAmount(),
             transaction.getTransactionRef());
-        return qrCodeGenerator.generateQrCodeBase64(content).getBytes(StandardCharsets.UTF_8);
+        return qrCodeService.getPng(content);
     }
 
     @Override
     public void checkAndUpdateExpiredTransactions() {
         log.info("Checking for expired transactions");
-        List<Transaction> pendingTransactions = transactionRepository.findByStatus(PaymentStatus.PENDING);
-        LocalDateTime expirationThreshold = LocalDateTime.now().minusHours(24);
-        
-        pendingTransactions.stream()
-                .filter(transaction -> transaction.getCreatedAt().isBefore(expirationThreshold))
-                .forEach(transaction -> {
-                    transaction.setStatus(PaymentStatus.EXPIRED);
-                    transaction.setUpdatedAt(LocalDateTime.now());
-                    transactionRepository.save(transaction);
-                    log.info("Transaction {} marked as expired", transaction.getId());
-                });
+        paymentExpiryEngine.sweep();
     }
 
     @Override
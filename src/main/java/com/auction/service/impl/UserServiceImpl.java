@@ -1,19 +1,26 @@
 package com.auction.service.impl;
 
 import com.auction.dto.SignupRequest;
+import com.auction.event.UserBlockedEvent;
+import com.auction.event.UserChangedEvent;
+import com.auction.event.UserRegisteredEvent;
+import com.auction.event.UserRolesChangedEvent;
 import com.auction.model.ERole;
 import com.auction.model.Role;
 import com.auction.model.User;
 import com.auction.repository.UserRepository;
 import com.auction.service.RoleService;
+import com.auction.service.UserCacheService;
 import com.auction.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +32,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleService roleService;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCacheService userCacheService;
 
     @Override
     @Transactional
@@ -41,8 +50,10 @@ public class UserServiceImpl implements UserService {
         Role userRole = roleService.getRoleByName(ERole.ROLE_USER)
             .orElseThrow(() -> new RuntimeException("Default role not found"));
         user.getRoles().add(userRole);
-            
-        return userRepository.save(user);
+
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getCreatedAt()));
+        return saved;
     }
 
     @Override
@@ -55,6 +66,7 @@ public class UserServiceImpl implements UserService {
         user.setPhoneNumber(updatedUser.getPhoneNumber());
         user.setEmail(updatedUser.getEmail());
         
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return userRepository.save(user);
     }
 
@@ -62,18 +74,19 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userCacheService.findById(id);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCacheService.findByUsername(username);
     }
 
     @Override
@@ -121,6 +134,7 @@ public class UserServiceImpl implements UserService {
         user.setRatingCount(currentCount + 1);
         
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Override
@@ -151,6 +165,7 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Override
@@ -173,6 +188,8 @@ public class UserServiceImpl implements UserService {
             .ifPresent(role -> user.getRoles().add(role));
             
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userId, Instant.now()));
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Override
@@ -185,6 +202,8 @@ public class UserServiceImpl implements UserService {
             .ifPresent(role -> user.getRoles().remove(role));
             
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userId, Instant.now()));
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
     }
 
     @Override
@@ -207,6 +226,8 @@ public class UserServiceImpl implements UserService {
         roleService.getRoleByName(ERole.ROLE_ADMIN)
             .ifPresent(role -> user.getRoles().add(role));
             
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userId, Instant.now()));
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
         return userRepository.save(user);
     }
 
@@ -217,6 +238,8 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setBlocked(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        eventPublisher.publishEvent(new UserBlockedEvent(id, true));
     }
 
     @Override
@@ -226,6 +249,8 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setBlocked(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(id));
+        eventPublisher.publishEvent(new UserBlockedEvent(id, false));
     }
 
     @Override
@@ -236,6 +261,7 @@ public class UserServiceImpl implements UserService {
         if (request.getFullName() != null) user.setFullName(request.getFullName());
         if (request.getEmail() != null) user.setEmail(request.getEmail());
         if (request.getPhoneNumber() != null) user.setPhoneNumber(request.getPhoneNumber());
+        eventPublisher.publishEvent(new UserChangedEvent(id));
         return userRepository.save(user);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.auction.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mã hóa lịch sử bid của một phiên thành blob theo cột: id, bidder, giá (unscaled, cùng scale) và thời điểm
+ * (micro giây) mỗi cột lưu delta so với phần tử trước dưới dạng zigzag varint, nên chuỗi id tăng dần và giá tăng
+ * dần chỉ tốn 1-3 byte mỗi giá trị. Bid đang thắng lưu bằng vị trí. Entry phải được sắp theo id tăng dần.
+ */
+public final class BidArchiveCodec {
+    private static final int FORMAT_VERSION = 1;
+
+    private BidArchiveCodec() {
+    }
+
+    public record Entry(long id, long bidderId, BigDecimal amount, LocalDateTime bidTime, boolean winning) {
+    }
+
+    public static byte[] encode(List<Entry> entries) {
+        int scale = 0;
+        for (Entry entry : entries) {
+            scale = Math.max(scale, entry.amount().scale());
+        }
+        int winningIndex = -1;
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).winning()) {
+                winningIndex = i;
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + entries.size() * 8);
+        out.write(FORMAT_VERSION);
+        writeVarLong(out, entries.size());
+        writeVarLong(out, scale);
+        writeVarLong(out, winningIndex + 1);
+
+        long previous = 0;
+        for (Entry entry : entries) {
+            previous = writeDelta(out, previous, entry.id());
+        }
+        previous = 0;
+        for (Entry entry : entries) {
+            previous = writeDelta(out, previous, entry.bidderId());
+        }
+        previous = 0;
+        for (Entry entry : entries) {
+            // longValueExact: giá vượt quá long ở scale chung thì không lưu được, báo lỗi thay vì cắt bớt
+            previous = writeDelta(out, previous, entry.amount().setScale(scale).unscaledValue().longValueExact());
+        }
+        previous = 0;
+        for (Entry entry : entries) {
+            previous = writeDelta(out, previous, toEpochMicros(entry.bidTime()));
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Entry> decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 1 || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported bid archive encoding");
+        }
+        int[] position = {1};
+        int count = (int) readVarLong(bytes, position);
+        int scale = (int) readVarLong(bytes, position);
+        int winningIndex = (int) readVarLong(bytes, position) - 1;
+
+        long[] ids = readDeltas(bytes, position, count);
+        long[] bidderIds = readDeltas(bytes, position, count);
+        long[] amounts = readDeltas(bytes, position, count);
+        long[] times = readDeltas(bytes, position, count);
+        if (position[0] != bytes.length) {
+            throw new IllegalArgumentException("Trailing bytes in bid archive encoding");
+        }
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new Entry(ids[i], bidderIds[i], BigDecimal.valueOf(amounts[i], scale),
+                fromEpochMicros(times[i]), i == winningIndex));
+        }
+        return entries;
+    }
+
+    private static long writeDelta(ByteArrayOutputStream out, long previous, long value) {
+        long delta = value - previous;
+        writeVarLong(out, (delta << 1) ^ (delta >> 63));
+        return value;
+    }
+
+    private static long[] readDeltas(byte[] bytes, int[] position, int count) {
+        long[] values = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = readVarLong(bytes, position);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Truncated bid archive encoding");
+            }
+            byte b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in bid archive encoding");
+    }
+
+    private static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,170 @@
+package com.auction.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * HyperLogLog đếm gần đúng số phần tử phân biệt. Với precision 14 (16384 thanh ghi) sai số chuẩn khoảng 0.8%;
+ * hai sketch cùng precision gộp được bằng cách lấy max từng thanh ghi, nên đếm được trên khoảng ngày bất kỳ.
+ * Không thread-safe.
+ */
+public final class HyperLogLog {
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public void add(long value) {
+        addHash(mix64(value));
+    }
+
+    public void add(String value) {
+        // FNV-1a 64-bit rồi trộn lại để các bit cao phân bố đều
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        addHash(mix64(hash));
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches with different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        // Hiệu chỉnh cho tập nhỏ (linear counting); hash 64-bit nên không cần hiệu chỉnh tập lớn
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * [version][precision][thanh ghi 6 bit, 4 thanh ghi trong 3 byte, nén deflate].
+     * Sketch 16384 thanh ghi tối đa 12 KB, ngày ít dữ liệu chỉ vài trăm byte.
+     */
+    public byte[] toBytes() {
+        byte[] packed = new byte[registers.length * 3 / 4];
+        for (int i = 0, j = 0; i < registers.length; i += 4, j += 3) {
+            int bits = (registers[i] << 18) | (registers[i + 1] << 12) | (registers[i + 2] << 6) | registers[i + 3];
+            packed[j] = (byte) (bits >>> 16);
+            packed[j + 1] = (byte) (bits >>> 8);
+            packed[j + 2] = (byte) bits;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(packed);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            out.write(FORMAT_VERSION);
+            out.write(precision);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length < 2 || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog encoding");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[1]);
+        byte[] packed = new byte[sketch.registers.length * 3 / 4];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 2, bytes.length - 2);
+            int read = 0;
+            while (read < packed.length) {
+                int n = inflater.inflate(packed, read, packed.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != packed.length) {
+                throw new IllegalArgumentException("Truncated HyperLogLog encoding");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt HyperLogLog encoding", e);
+        } finally {
+            inflater.end();
+        }
+        for (int i = 0, j = 0; i < sketch.registers.length; i += 4, j += 3) {
+            int bits = ((packed[j] & 0xFF) << 16) | ((packed[j + 1] & 0xFF) << 8) | (packed[j + 2] & 0xFF);
+            sketch.registers[i] = (byte) ((bits >>> 18) & 0x3F);
+            sketch.registers[i + 1] = (byte) ((bits >>> 12) & 0x3F);
+            sketch.registers[i + 2] = (byte) ((bits >>> 6) & 0x3F);
+            sketch.registers[i + 3] = (byte) (bits & 0x3F);
+        }
+        return sketch;
+    }
+
+    private void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Vị trí bit 1 đầu tiên trong phần còn lại; bit chặn đảm bảo rank không vượt 64 - precision + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    private static long mix64(long z) {
+        // Finalizer của SplitMix64
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
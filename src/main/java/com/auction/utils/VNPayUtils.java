@@ -1,14 +1,9 @@
 package com.auction.utils;
 
 import com.auction.payment.dto.PaymentRequest;
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import com.auction.payment.util.VNPaySigner;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import org.apache.commons.codec.binary.Hex;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
@@ -16,7 +11,6 @@ import java.math.BigDecimal;
 @Component
 @Slf4j
 public class VNPayUtils {
-    private static final String HMAC_SHA512 = "HmacSHA512";
     private static final String VNP_VERSION = "2.1.0";
     private static final String VNP_COMMAND = "pay";
     private static final String VNP_ORDER_TYPE = "other";
@@ -27,18 +21,7 @@ public class VNPayUtils {
     private static final int REF_RANDOM_LENGTH = 6;
 
     public static String hmacSHA512(String key, String data) {
-        try {
-            Mac hmac = Mac.getInstance(HMAC_SHA512);
-            byte[] hmacKeyBytes = key.getBytes(StandardCharsets.UTF_8);
-            SecretKeySpec secretKey = new SecretKeySpec(hmacKeyBytes, HMAC_SHA512);
-            hmac.init(secretKey);
-            byte[] dataBytes = data.getBytes(StandardCharsets.UTF_8);
-            byte[] result = hmac.doFinal(dataBytes);
-            return Hex.encodeHexString(result);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            log.error("Failed to generate HMAC", e);
-            throw new RuntimeException("Failed to generate HMAC", e);
-        }
+        return VNPaySigner.forSecret(key).sign(data);
     }
 
     public static String getRandomNumber(int len) {
@@ -58,25 +41,8 @@ public class VNPayUtils {
     }
 
     public static String hashAllFields(Map<String, String> fields, String secretKey) {
-        List<String> fieldNames = new ArrayList<>(fields.keySet());
-        Collections.sort(fieldNames);
-        
-        StringBuilder sb = new StringBuilder();
-        Iterator<String> itr = fieldNames.iterator();
-        while (itr.hasNext()) {
-            String fieldName = itr.next();
-            String fieldValue = fields.get(fieldName);
-            if ((fieldValue != null) && (fieldValue.length() > 0)) {
-                sb.append(fieldName);
-                sb.append("=");
-                sb.append(fieldValue);
-            }
-            if (itr.hasNext()) {
-                sb.append("&");
-            }
-        }
-        
-        return hmacSHA512(secretKey, sb.toString());
+        VNPaySigner signer = VNPaySigner.forSecret(secretKey);
+        return signer.sign(signer.canonicalize(fields));
     }
 
     public static Map<String, String> toVnPayParams(PaymentRequest request, String vnpTmnCode, String vnpReturnUrl) {
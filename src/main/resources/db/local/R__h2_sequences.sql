@@ -0,0 +1,13 @@
+-- Chỉ dùng cho profile replica-local: H2Dialect lấy id bằng sequence thật, còn V1 tạo bảng *_seq theo kiểu MySQL.
+-- Bước nhảy 50 khớp allocationSize của @SequenceGenerator.
+drop table if exists bids_seq;
+drop table if exists notifications_seq;
+drop table if exists auction_status_history_seq;
+drop table if exists auction_images_seq;
+drop table if exists payment_orders_seq;
+
+create sequence if not exists bids_seq start with 1 increment by 50;
+create sequence if not exists notifications_seq start with 1 increment by 50;
+create sequence if not exists auction_status_history_seq start with 1 increment by 50;
+create sequence if not exists auction_images_seq start with 1 increment by 50;
+create sequence if not exists payment_orders_seq start with 1 increment by 50;
@@ -0,0 +1,441 @@
+-- Schema ban đầu, khớp với schema mà ddl-auto=update đã tạo cho các entity hiện có.
+-- Database đã tồn tại được baseline ở version 1 (spring.flyway.baseline-on-migrate) nên script này chỉ chạy trên database rỗng.
+
+create table auction_images (
+    id bigint not null,
+    content_hash varchar(64),
+    created_at datetime(6),
+    file_name varchar(255),
+    file_type varchar(255),
+    rendition_status enum ('FAILED','PENDING','READY'),
+    size bigint,
+    url varchar(255),
+    auction_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table auction_images_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into auction_images_seq values ( 1 );
+
+create table auction_status_history (
+    id bigint not null,
+    changed_at datetime(6) not null,
+    changed_by varchar(255),
+    new_status enum ('ACTIVE','CANCELLED','COMPLETED','DRAFT','ENDED','PENDING','SUSPENDED') not null,
+    old_status enum ('ACTIVE','CANCELLED','COMPLETED','DRAFT','ENDED','PENDING','SUSPENDED') not null,
+    auction_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table auction_status_history_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into auction_status_history_seq values ( 1 );
+
+create table auctions (
+    id bigint not null auto_increment,
+    category varchar(255),
+    item_condition enum ('FAIR','GOOD','LIKE_NEW','NEW','POOR','VERY_GOOD') not null,
+    created_at datetime(6),
+    current_price decimal(38,2) not null,
+    description TEXT,
+    end_time datetime(6) not null,
+    featured bit,
+    minimum_bid_increment decimal(38,2) not null,
+    start_time datetime(6) not null,
+    starting_price decimal(38,2) not null,
+    status enum ('ACTIVE','CANCELLED','COMPLETED','DRAFT','ENDED','PENDING','SUSPENDED') not null,
+    title varchar(255) not null,
+    updated_at datetime(6),
+    view_count integer not null,
+    seller_id bigint not null,
+    winner_id bigint,
+    winning_bid_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table bids (
+    id bigint not null,
+    amount decimal(38,2) not null,
+    bid_time datetime(6) not null,
+    is_winning bit,
+    auction_id bigint not null,
+    bidder_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table bids_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into bids_seq values ( 1 );
+
+create table cluster_events (
+    id bigint not null auto_increment,
+    created_at DATETIME(3) not null,
+    origin_node varchar(64) not null,
+    payload varchar(255) not null,
+    topic varchar(64) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table daily_paying_users (
+    stat_date date not null,
+    user_id bigint not null,
+    primary key (stat_date, user_id)
+) engine=InnoDB;
+
+create table daily_sketches (
+    metric enum ('ACTIVE_BIDDERS','PAYING_USERS','VIEWERS') not null,
+    stat_date date not null,
+    sketch MEDIUMBLOB not null,
+    updated_at datetime(6) not null,
+    primary key (metric, stat_date)
+) engine=InnoDB;
+
+create table daily_stats (
+    stat_date date not null,
+    bids bigint not null,
+    completed_payments bigint not null,
+    new_auctions bigint not null,
+    new_users bigint not null,
+    paying_users bigint not null,
+    revenue decimal(19,2) not null,
+    updated_at datetime(6) not null,
+    primary key (stat_date)
+) engine=InnoDB;
+
+create table device_tokens (
+    id bigint not null auto_increment,
+    active bit not null,
+    created_at datetime(6) not null,
+    last_seen_at datetime(6),
+    platform varchar(32),
+    provider varchar(32) not null,
+    token varchar(512) not null,
+    user_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table images (
+    id bigint not null auto_increment,
+    description varchar(255),
+    is_primary bit,
+    url varchar(255) not null,
+    auction_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table notification_archive (
+    id bigint not null,
+    archived_at datetime(6),
+    created_at datetime(6),
+    message varchar(255),
+    recipient_id bigint,
+    type varchar(32),
+    primary key (id)
+) engine=InnoDB;
+
+create table notification_counters (
+    user_id bigint not null,
+    unread_count bigint not null,
+    updated_at datetime(6),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table notification_preferences (
+    id bigint not null auto_increment,
+    email_enabled bit,
+    in_app_enabled bit,
+    push_enabled bit,
+    type varchar(255),
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table notification_templates (
+    id bigint not null auto_increment,
+    body varchar(255),
+    email_subject varchar(255),
+    email_template varchar(255),
+    icon varchar(255),
+    subject varchar(255),
+    template varchar(255),
+    title varchar(255),
+    type varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table notifications (
+    id bigint not null,
+    amount decimal(38,2),
+    auction_id bigint,
+    created_at datetime(6),
+    digest_count integer,
+    message varchar(255),
+    is_read bit,
+    type varchar(255),
+    updated_at datetime(6),
+    recipient_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table notifications_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into notifications_seq values ( 1 );
+
+create table payment_callbacks (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    order_code varchar(255) not null,
+    outcome enum ('ALREADY_APPLIED','APPLIED','DUPLICATE','REJECTED'),
+    provider varchar(32) not null,
+    provider_transaction_id varchar(128) not null,
+    reported_status varchar(32),
+    primary key (id)
+) engine=InnoDB;
+
+create table payment_orders (
+    id bigint not null,
+    amount decimal(38,2) not null,
+    bank_info varchar(255),
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    order_code varchar(255) not null,
+    paid_at datetime(6),
+    payment_method enum ('BANK_TRANSFER','CREDIT_CARD','MOMO','VNPAY','ZALOPAY') not null,
+    payment_url varchar(255),
+    qr_code_url varchar(255),
+    status enum ('CANCELLED','COMPLETED','EXPIRED','FAILED','INVALID_CHECKSUM','PENDING','PROCESSING','REFUNDED') not null,
+    transfer_content varchar(255),
+    updated_at datetime(6) not null,
+    auction_id bigint,
+    user_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table payment_orders_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into payment_orders_seq values ( 1 );
+
+create table reconciliation_mismatches (
+    id bigint not null auto_increment,
+    order_amount decimal(38,2),
+    order_status varchar(32),
+    reference varchar(255) not null,
+    run_id bigint not null,
+    settlement_amount decimal(38,2),
+    settlement_status varchar(32),
+    transaction_amount decimal(38,2),
+    transaction_status varchar(32),
+    type enum ('AMOUNT_MISMATCH','DUPLICATE_SETTLEMENT','ORDER_MISSING','SETTLEMENT_MISSING','STATUS_MISMATCH','TRANSACTION_MISSING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reconciliation_runs (
+    id bigint not null auto_increment,
+    error varchar(1000),
+    finished_at datetime(6),
+    mismatch_count bigint not null,
+    orders_scanned bigint not null,
+    settlement_file varchar(255),
+    settlement_rows_scanned bigint not null,
+    started_at datetime(6) not null,
+    status enum ('COMPLETED','FAILED','RUNNING') not null,
+    transactions_scanned bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table replica_heartbeat (
+    id integer not null,
+    beat_at_ms bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table revoked_tokens (
+    jti varchar(64) not null,
+    expires_at datetime(6) not null,
+    user_id bigint,
+    primary key (jti)
+) engine=InnoDB;
+
+create table roles (
+    id bigint not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_MODERATOR','ROLE_USER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table transactions (
+    id bigint not null auto_increment,
+    amount bigint not null,
+    auction_id bigint not null,
+    bank_code varchar(255),
+    bank_info varchar(255),
+    bank_transaction_no varchar(255),
+    card_type varchar(255),
+    created_at datetime(6),
+    order_info varchar(255),
+    payment_date varchar(255),
+    status enum ('CANCELLED','COMPLETED','EXPIRED','FAILED','INVALID_CHECKSUM','PENDING','PROCESSING','REFUNDED') not null,
+    transaction_ref varchar(255) not null,
+    updated_at datetime(6),
+    buyer_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    blocked bit,
+    created_at datetime(6),
+    email varchar(255) not null,
+    full_name varchar(255),
+    password varchar(255) not null,
+    phone_number varchar(255),
+    rating float(53),
+    rating_count integer,
+    updated_at datetime(6),
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_auction_images_rendition
+   on auction_images (rendition_status, created_at);
+
+alter table auctions
+   add constraint UK_px4p15uducaulfa2m5uvgn1ab unique (winning_bid_id);
+
+create index idx_cluster_events_created_at
+   on cluster_events (created_at);
+
+create index idx_device_tokens_user_active
+   on device_tokens (user_id, active);
+
+alter table device_tokens
+   add constraint UK_8se1i37nto56x9252rmrit8ib unique (token);
+
+create index idx_notification_archive_recipient
+   on notification_archive (recipient_id, created_at);
+
+alter table notification_templates
+   add constraint UK_nv5lo5k4qjgr00na37a2yxbdr unique (type);
+
+alter table payment_callbacks
+   add constraint uk_payment_callbacks_provider_txn unique (provider, provider_transaction_id);
+
+create index idx_payment_orders_status_expires
+   on payment_orders (status, expires_at);
+
+alter table payment_orders
+   add constraint UK_i5aj6lxcv4t34q5ff1ww2dsh7 unique (order_code);
+
+create index idx_reconciliation_mismatches_run
+   on reconciliation_mismatches (run_id, id);
+
+create index idx_revoked_tokens_expires_at
+   on revoked_tokens (expires_at);
+
+create index idx_transactions_status_created
+   on transactions (status, created_at);
+
+alter table transactions
+   add constraint UK_7ii4hpkuc8h5sccqt5wfky4na unique (transaction_ref);
+
+alter table users
+   add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+   add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table auction_images
+   add constraint FKo1mnw8kvdxcl2wcac1rg69itc
+   foreign key (auction_id)
+   references auctions (id);
+
+alter table auction_status_history
+   add constraint FK18kvgteqy25npawrcrcr48bj9
+   foreign key (auction_id)
+   references auctions (id);
+
+alter table auctions
+   add constraint FKlu950hyc1m3wi2km1mlrcttw1
+   foreign key (seller_id)
+   references users (id);
+
+alter table auctions
+   add constraint FKgueiqsr3d7x8kgdfva3ul8km2
+   foreign key (winner_id)
+   references users (id);
+
+alter table auctions
+   add constraint FKnblepwrb4dd3664kdjncs6hvu
+   foreign key (winning_bid_id)
+   references bids (id);
+
+alter table bids
+   add constraint FKbm89m2gow82dotpnlcp7t3p5f
+   foreign key (auction_id)
+   references auctions (id);
+
+alter table bids
+   add constraint FKmtrc6tnwawlpk1u2km6qnxbha
+   foreign key (bidder_id)
+   references users (id);
+
+alter table device_tokens
+   add constraint FKhc7d11bnr8x9gs5biohdhnx1c
+   foreign key (user_id)
+   references users (id);
+
+alter table images
+   add constraint FK9elkyl8jxcp3bys60uy7grrie
+   foreign key (auction_id)
+   references auctions (id);
+
+alter table notification_preferences
+   add constraint FKt9qjvmcl36i14utm5uptyqg84
+   foreign key (user_id)
+   references users (id);
+
+alter table notifications
+   add constraint FKqqnsjxlwleyjbxlmm213jaj3f
+   foreign key (recipient_id)
+   references users (id);
+
+alter table payment_orders
+   add constraint FKeswtgo80rsu9w07tpfq9ejao2
+   foreign key (auction_id)
+   references auctions (id);
+
+alter table payment_orders
+   add constraint FKhu5t5owt2qq73w97i7y43s2gg
+   foreign key (user_id)
+   references users (id);
+
+alter table transactions
+   add constraint FKijk7ii2fvalv59schbb3e0bof
+   foreign key (buyer_id)
+   references users (id);
+
+alter table user_roles
+   add constraint FKh8ciramu9cc9q3qcqiv4ue8a6
+   foreign key (role_id)
+   references roles (id);
+
+alter table user_roles
+   add constraint FKhfh9dx7w3ubf1co1vdev94g3f
+   foreign key (user_id)
+   references users (id);
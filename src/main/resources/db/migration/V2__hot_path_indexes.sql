@@ -0,0 +1,20 @@
+-- Index cho các truy vấn nóng. payment_orders(status, expires_at) đã có từ V1 (idx_payment_orders_status_expires).
+
+-- Giá cao nhất của phiên: findTopByAuctionOrderByAmountDesc, findTopBids
+create index idx_bids_auction_amount
+   on bids (auction_id, amount desc);
+
+-- Bid đang thắng: findWinningBid
+create index idx_bids_auction_winning
+   on bids (auction_id, is_winning);
+
+-- Danh sách thông báo (chưa đọc) của user theo thời gian
+create index idx_notifications_recipient_read_created
+   on notifications (recipient_id, is_read, created_at);
+
+-- Scheduler đóng/mở phiên: findEndedAuctions, findAuctionsToStart
+create index idx_auctions_status_end
+   on auctions (status, end_time);
+
+create index idx_auctions_status_start
+   on auctions (status, start_time);
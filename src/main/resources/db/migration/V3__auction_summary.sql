@@ -0,0 +1,31 @@
+-- Read model của phiên đấu giá, cập nhật cùng transaction với mỗi bid được chấp nhận
+create table auction_summary (
+    auction_id bigint not null,
+    current_price decimal(38,2) not null,
+    bid_count bigint not null,
+    unique_bidders bigint not null,
+    leading_bidder_id bigint,
+    last_bid_at datetime(6),
+    updated_at datetime(6) not null,
+    primary key (auction_id)
+) engine=InnoDB;
+
+create table auction_bidders (
+    auction_id bigint not null,
+    bidder_id bigint not null,
+    primary key (auction_id, bidder_id)
+) engine=InnoDB;
+
+-- Backfill từ dữ liệu hiện có
+insert into auction_bidders (auction_id, bidder_id)
+select distinct auction_id, bidder_id from bids;
+
+insert into auction_summary (auction_id, current_price, bid_count, unique_bidders, leading_bidder_id, last_bid_at, updated_at)
+select a.id,
+       coalesce((select max(b.amount) from bids b where b.auction_id = a.id), a.current_price),
+       (select count(*) from bids b where b.auction_id = a.id),
+       (select count(*) from auction_bidders ab where ab.auction_id = a.id),
+       (select b.bidder_id from bids b where b.auction_id = a.id order by b.amount desc, b.bid_time desc limit 1),
+       (select max(b.bid_time) from bids b where b.auction_id = a.id),
+       current_timestamp(6)
+from auctions a;
@@ -0,0 +1,8 @@
+-- Lịch sử bid của các phiên đã đóng, mỗi phiên một blob nén theo cột (BidArchiveCodec)
+create table bid_archives (
+    auction_id bigint not null,
+    bid_count integer not null,
+    payload longblob not null,
+    archived_at datetime(6) not null,
+    primary key (auction_id)
+) engine=InnoDB;
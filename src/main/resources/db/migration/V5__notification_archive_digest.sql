@@ -0,0 +1,4 @@
+-- Archive giữ đủ thông tin của thông báo gộp (OUTBID): phiên, giá mới nhất và số lần bị vượt giá
+alter table notification_archive add column auction_id bigint;
+alter table notification_archive add column amount decimal(38,2);
+alter table notification_archive add column digest_count integer;
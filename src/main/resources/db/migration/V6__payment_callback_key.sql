@@ -0,0 +1,7 @@
+-- Khóa idempotency của callback gồm cả order: VNPay gửi vnp_TransactionNo=0 cho mọi giao dịch lỗi/huỷ,
+-- nên (provider, provider_transaction_id) làm các order khác nhau trùng khóa
+alter table payment_callbacks add column callback_key varchar(400);
+update payment_callbacks set callback_key = concat(order_code, ':', provider_transaction_id);
+alter table payment_callbacks modify column callback_key varchar(400) not null;
+alter table payment_callbacks drop index uk_payment_callbacks_provider_txn;
+alter table payment_callbacks add constraint uk_payment_callbacks_provider_key unique (provider, callback_key);
@@ -0,0 +1,9 @@
+-- Mốc thu hồi theo user: access token phát hành không sau not_before mang roles cũ và bị từ chối
+create table user_token_watermarks (
+    user_id bigint not null,
+    not_before datetime(6) not null,
+    primary key (user_id)
+) engine=InnoDB;
+
+create index idx_user_token_watermarks_not_before
+   on user_token_watermarks (not_before);
@@ -0,0 +1,15 @@
+-- Số bid theo (phiên, ngày, bidder) của các bid đã chuyển sang bid_archives, để thống kê theo ngày vẫn
+-- đếm được bid đã lưu trữ mà không phải giải mã payload. Bid còn giữ lại trong bảng bids không được tính ở đây.
+create table bid_archive_days (
+    auction_id bigint not null,
+    stat_date date not null,
+    bidder_id bigint not null,
+    bid_count integer not null,
+    primary key (auction_id, stat_date, bidder_id)
+) engine=InnoDB;
+
+create index idx_bid_archive_days_date_bidder
+   on bid_archive_days (stat_date, bidder_id);
+
+-- Archive tạo trước V8 chưa có dòng trong bid_archive_days; BidArchiveService giải mã và bổ sung
+alter table bid_archives add column days_indexed boolean not null default false;
@@ -0,0 +1,3 @@
+-- Trang item theo từng type của /grouped và /groups: findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc
+create index idx_notifications_recipient_type_created
+   on notifications (recipient_id, type, created_at);
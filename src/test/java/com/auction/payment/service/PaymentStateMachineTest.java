@@ -0,0 +1,88 @@
+package com.auction.payment.service;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.enums.CallbackOutcome;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.repository.PaymentCallbackRepository;
+import com.auction.payment.repository.PaymentOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStateMachineTest {
+    private static final String VNPAY = "VNPAY";
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+    @Mock
+    private PaymentCallbackRepository paymentCallbackRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private PaymentStateMachine stateMachine;
+
+    // Giả lập unique (provider, callback_key) của bảng payment_callbacks
+    private final Set<String> recordedKeys = new HashSet<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(paymentCallbackRepository.insertIfAbsent(
+                anyString(), anyString(), anyString(), anyString(), anyString(), any()))
+            .thenAnswer(invocation -> recordedKeys.add(invocation.getArgument(0) + "|" + invocation.getArgument(1)) ? 1 : 0);
+        lenient().when(paymentOrderRepository.transitionIfStatus(any(), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void failedCallbacksWithTransactionNumberZeroAreAppliedPerOrder() {
+        order(1L, "PAY-AAAA0001");
+        order(2L, "PAY-BBBB0002");
+
+        assertThat(stateMachine.applyCallback(VNPAY, "0", "PAY-AAAA0001", "24")).isEqualTo(CallbackOutcome.APPLIED);
+        assertThat(stateMachine.applyCallback(VNPAY, "0", "PAY-BBBB0002", "24")).isEqualTo(CallbackOutcome.APPLIED);
+
+        verify(paymentOrderRepository).transitionIfStatus(eq(1L), eq(PaymentStatus.PENDING), eq(PaymentStatus.CANCELLED), any());
+        verify(paymentOrderRepository).transitionIfStatus(eq(2L), eq(PaymentStatus.PENDING), eq(PaymentStatus.CANCELLED), any());
+    }
+
+    @Test
+    void redeliveredCallbackForSameOrderIsDuplicate() {
+        order(1L, "PAY-AAAA0001");
+
+        assertThat(stateMachine.applyCallback(VNPAY, "0", "PAY-AAAA0001", "11")).isEqualTo(CallbackOutcome.APPLIED);
+        assertThat(stateMachine.applyCallback(VNPAY, "0", "PAY-AAAA0001", "11")).isEqualTo(CallbackOutcome.DUPLICATE);
+    }
+
+    @Test
+    void callbackKeyUsesTransactionNumberWhenPresent() {
+        assertThat(PaymentStateMachine.callbackKey("PAY-A", "14123456", "00")).isEqualTo("PAY-A:14123456");
+        assertThat(PaymentStateMachine.callbackKey("PAY-A", "0", "24")).isEqualTo("PAY-A:status:24");
+        assertThat(PaymentStateMachine.callbackKey("PAY-A", "", "11")).isEqualTo("PAY-A:status:11");
+    }
+
+    private void order(Long id, String orderCode) {
+        PaymentOrder order = new PaymentOrder();
+        order.setId(id);
+        order.setOrderCode(orderCode);
+        order.setAmount(new BigDecimal("100000"));
+        order.setStatus(PaymentStatus.PENDING);
+        when(paymentOrderRepository.findByOrderCode(orderCode)).thenReturn(Optional.of(order));
+    }
+}
@@ -0,0 +1,53 @@
+package com.auction.payment.util;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.enums.MismatchType;
+import com.auction.payment.model.ReconciliationMismatch;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ReconciliationMergerTest {
+
+    @Test
+    void matchedOrderTransactionAndSettlementReportNothing() {
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        ReconciliationMerger merger = new ReconciliationMerger(mismatches::add);
+
+        merger.merge(
+            List.of(entry("PAY-0A1B2C3D", "150000.00", PaymentStatus.COMPLETED)).iterator(),
+            List.of(entry("PAY-0A1B2C3D", "150000", PaymentStatus.COMPLETED)).iterator(),
+            List.of(entry("PAY-0A1B2C3D", "150000", PaymentStatus.COMPLETED)).iterator());
+
+        assertThat(mismatches).isEmpty();
+        assertThat(merger.getOrders()).isEqualTo(1);
+        assertThat(merger.getTransactions()).isEqualTo(1);
+        assertThat(merger.getSettlementRows()).isEqualTo(1);
+    }
+
+    @Test
+    void paidOrderWithoutTransactionIsReported() {
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        ReconciliationMerger merger = new ReconciliationMerger(mismatches::add);
+
+        merger.merge(
+            List.of(entry("PAY-0A1B2C3D", "150000", PaymentStatus.COMPLETED),
+                    entry("PAY-9F8E7D6C", "90000", PaymentStatus.COMPLETED)).iterator(),
+            List.of(entry("PAY-0A1B2C3D", "150000", PaymentStatus.COMPLETED)).iterator(),
+            List.of(entry("PAY-0A1B2C3D", "150000", PaymentStatus.COMPLETED),
+                    entry("PAY-9F8E7D6C", "90000", PaymentStatus.COMPLETED)).iterator());
+
+        assertThat(mismatches).extracting(ReconciliationMismatch::getReference, ReconciliationMismatch::getType)
+            .containsExactly(tuple("PAY-9F8E7D6C", MismatchType.TRANSACTION_MISSING));
+    }
+
+    private static ReconciliationEntry entry(String reference, String amount, PaymentStatus status) {
+        return new ReconciliationEntry(reference, new BigDecimal(amount), status);
+    }
+}
@@ -0,0 +1,189 @@
+package com.auction.push.service.impl;
+
+import com.auction.push.dto.PushBatchResult;
+import com.auction.push.dto.PushMessage;
+import com.auction.push.dto.PushStatsResponse;
+import com.auction.push.repository.DeviceTokenRepository;
+import com.auction.push.service.PushDeliveryException;
+import com.auction.push.service.PushProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PushServiceImplTest {
+    private static final PushMessage MESSAGE = PushMessage.builder().title("t").body("b").build();
+
+    @Mock
+    private DeviceTokenRepository deviceTokenRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PushServiceImpl pushService;
+
+    @AfterEach
+    void tearDown() {
+        if (pushService != null) {
+            pushService.shutdown();
+        }
+    }
+
+    @Test
+    void multicastSplitsTokensIntoProviderBatches() throws Exception {
+        RecordingProvider provider = new RecordingProvider(2);
+        pushService = newService(provider, 2, 10);
+        when(deviceTokenRepository.findActiveTokensByUserIds(any())).thenReturn(tokens("a", "b", "c", "d", "e"));
+
+        int delivered = pushService.sendToUsers(List.of(1L, 2L, 3L), MESSAGE).get(5, TimeUnit.SECONDS);
+
+        assertThat(delivered).isEqualTo(5);
+        assertThat(provider.batchSizes).containsExactlyInAnyOrder(2, 2, 1);
+        PushStatsResponse stats = pushService.getStats();
+        assertThat(stats.getSubmittedBatches()).isEqualTo(3);
+        assertThat(stats.getDeliveredMessages()).isEqualTo(5);
+        assertThat(stats.getShedBatches()).isZero();
+    }
+
+    @Test
+    void retryableTokensAreResentAndInvalidTokensDeactivated() throws Exception {
+        PushProvider provider = new RecordingProvider(10) {
+            private int calls;
+
+            @Override
+            public synchronized PushBatchResult sendMulticast(List<String> tokens, PushMessage message) {
+                super.sendMulticast(tokens, message);
+                if (calls++ == 0) {
+                    return new PushBatchResult(1, new ArrayList<>(List.of("gone")), new ArrayList<>(List.of("later")));
+                }
+                return PushBatchResult.success(tokens.size());
+            }
+        };
+        pushService = newService(provider, 1, 10);
+        when(deviceTokenRepository.findActiveTokensByUserIds(any())).thenReturn(tokens("ok", "gone", "later"));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        int delivered = pushService.sendToUser(1L, MESSAGE).get(5, TimeUnit.SECONDS);
+
+        assertThat(delivered).isEqualTo(2);
+        verify(deviceTokenRepository).deactivateTokens(Set.of("gone"));
+    }
+
+    @Test
+    void fullQueueShedsBatchesInsteadOfRunningOnCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        RecordingProvider provider = new RecordingProvider(1) {
+            @Override
+            public PushBatchResult sendMulticast(List<String> tokens, PushMessage message) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.sendMulticast(tokens, message);
+            }
+        };
+        pushService = newService(provider, 1, 1);
+        when(deviceTokenRepository.findActiveTokensByUserIds(any())).thenReturn(tokens("a"), tokens("b", "c"));
+
+        // Lô đầu chiếm worker duy nhất; lô thứ hai vào hàng đợi, lô thứ ba bị bỏ
+        CompletableFuture<Integer> first = pushService.sendToUser(1L, MESSAGE);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> rest = pushService.sendToUsers(List.of(2L, 3L), MESSAGE);
+
+        PushStatsResponse stats = pushService.getStats();
+        assertThat(stats.getShedBatches()).isEqualTo(1);
+        assertThat(stats.getShedTokens()).isEqualTo(1);
+        assertThat(stats.getQueueDepth()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(rest.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(provider.threads).doesNotContain(Thread.currentThread().getName());
+    }
+
+    @Test
+    void permanentFailureGivesUpWithoutRetrying() throws Exception {
+        RecordingProvider provider = new RecordingProvider(10) {
+            @Override
+            public PushBatchResult sendMulticast(List<String> tokens, PushMessage message) {
+                super.sendMulticast(tokens, message);
+                throw new PushDeliveryException("bad credentials", false);
+            }
+        };
+        pushService = newService(provider, 1, 10);
+        when(deviceTokenRepository.findActiveTokensByUserIds(any())).thenReturn(tokens("a"));
+
+        assertThat(pushService.sendToUser(1L, MESSAGE).get(5, TimeUnit.SECONDS)).isZero();
+        assertThat(provider.batchSizes).hasSize(1);
+    }
+
+    private PushServiceImpl newService(PushProvider provider, int poolSize, int queueCapacity) {
+        return new PushServiceImpl(deviceTokenRepository, transactionTemplate, List.of(provider),
+            true, 10_000, poolSize, queueCapacity, 3, 1);
+    }
+
+    private static List<Object[]> tokens(String... tokens) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String token : tokens) {
+            rows.add(new Object[]{LocalPushProvider.NAME, token});
+        }
+        return rows;
+    }
+
+    private static class RecordingProvider implements PushProvider {
+        private final int batchSize;
+        final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        RecordingProvider(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public String getName() {
+            return LocalPushProvider.NAME;
+        }
+
+        @Override
+        public int getMaxBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public int getMaxConcurrency() {
+            return 4;
+        }
+
+        @Override
+        public PushBatchResult sendMulticast(List<String> tokens, PushMessage message) {
+            batchSizes.add(tokens.size());
+            threads.add(Thread.currentThread().getName());
+            return PushBatchResult.success(tokens.size());
+        }
+    }
+}
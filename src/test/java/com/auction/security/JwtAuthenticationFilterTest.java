@@ -0,0 +1,130 @@
+package com.auction.security;
+
+import com.auction.event.UserRolesChangedEvent;
+import com.auction.repository.RevokedTokenRepository;
+import com.auction.repository.UserRepository;
+import com.auction.repository.UserTokenWatermarkRepository;
+import com.auction.service.ClusterEventBus;
+import com.auction.service.TokenRevocationService;
+import com.auction.service.impl.JwtServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    private static final String SECRET =
+        "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserTokenWatermarkRepository watermarkRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationService revocationService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        // publish của ClusterEventBus xử lý ngay tại node này, không cần DB
+        ClusterEventBus clusterEventBus = new ClusterEventBus(null, transactionManager);
+        revocationService = new TokenRevocationService(revokedTokenRepository, userRepository, watermarkRepository,
+            clusterEventBus, null, 86_400_000L, 1_000, 0.01);
+        // @PostConstruct: đăng ký topic và nạp trạng thái (rỗng) từ các repository mock
+        ReflectionTestUtils.invokeMethod(revocationService, "load");
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, revocationService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenIssuedBeforeRoleChangeIsRejected() throws Exception {
+        String adminToken = token(Instant.now().minusSeconds(60));
+
+        changeRoles(42L, Instant.now().minusSeconds(30));
+
+        assertThat(authenticate(adminToken)).isNull();
+        verify(watermarkRepository).advance(eq(42L), any());
+    }
+
+    @Test
+    void tokenIssuedAfterRoleChangeIsAccepted() throws Exception {
+        changeRoles(42L, Instant.now().minusSeconds(30));
+
+        Authentication authentication = authenticate(token(Instant.now()));
+
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void roleChangeOfAnotherUserDoesNotAffectToken() throws Exception {
+        changeRoles(7L, Instant.now());
+
+        assertThat(authenticate(token(Instant.now().minusSeconds(60)))).isNotNull();
+    }
+
+    private void changeRoles(Long userId, Instant at) {
+        UserRolesChangedEvent event = new UserRolesChangedEvent(userId, at);
+        revocationService.recordRoleChange(event);
+        revocationService.onUserRolesChanged(event);
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static String token(Instant issuedAt) {
+        return Jwts.builder()
+            .setClaims(Map.of(JwtClaims.USER_ID, 42L, JwtClaims.ROLES, List.of("ROLE_ADMIN")))
+            .setSubject("admin")
+            .setId("jti-" + issuedAt.toEpochMilli())
+            .setIssuedAt(Date.from(issuedAt))
+            .setExpiration(Date.from(issuedAt.plusSeconds(86_400)))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+            .compact();
+    }
+}
@@ -0,0 +1,107 @@
+package com.auction.service;
+
+import com.auction.enums.RenditionStatus;
+import com.auction.model.AuctionImage;
+import com.auction.repository.AuctionImageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class ImageStorageServiceTest {
+    private static final String HASH = "abcdef0123456789";
+    private static final String FILE_NAME = HASH + ".jpg";
+
+    @Mock
+    private AuctionImageRepository auctionImageRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @TempDir
+    private Path uploadDir;
+
+    private ImageStorageService imageStorageService;
+
+    @AfterEach
+    void tearDown() {
+        if (imageStorageService != null) {
+            imageStorageService.shutdown();
+        }
+    }
+
+    @Test
+    void brokenOriginalIsMarkedFailedAfterMaxAttempts() throws Exception {
+        imageStorageService = newService(2);
+        writeTruncatedJpeg();
+
+        runOnce();
+        verify(auctionImageRepository, never()).updateRenditionStatus(anyString(), any());
+
+        runOnce();
+        verify(auctionImageRepository).updateRenditionStatus(HASH, RenditionStatus.FAILED);
+    }
+
+    @Test
+    void failuresBelowTheLimitStayPendingForRetry() throws Exception {
+        imageStorageService = newService(3);
+        writeTruncatedJpeg();
+
+        runOnce();
+        runOnce();
+
+        verify(auctionImageRepository, never()).updateRenditionStatus(anyString(), any());
+    }
+
+    private ImageStorageService newService(int maxAttempts) {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        return new ImageStorageService(auctionImageRepository, transactionTemplate, uploadDir.toString(),
+            "/uploads/images", 1, 10, maxAttempts);
+    }
+
+    // Header JPEG hợp lệ nhưng thân bị cắt: có reader nhưng giải mã ném IOException
+    private void writeTruncatedJpeg() throws Exception {
+        Path original = uploadDir.resolve("original").resolve(HASH.substring(0, 2)).resolve(HASH.substring(2, 4))
+            .resolve(FILE_NAME);
+        Files.createDirectories(original.getParent());
+        Files.write(original, new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F'});
+    }
+
+    private void runOnce() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(imageStorageService,
+            "renditionExecutor");
+        long completed = executor.getCompletedTaskCount();
+        AuctionImage image = AuctionImage.builder()
+            .fileName(FILE_NAME)
+            .contentHash(HASH)
+            .renditionStatus(RenditionStatus.PENDING)
+            .build();
+        imageStorageService.scheduleRenditions(List.of(image));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (executor.getCompletedTaskCount() == completed && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getCompletedTaskCount()).isGreaterThan(completed);
+    }
+}
@@ -0,0 +1,97 @@
+package com.auction.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QueryPlanVerifierTest {
+    private static final Pattern FROM_TABLE = Pattern.compile("FROM (\\w+)");
+    private static final String ALL_INDEXES = "idx_bids_auction_amount,idx_bids_auction_winning," +
+        "idx_notifications_recipient_read_created,idx_notifications_recipient_type_created," +
+        "idx_auctions_status_end,idx_auctions_status_start,idx_payment_orders_status_expires";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void passesWhenEveryHotQueryUsesItsIndex() {
+        onDatabase("MySQL");
+        explainAs(ALL_INDEXES, "ref", 50_000);
+
+        QueryPlanVerifier verifier = new QueryPlanVerifier(jdbcTemplate, true, 1000);
+
+        assertThat(verifier.findViolations()).isEmpty();
+        verifier.verify();
+    }
+
+    @Test
+    void largeFullScanFailsStartupWhenConfigured() {
+        onDatabase("MySQL");
+        explainAs(ALL_INDEXES, "ALL", 50_000);
+
+        assertThatThrownBy(() -> new QueryPlanVerifier(jdbcTemplate, true, 1000).verify())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("full scan");
+    }
+
+    @Test
+    void missingIndexIsReportedEvenOnSmallTables() {
+        onDatabase("MySQL");
+        // Index bị xóa hoặc đổi tên: bảng nhỏ vẫn phải báo lỗi
+        explainAs("PRIMARY", "ALL", 10);
+
+        QueryPlanVerifier verifier = new QueryPlanVerifier(jdbcTemplate, false, 1000);
+
+        assertThat(verifier.findViolations()).isNotEmpty().allMatch(violation -> violation.contains("not usable"));
+        verifier.verify();
+        assertThatThrownBy(() -> new QueryPlanVerifier(jdbcTemplate, true, 1000).verify())
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void skipsOtherDatabases() {
+        onDatabase("H2");
+
+        new QueryPlanVerifier(jdbcTemplate, true, 1000).verify();
+
+        verify(jdbcTemplate, never()).queryForList(anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onDatabase(String product) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(product);
+    }
+
+    // Một dòng EXPLAIN cho bảng trong mệnh đề FROM của truy vấn
+    private void explainAs(String possibleKeys, String type, long rows) {
+        when(jdbcTemplate.queryForList(anyString())).thenAnswer(invocation -> {
+            Matcher matcher = FROM_TABLE.matcher(invocation.<String>getArgument(0));
+            assertThat(matcher.find()).isTrue();
+            Map<String, Object> row = new HashMap<>();
+            row.put("table", matcher.group(1));
+            row.put("possible_keys", possibleKeys);
+            row.put("type", type);
+            row.put("key", "ALL".equals(type) ? null : possibleKeys.split(",")[0]);
+            row.put("rows", rows);
+            return List.of(row);
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package com.auction.service;
+
+import com.auction.event.UserRolesChangedEvent;
+import com.auction.model.User;
+import com.auction.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SecondLevelCacheServiceTest {
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactory sessionFactory;
+    @Mock
+    private Cache cache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ReadRoutingService readRoutingService;
+
+    private ClusterEventBus clusterEventBus;
+    private SecondLevelCacheService secondLevelCacheService;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        // publish xử lý ngay tại node này (như khi nhận thông điệp từ node khác), không cần DB
+        clusterEventBus = new ClusterEventBus(null, transactionManager);
+        secondLevelCacheService = new SecondLevelCacheService(entityManagerFactory, clusterEventBus);
+    }
+
+    @Test
+    void roleChangeEvictsUserAndRolesCollection() {
+        secondLevelCacheService.onUserRolesChanged(new UserRolesChangedEvent(42L, Instant.now()));
+
+        verify(cache).evictEntityData(User.class, 42L);
+        verify(cache).evictCollectionData(User.class.getName() + ".roles", 42L);
+    }
+
+    @Test
+    void userCacheReloadsAfterEvictingSecondLevelCache() {
+        when(readRoutingService.onPrimary(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        when(userRepository.findById(42L)).thenReturn(Optional.of(user("ROLE_ADMIN")), Optional.of(user("ROLE_USER")));
+        UserCacheService userCacheService = new UserCacheService(userRepository, clusterEventBus, readRoutingService,
+            secondLevelCacheService, 100);
+
+        assertThat(userCacheService.findById(42L)).isPresent();
+        clusterEventBus.publish(UserCacheService.INVALIDATION_TOPIC, "42");
+        assertThat(userCacheService.findById(42L)).isPresent();
+
+        InOrder order = inOrder(cache, userRepository);
+        order.verify(userRepository).findById(42L);
+        order.verify(cache).evictCollectionData(User.class.getName() + ".roles", 42L);
+        order.verify(userRepository).findById(42L);
+        verify(userRepository, times(2)).findById(42L);
+    }
+
+    private static User user(String note) {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("admin");
+        user.setFullName(note);
+        user.setRoles(new HashSet<>());
+        return user;
+    }
+}
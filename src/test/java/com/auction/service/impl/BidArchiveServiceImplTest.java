@@ -0,0 +1,131 @@
+package com.auction.service.impl;
+
+import com.auction.model.Auction;
+import com.auction.model.Bid;
+import com.auction.model.BidArchive;
+import com.auction.model.User;
+import com.auction.repository.AuctionRepository;
+import com.auction.repository.BidArchiveDayRepository;
+import com.auction.repository.BidArchiveRepository;
+import com.auction.repository.BidRepository;
+import com.auction.service.UserService;
+import com.auction.utils.BidArchiveCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BidArchiveServiceImplTest {
+    private static final LocalDateTime DAY1 = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime DAY2 = DAY1.plusDays(1);
+
+    @Mock
+    private AuctionRepository auctionRepository;
+    @Mock
+    private BidRepository bidRepository;
+    @Mock
+    private BidArchiveRepository bidArchiveRepository;
+    @Mock
+    private BidArchiveDayRepository bidArchiveDayRepository;
+    @Mock
+    private UserService userService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @InjectMocks
+    private BidArchiveServiceImpl bidArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bidArchiveService, "closedAgeDays", 30);
+        ReflectionTestUtils.setField(bidArchiveService, "batchSize", 10);
+        lenient().doAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+            .when(transactionTemplate).execute(any());
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(bidArchiveRepository.sumTotals()).thenReturn(List.<Object[]>of(new Object[]{0L, 0L, 0L}));
+    }
+
+    @Test
+    void archivingRecordsDailyCountsExceptTheKeptWinningBid() {
+        Bid first = bid(1L, 5L, DAY1);
+        Bid second = bid(2L, 5L, DAY1.plusHours(1));
+        Bid winner = bid(3L, 6L, DAY2);
+        Auction auction = new Auction();
+        auction.setId(9L);
+        auction.setWinningBid(winner);
+        when(bidArchiveRepository.findUnindexedIds(eq(0L), any())).thenReturn(List.of());
+        when(auctionRepository.findArchivableIds(any(), any(), eq(0L), any())).thenReturn(List.of(9L));
+        when(auctionRepository.findById(9L)).thenReturn(Optional.of(auction));
+        when(bidRepository.findByAuctionIdOrderByIdAsc(9L)).thenReturn(List.of(first, second, winner));
+
+        bidArchiveService.runArchival();
+
+        verify(bidArchiveDayRepository).insertIfAbsent(9L, DAY1.toLocalDate(), 5L, 2);
+        verify(bidArchiveDayRepository, never()).insertIfAbsent(anyLong(), eq(DAY2.toLocalDate()), anyLong(), anyInt());
+        verify(bidArchiveRepository).save(argThat(BidArchive::isDaysIndexed));
+    }
+
+    @Test
+    void existingArchivesAreDecodedIntoDailyCounts() {
+        BidArchive archive = new BidArchive();
+        archive.setAuctionId(4L);
+        archive.setPayload(BidArchiveCodec.encode(List.of(
+            new BidArchiveCodec.Entry(1L, 5L, BigDecimal.TEN, DAY1, false),
+            new BidArchiveCodec.Entry(2L, 7L, BigDecimal.valueOf(11), DAY2, false),
+            new BidArchiveCodec.Entry(3L, 5L, BigDecimal.valueOf(12), DAY2, true))));
+        when(bidArchiveRepository.findUnindexedIds(eq(0L), any())).thenReturn(List.of(4L));
+        when(bidArchiveRepository.findById(4L)).thenReturn(Optional.of(archive));
+        // Bid thắng vẫn nằm trong bảng bids nên không được đếm lại từ archive
+        when(bidRepository.findByAuctionIdOrderByIdAsc(4L)).thenReturn(List.of(bid(3L, 5L, DAY2)));
+        when(auctionRepository.findArchivableIds(any(), any(), eq(0L), any())).thenReturn(List.of());
+
+        bidArchiveService.runArchival();
+
+        verify(bidArchiveDayRepository).insertIfAbsent(4L, LocalDate.of(2024, 1, 1), 5L, 1);
+        verify(bidArchiveDayRepository).insertIfAbsent(4L, LocalDate.of(2024, 1, 2), 7L, 1);
+        verify(bidArchiveDayRepository, never()).insertIfAbsent(4L, LocalDate.of(2024, 1, 2), 5L, 1);
+        assertThat(archive.isDaysIndexed()).isTrue();
+    }
+
+    private static Bid bid(Long id, Long bidderId, LocalDateTime time) {
+        User bidder = new User();
+        bidder.setId(bidderId);
+        Bid bid = new Bid();
+        bid.setId(id);
+        bid.setBidder(bidder);
+        bid.setAmount(BigDecimal.valueOf(id));
+        bid.setBidTime(time);
+        return bid;
+    }
+}
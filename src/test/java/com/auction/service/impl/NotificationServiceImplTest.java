@@ -0,0 +1,125 @@
+package com.auction.service.impl;
+
+import com.auction.dto.NotificationGroupSummary;
+import com.auction.model.Notification;
+import com.auction.model.User;
+import com.auction.push.service.PushService;
+import com.auction.repository.NotificationCounterRepository;
+import com.auction.repository.NotificationPreferenceRepository;
+import com.auction.repository.NotificationRepository;
+import com.auction.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceImplTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private NotificationPreferenceRepository preferenceRepository;
+    @Mock
+    private NotificationCounterRepository counterRepository;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+    @Mock
+    private PushService pushService;
+    @InjectMocks
+    private NotificationServiceImpl notificationService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+    }
+
+    @Test
+    void groupsAreBuiltFromSummaryAndOneIndexedPagePerType() {
+        when(notificationRepository.summarizeByType(7L)).thenReturn(List.of(
+            new Object[]{"OUTBID", 6L, 2L, NOW},
+            new Object[]{"BID", 1L, null, NOW.minusHours(1)}));
+        when(notificationRepository.findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(7L, "OUTBID", PageRequest.of(0, 5)))
+            .thenReturn(new SliceImpl<>(List.of(notification(3L, "OUTBID"), notification(1L, "OUTBID")), PageRequest.of(0, 5), true));
+        when(notificationRepository.findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(7L, "BID", PageRequest.of(0, 5)))
+            .thenReturn(new SliceImpl<>(List.of(notification(2L, "BID")), PageRequest.of(0, 5), false));
+
+        Map<String, NotificationGroupSummary> groups = notificationService.getNotificationGroups(user, 0, 5);
+
+        assertThat(groups.keySet()).containsExactly("OUTBID", "BID");
+        NotificationGroupSummary outbid = groups.get("OUTBID");
+        assertThat(outbid.getTotalCount()).isEqualTo(6);
+        assertThat(outbid.getUnreadCount()).isEqualTo(2);
+        assertThat(outbid.isHasMore()).isTrue();
+        assertThat(outbid.getItems()).extracting(Notification::getId).containsExactly(3L, 1L);
+        NotificationGroupSummary bid = groups.get("BID");
+        assertThat(bid.getUnreadCount()).isZero();
+        assertThat(bid.isHasMore()).isFalse();
+        assertThat(bid.getItems()).extracting(Notification::getId).containsExactly(2L);
+    }
+
+    @Test
+    void pageAndSizeAreClampedBeforeQuerying() {
+        when(notificationRepository.summarizeByType(7L)).thenReturn(List.<Object[]>of(
+            new Object[]{"OUTBID", 120L, 0L, NOW}));
+        when(notificationRepository.findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(7L, "OUTBID", PageRequest.of(1, 50)))
+            .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(1, 50), true));
+
+        NotificationGroupSummary outbid = notificationService.getNotificationGroups(user, 1, 500).get("OUTBID");
+
+        assertThat(outbid.getPage()).isEqualTo(1);
+        assertThat(outbid.getSize()).isEqualTo(50);
+        assertThat(outbid.isHasMore()).isTrue();
+    }
+
+    @Test
+    void noItemQueryWhenUserHasNoNotifications() {
+        when(notificationRepository.summarizeByType(7L)).thenReturn(List.of());
+
+        assertThat(notificationService.getNotificationGroups(user, 0, 5)).isEmpty();
+        verify(notificationRepository, never()).findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(anyLong(), any(), any());
+    }
+
+    @Test
+    void groupedKeepsItsShapeButOnlyReturnsTheLatestPagePerType() {
+        when(notificationRepository.summarizeByType(7L)).thenReturn(List.<Object[]>of(
+            new Object[]{"OUTBID", 500L, 0L, NOW}));
+        // Lịch sử 500 thông báo nhưng chỉ trang đầu (tối đa 50) được đọc
+        when(notificationRepository.findByRecipientIdAndTypeOrderByCreatedAtDescIdDesc(7L, "OUTBID", PageRequest.of(0, 50)))
+            .thenReturn(new SliceImpl<>(List.of(notification(9L, "OUTBID")), PageRequest.of(0, 50), true));
+
+        Map<String, List<Notification>> grouped = notificationService.getGroupedNotifications(user);
+
+        assertThat(grouped).containsOnlyKeys("OUTBID");
+        assertThat(grouped.get("OUTBID")).extracting(Notification::getId).containsExactly(9L);
+    }
+
+    private static Notification notification(Long id, String type) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setType(type);
+        return notification;
+    }
+}
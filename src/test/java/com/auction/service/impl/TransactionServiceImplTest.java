@@ -0,0 +1,119 @@
+package com.auction.service.impl;
+
+import com.auction.enums.PaymentStatus;
+import com.auction.model.Auction;
+import com.auction.model.Transaction;
+import com.auction.model.User;
+import com.auction.payment.dto.ReconciliationEntry;
+import com.auction.payment.event.PaymentStatusChangedEvent;
+import com.auction.payment.model.PaymentOrder;
+import com.auction.payment.model.ReconciliationMismatch;
+import com.auction.payment.repository.PaymentOrderRepository;
+import com.auction.payment.util.ReconciliationMerger;
+import com.auction.repository.TransactionRepository;
+import com.auction.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceImplTest {
+    private static final String ORDER_CODE = "PAY-0A1B2C3D";
+
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private TransactionServiceImpl transactionService;
+
+    private PaymentOrder order;
+    private User buyer;
+
+    @BeforeEach
+    void setUp() {
+        buyer = new User();
+        buyer.setId(7L);
+        Auction auction = new Auction();
+        auction.setId(42L);
+        order = new PaymentOrder();
+        order.setId(1L);
+        order.setOrderCode(ORDER_CODE);
+        order.setUser(buyer);
+        order.setAuction(auction);
+        order.setAmount(new BigDecimal("150000.00"));
+        order.setStatus(PaymentStatus.COMPLETED);
+    }
+
+    @Test
+    void completedOrderRecordsTransactionThatReconcilesWithTheOrder() {
+        when(transactionRepository.findByTransactionRef(ORDER_CODE)).thenReturn(Optional.empty());
+        when(paymentOrderRepository.findByOrderCode(ORDER_CODE)).thenReturn(Optional.of(order));
+        when(userRepository.getReferenceById(7L)).thenReturn(buyer);
+
+        transactionService.onPaymentStatusChanged(changed(PaymentStatus.PENDING, PaymentStatus.COMPLETED));
+
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        Transaction transaction = saved.getValue();
+        assertThat(transaction.getTransactionRef()).isEqualTo(ORDER_CODE);
+        assertThat(transaction.getAuctionId()).isEqualTo(42L);
+        assertThat(transaction.getBuyer()).isSameAs(buyer);
+        assertThat(transaction.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+
+        // Cùng dạng dòng mà job đối soát đọc từ payment_orders và transactions
+        List<ReconciliationMismatch> mismatches = new ArrayList<>();
+        ReconciliationMerger merger = new ReconciliationMerger(mismatches::add);
+        merger.merge(
+            List.of(new ReconciliationEntry(order.getOrderCode(), order.getAmount(), order.getStatus())).iterator(),
+            List.of(new ReconciliationEntry(transaction.getTransactionRef(),
+                BigDecimal.valueOf(transaction.getAmount()), transaction.getStatus())).iterator(),
+            List.of(new ReconciliationEntry(ORDER_CODE, new BigDecimal("150000"), PaymentStatus.COMPLETED)).iterator());
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void laterStatusChangesFollowTheOrder() {
+        Transaction existing = new Transaction();
+        existing.setTransactionRef(ORDER_CODE);
+        existing.setStatus(PaymentStatus.COMPLETED);
+        when(transactionRepository.findByTransactionRef(ORDER_CODE)).thenReturn(Optional.of(existing));
+
+        transactionService.onPaymentStatusChanged(changed(PaymentStatus.COMPLETED, PaymentStatus.REFUNDED));
+
+        assertThat(existing.getStatus()).isEqualTo(PaymentStatus.REFUNDED);
+        verify(transactionRepository).save(existing);
+    }
+
+    @Test
+    void unpaidOrderRecordsNothing() {
+        when(transactionRepository.findByTransactionRef(ORDER_CODE)).thenReturn(Optional.empty());
+
+        transactionService.onPaymentStatusChanged(changed(PaymentStatus.PENDING, PaymentStatus.EXPIRED));
+
+        verify(transactionRepository, never()).save(any());
+    }
+
+    private PaymentStatusChangedEvent changed(PaymentStatus from, PaymentStatus to) {
+        return new PaymentStatusChangedEvent(order.getId(), ORDER_CODE, buyer.getId(), order.getAmount(), from, to,
+            LocalDateTime.now());
+    }
+}